@@ -9,9 +9,24 @@ import io.vertx.ext.auth.authorization.RoleBasedAuthorization;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.auth.jwt.JWTAuthOptions;
 import io.vertx.ext.auth.jwt.authorization.JWTAuthorization;
+import io.vertx.serviceproxy.AdaptiveLimitOptions;
+import io.vertx.serviceproxy.AuthCacheOptions;
 import io.vertx.serviceproxy.AuthenticationInterceptor;
 import io.vertx.serviceproxy.AuthorizationInterceptor;
+import io.vertx.serviceproxy.BulkheadOptions;
+import io.vertx.serviceproxy.CircuitBreakerOptions;
+import io.vertx.serviceproxy.CompressionOptions;
+import io.vertx.serviceproxy.EvictionPolicy;
+import io.vertx.serviceproxy.HedgingOptions;
+import io.vertx.serviceproxy.IdempotencyOptions;
+import io.vertx.serviceproxy.NearCacheOptions;
+import io.vertx.serviceproxy.NearCaches;
+import io.vertx.serviceproxy.ResultCacheOptions;
+import io.vertx.serviceproxy.RetryOptions;
+import io.vertx.serviceproxy.RoutingOptions;
+import io.vertx.serviceproxy.RoutingPolicy;
 import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceDeadline;
 import io.vertx.serviceproxy.ServiceProxyBuilder;
 
 /**
@@ -92,6 +107,156 @@ public class Examples {
       .build(SomeDatabaseService.class);
   }
 
+  public void batching(Vertx vertx) {
+    SomeDatabaseService service = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      // Coalesce the calls made within 5 milliseconds
+      .setBatchWindow(5)
+      // but no more than 32 calls per batch
+      .setMaxBatchSize(32)
+      .build(SomeDatabaseService.class);
+  }
+
+  public void directDispatch(Vertx vertx) {
+    SomeDatabaseService service = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      // Call the service directly when it is registered in this Vert.x instance
+      .setDirectDispatch(true)
+      .build(SomeDatabaseService.class);
+  }
+
+  public void compression(Vertx vertx, SomeDatabaseService service) {
+    // Compress the payloads of 4KB and more, on both sides
+    CompressionOptions compression = new CompressionOptions().setThreshold(4096);
+    new ServiceBinder(vertx)
+      .setAddress("database-service-address")
+      .setCompression(compression)
+      .register(SomeDatabaseService.class, service);
+    SomeDatabaseService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      .setCompression(compression)
+      .build(SomeDatabaseService.class);
+  }
+
+  public void hedging(Vertx vertx) {
+    SomeDatabaseService service = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      // Send the idempotent save calls again when they are slower than 95% of the calls
+      .setHedging(new HedgingOptions()
+        .addAction("save")
+        .setPercentile(0.95))
+      .build(SomeDatabaseService.class);
+  }
+
+  public void resilience(Vertx vertx) {
+    SomeDatabaseService service = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      // Fail fast when half of the last 20 calls of an action failed
+      .setCircuitBreaker(new CircuitBreakerOptions()
+        .setWindowSize(20)
+        .setFailureRateThreshold(0.5)
+        .setOpenDuration(10_000))
+      // Retry the idempotent save calls that time out
+      .setRetry(new RetryOptions()
+        .addAction("save")
+        .setMaxRetries(2))
+      .build(SomeDatabaseService.class);
+  }
+
+  public void routing(Vertx vertx, SomeDatabaseService service) {
+    // Each instance advertises itself every second
+    new ServiceBinder(vertx)
+      .setAddress("database-service-address")
+      .setInstanceHeartbeat(1000)
+      .register(SomeDatabaseService.class, service);
+    // Call the instance with the fewest calls in flight
+    SomeDatabaseService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      .setRouting(new RoutingOptions().setPolicy(RoutingPolicy.LEAST_OUTSTANDING))
+      .build(SomeDatabaseService.class);
+  }
+
+  public void bulkhead(Vertx vertx, SomeDatabaseService service) {
+    new ServiceBinder(vertx)
+      .setAddress("database-service-address")
+      // At most 32 calls in flight, 8 of them saving, and 100 waiting calls
+      .setBulkhead(new BulkheadOptions()
+        .setMaxConcurrentCalls(32)
+        .setActionMaxConcurrentCalls("save", 8)
+        .setMaxQueueSize(100))
+      .register(SomeDatabaseService.class, service);
+  }
+
+  public void adaptiveLimit(Vertx vertx, SomeDatabaseService service) {
+    new ServiceBinder(vertx)
+      .setAddress("database-service-address")
+      // Tune the calls in flight between 4 and 200 from the latency of the calls
+      .setAdaptiveLimit(new AdaptiveLimitOptions()
+        .setMinLimit(4)
+        .setMaxLimit(200))
+      // Park up to 100 calls above the limit
+      .setBulkhead(new BulkheadOptions()
+        .setMaxConcurrentCalls(200)
+        .setMaxQueueSize(100))
+      .register(SomeDatabaseService.class, service);
+  }
+
+  public void deadlines(Vertx vertx) {
+    // Calls not served within 2 seconds are dropped by the service
+    SomeDatabaseService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      .setOptions(new DeliveryOptions().setSendTimeout(2000))
+      .setDeadlinePropagation(true)
+      .build(SomeDatabaseService.class);
+  }
+
+  public void remainingBudget() {
+    // Within a service method, skip the optional work when less than 100ms are left
+    long remaining = ServiceDeadline.remaining();
+    if (remaining == -1 || remaining > 100) {
+      // ...
+    }
+  }
+
+  public void idempotency(Vertx vertx, SomeDatabaseService service) {
+    // Remember the calls for 5 minutes
+    new ServiceBinder(vertx)
+      .setAddress("database-service-address")
+      .setIdempotency(new IdempotencyOptions().setTtl(300_000))
+      .register(SomeDatabaseService.class, service);
+    // Retry the saves which timed out, a save reaching the service twice is executed once
+    SomeDatabaseService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      .setIdempotencyKeys(true)
+      .setRetry(new RetryOptions().addAction("save"))
+      .build(SomeDatabaseService.class);
+  }
+
+  public void nearCache(Vertx vertx) {
+    // Keep up to 10000 results of the cacheable methods
+    SomeDatabaseService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress("database-service-address")
+      .setNearCache(new NearCacheOptions().setMaxSize(10_000))
+      .build(SomeDatabaseService.class);
+  }
+
+  public void invalidateNearCache(Vertx vertx) {
+    // Purge the results of the lookup method on all the nodes
+    NearCaches.invalidate(vertx, "database-service-address", "lookup");
+  }
+
+  public void resultCache(Vertx vertx, SomeDatabaseService service) {
+    new ServiceBinder(vertx)
+      .setAddress("database-service-address")
+      // Share the finds for 30 seconds, keep at most 16MB of the most frequently found documents
+      .setResultCache(new ResultCacheOptions()
+        .addAction("find")
+        .setTtl(30_000)
+        .setMaxWeight(16 * 1024 * 1024)
+        .setEvictionPolicy(EvictionPolicy.LFU))
+      .register(SomeDatabaseService.class, service);
+  }
+
   public void secure(Vertx vertx) {
     // Create an instance of your service implementation
     SomeDatabaseService service = new SomeDatabaseServiceImpl();
@@ -113,4 +278,16 @@ public class Examples {
           .addAuthorization(PermissionBasedAuthorization.create("print")))
       .register(SomeDatabaseService.class, service);
   }
+
+  public void secureWithCache(Vertx vertx) {
+    SomeDatabaseService service = new SomeDatabaseServiceImpl();
+    new ServiceBinder(vertx)
+      .setAddress("database-service-address")
+      .addInterceptor(
+        // Cache up to 10000 users for 5 minutes
+        AuthenticationInterceptor.create(
+          JWTAuth.create(vertx, new JWTAuthOptions()),
+          new AuthCacheOptions().setMaxSize(10_000).setTtl(5 * 60 * 1000)))
+      .register(SomeDatabaseService.class, service);
+  }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the adaptive concurrency limit of a service: the number of calls the service handles concurrently is
+ * tuned continuously from the latency of the calls, in the manner of TCP Vegas.
+ * <p>
+ * The limit grows while the latency stays close to the lowest latency observed, and shrinks when the latency grows,
+ * which tells calls are queuing somewhere behind the service, or when the calls fail with a code {@code >= 500}. The
+ * calls above the limit are rejected with a {@link ServiceException} of code {@link BulkheadOptions#REJECTED}, unless
+ * a {@link BulkheadOptions bulkhead} queue parks them.
+ */
+@DataObject
+public class AdaptiveLimitOptions {
+
+  /**
+   * The default initial limit = 20
+   */
+  public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+  /**
+   * The default minimum limit = 1
+   */
+  public static final int DEFAULT_MIN_LIMIT = 1;
+
+  /**
+   * The default maximum limit = 1000
+   */
+  public static final int DEFAULT_MAX_LIMIT = 1000;
+
+  private int initialLimit;
+  private int minLimit;
+  private int maxLimit;
+
+  public AdaptiveLimitOptions() {
+    initialLimit = DEFAULT_INITIAL_LIMIT;
+    minLimit = DEFAULT_MIN_LIMIT;
+    maxLimit = DEFAULT_MAX_LIMIT;
+  }
+
+  public AdaptiveLimitOptions(AdaptiveLimitOptions other) {
+    initialLimit = other.initialLimit;
+    minLimit = other.minLimit;
+    maxLimit = other.maxLimit;
+  }
+
+  public AdaptiveLimitOptions(JsonObject json) {
+    this();
+    setInitialLimit(json.getInteger("initialLimit", DEFAULT_INITIAL_LIMIT));
+    setMinLimit(json.getInteger("minLimit", DEFAULT_MIN_LIMIT));
+    setMaxLimit(json.getInteger("maxLimit", DEFAULT_MAX_LIMIT));
+  }
+
+  /**
+   * @return the initial limit
+   */
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  /**
+   * Set the initial limit, it is kept between the minimum and the maximum limits.
+   *
+   * @param initialLimit the initial limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveLimitOptions setInitialLimit(int initialLimit) {
+    if (initialLimit < 1) {
+      throw new IllegalArgumentException("initialLimit must be > 0");
+    }
+    this.initialLimit = initialLimit;
+    return this;
+  }
+
+  /**
+   * @return the minimum limit
+   */
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  /**
+   * Set the minimum limit.
+   *
+   * @param minLimit the minimum limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveLimitOptions setMinLimit(int minLimit) {
+    if (minLimit < 1) {
+      throw new IllegalArgumentException("minLimit must be > 0");
+    }
+    this.minLimit = minLimit;
+    return this;
+  }
+
+  /**
+   * @return the maximum limit
+   */
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * Set the maximum limit.
+   *
+   * @param maxLimit the maximum limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveLimitOptions setMaxLimit(int maxLimit) {
+    if (maxLimit < 1) {
+      throw new IllegalArgumentException("maxLimit must be > 0");
+    }
+    this.maxLimit = maxLimit;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("initialLimit", initialLimit)
+      .put("minLimit", minLimit)
+      .put("maxLimit", maxLimit);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the caches of the security interceptors.
+ */
+@DataObject
+public class AuthCacheOptions {
+
+  /**
+   * The default maximum number of cached entries = 1024
+   */
+  public static final int DEFAULT_MAX_SIZE = 1024;
+
+  /**
+   * The default time to live of a cached entry = 60000 ms
+   */
+  public static final long DEFAULT_TTL = 60_000L;
+
+  private int maxSize;
+  private long ttl;
+
+  public AuthCacheOptions() {
+    maxSize = DEFAULT_MAX_SIZE;
+    ttl = DEFAULT_TTL;
+  }
+
+  public AuthCacheOptions(AuthCacheOptions other) {
+    maxSize = other.maxSize;
+    ttl = other.ttl;
+  }
+
+  public AuthCacheOptions(JsonObject json) {
+    this();
+    setMaxSize(json.getInteger("maxSize", DEFAULT_MAX_SIZE));
+    setTtl(json.getLong("ttl", DEFAULT_TTL));
+  }
+
+  /**
+   * @return the maximum number of cached entries
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Set the maximum number of cached entries, the least recently used entries are evicted first.
+   *
+   * @param maxSize the maximum size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AuthCacheOptions setMaxSize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0");
+    }
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  /**
+   * @return the time to live of a cached entry in milliseconds
+   */
+  public long getTtl() {
+    return ttl;
+  }
+
+  /**
+   * Set the time to live of a cached entry in milliseconds.
+   *
+   * @param ttl the time to live
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AuthCacheOptions setTtl(long ttl) {
+    if (ttl < 1) {
+      throw new IllegalArgumentException("ttl must be > 0");
+    }
+    this.ttl = ttl;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("maxSize", maxSize)
+      .put("ttl", ttl);
+  }
+}
@@ -28,4 +28,30 @@ public interface AuthenticationInterceptor extends ServiceInterceptor {
   static AuthenticationInterceptor create(AuthenticationProvider authenticationProvider) {
     return new AuthenticationInterceptorImpl(authenticationProvider);
   }
+
+  /**
+   * Create an authentication interceptor caching the users of the tokens it has authenticated, tokens are
+   * authenticated again once the cached user expires or the cache entry is evicted.
+   *
+   * @param authenticationProvider the authentication provider
+   * @param cacheOptions           the cache options
+   * @return the interceptor
+   */
+  static AuthenticationInterceptor create(AuthenticationProvider authenticationProvider, AuthCacheOptions cacheOptions) {
+    return new AuthenticationInterceptorImpl(authenticationProvider, cacheOptions);
+  }
+
+  /**
+   * @return the number of tokens found in the cache, {@code 0} when the interceptor has no cache
+   */
+  default long cacheHitCount() {
+    return 0L;
+  }
+
+  /**
+   * @return the number of tokens not found in the cache, {@code 0} when the interceptor has no cache
+   */
+  default long cacheMissCount() {
+    return 0L;
+  }
 }
@@ -16,6 +16,7 @@
 package io.vertx.serviceproxy;
 
 import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authorization.Authorization;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
 import io.vertx.serviceproxy.impl.AuthorizationInterceptorImpl;
@@ -32,6 +33,18 @@ public interface AuthorizationInterceptor extends ServiceInterceptor {
     return new AuthorizationInterceptorImpl(authorizationProvider);
   }
 
+  /**
+   * Create an authorization interceptor caching its decision for each user, repeated calls of a user are then
+   * authorized without querying the authorization provider. Changing the required authorities clears the cache.
+   *
+   * @param authorizationProvider the authorization provider
+   * @param cacheOptions          the cache options
+   * @return the interceptor
+   */
+  static AuthorizationInterceptor create(AuthorizationProvider authorizationProvider, AuthCacheOptions cacheOptions) {
+    return new AuthorizationInterceptorImpl(authorizationProvider, cacheOptions);
+  }
+
   /**
    * Set the required authorities for the service, once a JWT is validated it will be
    * queried for these authorities. If authorities are missing a error 403 is returned.
@@ -48,4 +61,24 @@ public interface AuthorizationInterceptor extends ServiceInterceptor {
    * @return self
    */
   AuthorizationInterceptor addAuthorization(Authorization authorization);
+
+  /**
+   * Forget the cached decision of a user, e.g. after its authorities have changed. Does nothing when the interceptor
+   * has no cache.
+   *
+   * @param user the user
+   * @return self
+   */
+  default AuthorizationInterceptor invalidate(User user) {
+    return this;
+  }
+
+  /**
+   * Forget all the cached decisions. Does nothing when the interceptor has no cache.
+   *
+   * @return self
+   */
+  default AuthorizationInterceptor invalidateAll() {
+    return this;
+  }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Options of the bulkhead of a service: the number of calls the service handles concurrently is limited, globally and
+ * per action. The calls above the limits wait in a bounded queue, the calls overflowing the queue are rejected with a
+ * {@link ServiceException} of code {@link #REJECTED}.
+ * <p>
+ * A call is in flight until it is replied, a call without reply is in flight until the service method returns.
+ */
+@DataObject
+public class BulkheadOptions {
+
+  /**
+   * The failure code of the rejected calls = 429
+   */
+  public static final int REJECTED = 429;
+
+  /**
+   * The default maximum number of calls in flight = 64
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_CALLS = 64;
+
+  /**
+   * The default maximum number of waiting calls = 0, the calls are rejected immediately
+   */
+  public static final int DEFAULT_MAX_QUEUE_SIZE = 0;
+
+  private int maxConcurrentCalls;
+  private final Map<String, Integer> actionMaxConcurrentCalls;
+  private int maxQueueSize;
+
+  public BulkheadOptions() {
+    maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+    actionMaxConcurrentCalls = new LinkedHashMap<>();
+    maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+  }
+
+  public BulkheadOptions(BulkheadOptions other) {
+    maxConcurrentCalls = other.maxConcurrentCalls;
+    actionMaxConcurrentCalls = new LinkedHashMap<>(other.actionMaxConcurrentCalls);
+    maxQueueSize = other.maxQueueSize;
+  }
+
+  public BulkheadOptions(JsonObject json) {
+    this();
+    setMaxConcurrentCalls(json.getInteger("maxConcurrentCalls", DEFAULT_MAX_CONCURRENT_CALLS));
+    JsonObject actions = json.getJsonObject("actionMaxConcurrentCalls");
+    if (actions != null) {
+      actions.forEach(entry -> setActionMaxConcurrentCalls(entry.getKey(), ((Number) entry.getValue()).intValue()));
+    }
+    setMaxQueueSize(json.getInteger("maxQueueSize", DEFAULT_MAX_QUEUE_SIZE));
+  }
+
+  /**
+   * @return the maximum number of calls in flight
+   */
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  /**
+   * Set the maximum number of calls in flight, all actions included.
+   *
+   * @param maxConcurrentCalls the maximum number of calls
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BulkheadOptions setMaxConcurrentCalls(int maxConcurrentCalls) {
+    if (maxConcurrentCalls < 1) {
+      throw new IllegalArgumentException("maxConcurrentCalls must be > 0");
+    }
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    return this;
+  }
+
+  /**
+   * @return the maximum numbers of calls in flight of the actions
+   */
+  public Map<String, Integer> getActionMaxConcurrentCalls() {
+    return actionMaxConcurrentCalls;
+  }
+
+  /**
+   * Set the maximum number of calls in flight of an action, within the global maximum.
+   *
+   * @param action             the action
+   * @param maxConcurrentCalls the maximum number of calls
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BulkheadOptions setActionMaxConcurrentCalls(String action, int maxConcurrentCalls) {
+    if (action == null) {
+      throw new IllegalArgumentException("action must not be null");
+    }
+    if (maxConcurrentCalls < 1) {
+      throw new IllegalArgumentException("maxConcurrentCalls must be > 0");
+    }
+    actionMaxConcurrentCalls.put(action, maxConcurrentCalls);
+    return this;
+  }
+
+  /**
+   * @return the maximum number of waiting calls
+   */
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * Set the maximum number of calls waiting for a call in flight to end, the waiting calls are dispatched in order.
+   *
+   * @param maxQueueSize the maximum queue size, {@code 0} to reject the calls immediately
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BulkheadOptions setMaxQueueSize(int maxQueueSize) {
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException("maxQueueSize must be >= 0");
+    }
+    this.maxQueueSize = maxQueueSize;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("maxConcurrentCalls", maxConcurrentCalls)
+      .put("actionMaxConcurrentCalls", new JsonObject(new LinkedHashMap<String, Object>(actionMaxConcurrentCalls)))
+      .put("maxQueueSize", maxQueueSize);
+  }
+}
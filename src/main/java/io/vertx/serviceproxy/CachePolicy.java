@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+/**
+ * The caching policy of a service method annotated with {@link io.vertx.serviceproxy.annotations.ProxyCacheable}.
+ * This class is used by the generated factories, it should not be used directly.
+ */
+public final class CachePolicy {
+
+  private final long ttl;
+  private final long staleWhileRevalidate;
+
+  /**
+   * @param ttl                  the time a result is fresh in milliseconds
+   * @param staleWhileRevalidate the time a result is still returned once it is no longer fresh in milliseconds
+   */
+  public CachePolicy(long ttl, long staleWhileRevalidate) {
+    this.ttl = ttl;
+    this.staleWhileRevalidate = staleWhileRevalidate;
+  }
+
+  /**
+   * @return the time a result is fresh in milliseconds
+   */
+  public long getTtl() {
+    return ttl;
+  }
+
+  /**
+   * @return the time a result is still returned once it is no longer fresh in milliseconds
+   */
+  public long getStaleWhileRevalidate() {
+    return staleWhileRevalidate;
+  }
+}
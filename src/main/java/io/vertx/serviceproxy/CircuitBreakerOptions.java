@@ -0,0 +1,270 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the circuit breakers of a proxy, each action of the proxy has its own circuit.
+ * <p>
+ * A circuit opens when the rate of failed or slow calls among its last calls reaches a threshold, the calls of an
+ * open circuit fail immediately with a {@link ServiceException} of code {@link #CIRCUIT_OPEN}. After a while the
+ * circuit lets a few probe calls through and closes when they all succeed, otherwise it opens again.
+ * <p>
+ * Timeouts, missing handlers and failures with a code {@code >= 500} are failures, other failures are the business of
+ * the service and count as successful calls.
+ */
+@DataObject
+public class CircuitBreakerOptions {
+
+  /**
+   * The failure code of the calls rejected by an open circuit = 503
+   */
+  public static final int CIRCUIT_OPEN = 503;
+
+  /**
+   * The default number of calls of the sliding window = 20
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 20;
+
+  /**
+   * The default minimum number of calls before a circuit can open = 10
+   */
+  public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+  /**
+   * The default failure rate opening a circuit = 0.5
+   */
+  public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5D;
+
+  /**
+   * The default slow call rate opening a circuit = 1, only slow calls
+   */
+  public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1D;
+
+  /**
+   * The default duration of a slow call = 5000 ms
+   */
+  public static final long DEFAULT_SLOW_CALL_DURATION = 5_000L;
+
+  /**
+   * The default time a circuit stays open = 10000 ms
+   */
+  public static final long DEFAULT_OPEN_DURATION = 10_000L;
+
+  /**
+   * The default number of probe calls of a half open circuit = 3
+   */
+  public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+  private int windowSize;
+  private int minimumCalls;
+  private double failureRateThreshold;
+  private double slowCallRateThreshold;
+  private long slowCallDuration;
+  private long openDuration;
+  private int halfOpenCalls;
+
+  public CircuitBreakerOptions() {
+    windowSize = DEFAULT_WINDOW_SIZE;
+    minimumCalls = DEFAULT_MINIMUM_CALLS;
+    failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+    slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+    slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+    openDuration = DEFAULT_OPEN_DURATION;
+    halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+  }
+
+  public CircuitBreakerOptions(CircuitBreakerOptions other) {
+    windowSize = other.windowSize;
+    minimumCalls = other.minimumCalls;
+    failureRateThreshold = other.failureRateThreshold;
+    slowCallRateThreshold = other.slowCallRateThreshold;
+    slowCallDuration = other.slowCallDuration;
+    openDuration = other.openDuration;
+    halfOpenCalls = other.halfOpenCalls;
+  }
+
+  public CircuitBreakerOptions(JsonObject json) {
+    this();
+    setWindowSize(json.getInteger("windowSize", DEFAULT_WINDOW_SIZE));
+    setMinimumCalls(json.getInteger("minimumCalls", DEFAULT_MINIMUM_CALLS));
+    setFailureRateThreshold(json.getDouble("failureRateThreshold", DEFAULT_FAILURE_RATE_THRESHOLD));
+    setSlowCallRateThreshold(json.getDouble("slowCallRateThreshold", DEFAULT_SLOW_CALL_RATE_THRESHOLD));
+    setSlowCallDuration(json.getLong("slowCallDuration", DEFAULT_SLOW_CALL_DURATION));
+    setOpenDuration(json.getLong("openDuration", DEFAULT_OPEN_DURATION));
+    setHalfOpenCalls(json.getInteger("halfOpenCalls", DEFAULT_HALF_OPEN_CALLS));
+  }
+
+  /**
+   * @return the number of calls of the sliding window
+   */
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  /**
+   * Set the number of last calls on which the failure and slow call rates are computed.
+   *
+   * @param windowSize the window size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CircuitBreakerOptions setWindowSize(int windowSize) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("windowSize must be > 0");
+    }
+    this.windowSize = windowSize;
+    return this;
+  }
+
+  /**
+   * @return the minimum number of calls before a circuit can open
+   */
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  /**
+   * Set the minimum number of calls before a circuit can open, it is capped by the window size.
+   *
+   * @param minimumCalls the minimum number of calls
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CircuitBreakerOptions setMinimumCalls(int minimumCalls) {
+    if (minimumCalls < 1) {
+      throw new IllegalArgumentException("minimumCalls must be > 0");
+    }
+    this.minimumCalls = minimumCalls;
+    return this;
+  }
+
+  /**
+   * @return the failure rate opening a circuit
+   */
+  public double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  /**
+   * Set the failure rate opening a circuit.
+   *
+   * @param failureRateThreshold the rate, between 0 excluded and 1
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CircuitBreakerOptions setFailureRateThreshold(double failureRateThreshold) {
+    if (failureRateThreshold <= 0D || failureRateThreshold > 1D) {
+      throw new IllegalArgumentException("failureRateThreshold must be > 0 and <= 1");
+    }
+    this.failureRateThreshold = failureRateThreshold;
+    return this;
+  }
+
+  /**
+   * @return the slow call rate opening a circuit
+   */
+  public double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  /**
+   * Set the slow call rate opening a circuit.
+   *
+   * @param slowCallRateThreshold the rate, between 0 excluded and 1
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CircuitBreakerOptions setSlowCallRateThreshold(double slowCallRateThreshold) {
+    if (slowCallRateThreshold <= 0D || slowCallRateThreshold > 1D) {
+      throw new IllegalArgumentException("slowCallRateThreshold must be > 0 and <= 1");
+    }
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    return this;
+  }
+
+  /**
+   * @return the duration in milliseconds after which a call is slow
+   */
+  public long getSlowCallDuration() {
+    return slowCallDuration;
+  }
+
+  /**
+   * Set the duration in milliseconds after which a call is slow.
+   *
+   * @param slowCallDuration the duration
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CircuitBreakerOptions setSlowCallDuration(long slowCallDuration) {
+    if (slowCallDuration < 1) {
+      throw new IllegalArgumentException("slowCallDuration must be > 0");
+    }
+    this.slowCallDuration = slowCallDuration;
+    return this;
+  }
+
+  /**
+   * @return the time in milliseconds a circuit stays open
+   */
+  public long getOpenDuration() {
+    return openDuration;
+  }
+
+  /**
+   * Set the time in milliseconds a circuit stays open before letting probe calls through.
+   *
+   * @param openDuration the duration
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CircuitBreakerOptions setOpenDuration(long openDuration) {
+    if (openDuration < 1) {
+      throw new IllegalArgumentException("openDuration must be > 0");
+    }
+    this.openDuration = openDuration;
+    return this;
+  }
+
+  /**
+   * @return the number of probe calls of a half open circuit
+   */
+  public int getHalfOpenCalls() {
+    return halfOpenCalls;
+  }
+
+  /**
+   * Set the number of probe calls a half open circuit lets through, the circuit closes when they all succeed.
+   *
+   * @param halfOpenCalls the number of probe calls
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CircuitBreakerOptions setHalfOpenCalls(int halfOpenCalls) {
+    if (halfOpenCalls < 1) {
+      throw new IllegalArgumentException("halfOpenCalls must be > 0");
+    }
+    this.halfOpenCalls = halfOpenCalls;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("windowSize", windowSize)
+      .put("minimumCalls", minimumCalls)
+      .put("failureRateThreshold", failureRateThreshold)
+      .put("slowCallRateThreshold", slowCallRateThreshold)
+      .put("slowCallDuration", slowCallDuration)
+      .put("openDuration", openDuration)
+      .put("halfOpenCalls", halfOpenCalls);
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.util.zip.Deflater;
+
+/**
+ * Options of the compression of the payloads exchanged by proxies and services, see
+ * {@link ServiceProxyBuilder#setCompression(CompressionOptions)} and {@link ServiceBinder#setCompression(CompressionOptions)}.
+ */
+@DataObject
+public class CompressionOptions {
+
+  /**
+   * The default size above which a payload is compressed = 1024 bytes
+   */
+  public static final int DEFAULT_THRESHOLD = 1024;
+
+  /**
+   * The default compression level = {@link Deflater#DEFAULT_COMPRESSION}
+   */
+  public static final int DEFAULT_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+  /**
+   * The default maximum size of a decompressed payload = 64 MB
+   */
+  public static final int DEFAULT_MAX_DECOMPRESSED_SIZE = 64 * 1024 * 1024;
+
+  private int threshold;
+  private int level;
+  private Buffer dictionary;
+  private int maxDecompressedSize;
+
+  public CompressionOptions() {
+    threshold = DEFAULT_THRESHOLD;
+    level = DEFAULT_LEVEL;
+    maxDecompressedSize = DEFAULT_MAX_DECOMPRESSED_SIZE;
+  }
+
+  public CompressionOptions(CompressionOptions other) {
+    threshold = other.threshold;
+    level = other.level;
+    dictionary = other.dictionary;
+    maxDecompressedSize = other.maxDecompressedSize;
+  }
+
+  public CompressionOptions(JsonObject json) {
+    this();
+    setThreshold(json.getInteger("threshold", DEFAULT_THRESHOLD));
+    setLevel(json.getInteger("level", DEFAULT_LEVEL));
+    setDictionary(json.getBuffer("dictionary"));
+    setMaxDecompressedSize(json.getInteger("maxDecompressedSize", DEFAULT_MAX_DECOMPRESSED_SIZE));
+  }
+
+  /**
+   * @return the size in bytes of the JSON encoding of a payload above which the payload is compressed
+   */
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Set the size in bytes of the JSON encoding of a payload above which the payload is compressed.
+   *
+   * @param threshold the threshold
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CompressionOptions setThreshold(int threshold) {
+    if (threshold < 0) {
+      throw new IllegalArgumentException("threshold must be >= 0");
+    }
+    this.threshold = threshold;
+    return this;
+  }
+
+  /**
+   * @return the deflate compression level
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * Set the deflate compression level, from {@code 0} to {@code 9} or {@link Deflater#DEFAULT_COMPRESSION}.
+   *
+   * @param level the level
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CompressionOptions setLevel(int level) {
+    if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("level must be in [-1, 9]");
+    }
+    this.level = level;
+    return this;
+  }
+
+  /**
+   * @return the preset dictionary or {@code null}
+   */
+  public Buffer getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Set a preset deflate dictionary, made of byte sequences frequently found in the payloads such as field names.
+   * The proxies and the services must use the same dictionary.
+   *
+   * @param dictionary the dictionary
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CompressionOptions setDictionary(Buffer dictionary) {
+    this.dictionary = dictionary;
+    return this;
+  }
+
+  /**
+   * @return the maximum size in bytes of a decompressed payload
+   */
+  public int getMaxDecompressedSize() {
+    return maxDecompressedSize;
+  }
+
+  /**
+   * Set the maximum size in bytes of a decompressed payload, a payload inflating beyond it is rejected instead of
+   * being decompressed in memory.
+   *
+   * @param maxDecompressedSize the maximum size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CompressionOptions setMaxDecompressedSize(int maxDecompressedSize) {
+    if (maxDecompressedSize < 1) {
+      throw new IllegalArgumentException("maxDecompressedSize must be > 0");
+    }
+    this.maxDecompressedSize = maxDecompressedSize;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject()
+      .put("threshold", threshold)
+      .put("level", level)
+      .put("maxDecompressedSize", maxDecompressedSize);
+    if (dictionary != null) {
+      json.put("dictionary", dictionary);
+    }
+    return json;
+  }
+}
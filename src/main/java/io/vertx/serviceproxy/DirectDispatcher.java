@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.serviceproxy.impl.LocalServiceRegistry;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Dispatch the calls of a proxy directly to a service implementation registered in the same Vert.x instance, see
+ * {@link ServiceProxyBuilder#setDirectDispatch(boolean)}.
+ * <p>
+ * The service is called on its context with the Java arguments of the call and the result is delivered on the context
+ * of the caller. Timeouts and failures are reported like the event bus does and the calls are distributed in a
+ * round-robin fashion when several services are registered at the address. This class is used by the generated
+ * proxies, it should not be used directly.
+ */
+public class DirectDispatcher {
+
+  private final Vertx vertx;
+  private final LocalServiceRegistry registry;
+  private final String address;
+  private final Class<?> iface;
+  private final long timeout;
+  private final ServiceProxyMetrics metrics;
+  private final AtomicInteger index = new AtomicInteger();
+
+  DirectDispatcher(Vertx vertx, LocalServiceRegistry registry, String address, Class<?> iface, long timeout, ServiceProxyMetrics metrics) {
+    this.vertx = vertx;
+    this.registry = registry;
+    this.address = address;
+    this.iface = iface;
+    this.timeout = timeout;
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return whether a service is still registered, otherwise the calls must be sent on the event bus
+   */
+  public boolean isAvailable() {
+    return !registry.lookup(address, iface).isEmpty();
+  }
+
+  /**
+   * Call a service method returning a future.
+   *
+   * @param action the service method name
+   * @param call the call of the service method
+   * @return the result of the call
+   */
+  @SuppressWarnings("unchecked")
+  public <S, T> Future<T> call(String action, Function<S, Future<T>> call) {
+    ContextInternal caller = (ContextInternal) vertx.getOrCreateContext();
+    LocalServiceRegistry.Registration registration = next();
+    if (registration == null) {
+      return caller.failedFuture(new ReplyException(ReplyFailure.NO_HANDLERS, "No handlers for address " + address));
+    }
+    Promise<T> promise = caller.promise();
+    Object requestMetric = metrics != null ? metrics.requestBegin(address, action, null) : null;
+    long timerID = timeout > 0 ? vertx.setTimer(timeout, id -> promise.tryFail(new ReplyException(ReplyFailure.TIMEOUT,
+      "Timed out after waiting " + timeout + "(ms) for a reply. address: " + address + ", repliedAddress: " + address))) : -1;
+    registration.context().runOnContext(v -> {
+      try {
+        call.apply((S) registration.service()).onComplete(ar -> {
+          if (ar.succeeded()) {
+            promise.tryComplete(ar.result());
+          } else {
+            promise.tryFail(failure(registration, ar.cause()));
+          }
+        });
+      } catch (Throwable t) {
+        promise.tryFail(new ServiceException(500, t.getMessage()));
+      }
+    });
+    if (timerID == -1 && metrics == null) {
+      return promise.future();
+    }
+    return promise.future().andThen(ar -> {
+      if (timerID != -1) {
+        vertx.cancelTimer(timerID);
+      }
+      if (metrics != null) {
+        metrics.requestEnd(requestMetric, address, action, ar.result(), ar.cause());
+      }
+    });
+  }
+
+  /**
+   * Call a service method without result.
+   *
+   * @param action the service method name
+   * @param call the call of the service method
+   */
+  @SuppressWarnings("unchecked")
+  public <S> void send(String action, Consumer<S> call) {
+    LocalServiceRegistry.Registration registration = next();
+    if (registration == null) {
+      // like a send on the event bus without consumer
+      return;
+    }
+    Object requestMetric = metrics != null ? metrics.requestBegin(address, action, null) : null;
+    registration.context().runOnContext(v -> call.accept((S) registration.service()));
+    if (metrics != null) {
+      metrics.requestEnd(requestMetric, address, action, null, null);
+    }
+  }
+
+  private LocalServiceRegistry.Registration next() {
+    List<LocalServiceRegistry.Registration> registrations = registry.lookup(address, iface);
+    if (registrations.isEmpty()) {
+      return null;
+    }
+    return registrations.get(Math.floorMod(index.getAndIncrement(), registrations.size()));
+  }
+
+  private ReplyException failure(LocalServiceRegistry.Registration registration, Throwable cause) {
+    // the same failures as the ones replied by a service handler
+    if (cause instanceof ServiceException) {
+      return (ServiceException) cause;
+    } else if (registration.includeDebugInfo()) {
+      return new ServiceException(-1, cause.getMessage(), HelperUtils.generateDebugInfo(cause));
+    } else {
+      return new ServiceException(-1, cause.getMessage());
+    }
+  }
+}
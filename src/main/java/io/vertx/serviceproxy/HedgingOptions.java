@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Options of the hedged requests of a proxy: when the reply of a call of an idempotent action has not arrived after a
+ * delay, the call is sent again and the first reply wins.
+ */
+@DataObject
+public class HedgingOptions {
+
+  /**
+   * The default delay before hedging a call = 100 ms
+   */
+  public static final long DEFAULT_DELAY = 100L;
+
+  /**
+   * The default latency percentile after which a call is hedged = 0, disabled
+   */
+  public static final double DEFAULT_PERCENTILE = 0D;
+
+  private final Set<String> actions;
+  private long delay;
+  private double percentile;
+
+  public HedgingOptions() {
+    actions = new LinkedHashSet<>();
+    delay = DEFAULT_DELAY;
+    percentile = DEFAULT_PERCENTILE;
+  }
+
+  public HedgingOptions(HedgingOptions other) {
+    actions = new LinkedHashSet<>(other.actions);
+    delay = other.delay;
+    percentile = other.percentile;
+  }
+
+  public HedgingOptions(JsonObject json) {
+    this();
+    JsonArray array = json.getJsonArray("actions");
+    if (array != null) {
+      array.forEach(action -> addAction((String) action));
+    }
+    setDelay(json.getLong("delay", DEFAULT_DELAY));
+    setPercentile(json.getDouble("percentile", DEFAULT_PERCENTILE));
+  }
+
+  /**
+   * @return the hedged actions
+   */
+  public Set<String> getActions() {
+    return actions;
+  }
+
+  /**
+   * Set the hedged actions, only idempotent actions should be hedged since the service may execute a call twice.
+   *
+   * @param actions the actions, i.e the names of the service methods
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgingOptions setActions(Set<String> actions) {
+    this.actions.clear();
+    actions.forEach(this::addAction);
+    return this;
+  }
+
+  /**
+   * Hedge an action, see {@link #setActions(Set)}.
+   *
+   * @param action the action
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgingOptions addAction(String action) {
+    if (action == null) {
+      throw new IllegalArgumentException("action must not be null");
+    }
+    actions.add(action);
+    return this;
+  }
+
+  /**
+   * @return the delay before hedging a call in milliseconds
+   */
+  public long getDelay() {
+    return delay;
+  }
+
+  /**
+   * Set the delay before hedging a call in milliseconds, it is used until enough latencies are observed when a
+   * percentile is set.
+   *
+   * @param delay the delay
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgingOptions setDelay(long delay) {
+    if (delay < 1) {
+      throw new IllegalArgumentException("delay must be > 0");
+    }
+    this.delay = delay;
+    return this;
+  }
+
+  /**
+   * @return the latency percentile after which a call is hedged
+   */
+  public double getPercentile() {
+    return percentile;
+  }
+
+  /**
+   * Hedge the calls which have not been replied after a percentile of the latencies recently observed for their
+   * action, e.g {@code 0.95} hedges the calls slower than 95% of the calls. A percentile of {@code 0} always
+   * uses the delay.
+   *
+   * @param percentile the percentile, between 0 and 1 excluded
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgingOptions setPercentile(double percentile) {
+    if (percentile < 0D || percentile >= 1D) {
+      throw new IllegalArgumentException("percentile must be >= 0 and < 1");
+    }
+    this.percentile = percentile;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("actions", new JsonArray(new ArrayList<>(actions)))
+      .put("delay", delay)
+      .put("percentile", percentile);
+  }
+}
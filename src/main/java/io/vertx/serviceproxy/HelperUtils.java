@@ -17,11 +17,18 @@ package io.vertx.serviceproxy;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.serviceproxy.impl.SharedBufferCodec;
+import io.vertx.serviceproxy.impl.StreamPublisher;
 
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * @author <a href="http://slinkydeveloper.github.io">Francesco Guardiani @slinkydeveloper</a>
@@ -43,6 +50,26 @@ public class HelperUtils {
     };
   }
 
+  /**
+   * Create the handler replying a {@link Buffer} result, the buffer is not copied when the caller is in the same
+   * Vert.x instance.
+   */
+  public static Handler<AsyncResult<Buffer>> createBufferHandler(Message msg, boolean includeDebugInfo) {
+    return res -> {
+      if (res.failed()) {
+        manageFailure(msg, res.cause(), includeDebugInfo);
+      } else if (res.result() == null) {
+        msg.reply(null);
+      } else {
+        msg.reply(res.result(), new DeliveryOptions().setCodecName(SharedBufferCodec.NAME));
+      }
+    };
+  }
+
+  public static void registerBufferCodecs(Vertx vertx) {
+    ProxyUtils.registerBufferCodecs(vertx);
+  }
+
   public static <T> Handler<AsyncResult<List<T>>> createListHandler(Message msg, boolean includeDebugInfo) {
     return res -> {
       if (res.failed()) {
@@ -115,6 +142,35 @@ public class HelperUtils {
     };
   }
 
+  /**
+   * Create the handler of a stream result, the items of the stream are published at a private address pulled
+   * in chunks by the proxy.
+   *
+   * @param vertx the vertx instance
+   * @param msg the call message
+   * @param includeDebugInfo whether failures carry debug info
+   * @param timeoutSeconds the time after which the stream is closed when the proxy stops pulling, {@code -1} to disable
+   * @param encoder the encoder of the items to their JSON representation
+   */
+  public static <T> Handler<AsyncResult<ReadStream<T>>> createStreamHandler(Vertx vertx, Message msg, boolean includeDebugInfo, long timeoutSeconds, Function<T, Object> encoder) {
+    return res -> {
+      if (res.failed()) {
+        manageFailure(msg, res.cause(), includeDebugInfo);
+      } else if (res.result() == null) {
+        msg.reply(null);
+      } else {
+        long idleTimeout = timeoutSeconds > 0 ? timeoutSeconds * 1000 : -1;
+        StreamPublisher.publish(vertx, res.result(), encoder, includeDebugInfo, idleTimeout).onComplete(ar -> {
+          if (ar.failed()) {
+            manageFailure(msg, ar.cause(), includeDebugInfo);
+          } else {
+            msg.reply(null, new DeliveryOptions().addHeader(StreamPublisher.ADDRESS_HEADER, ar.result()));
+          }
+        });
+      }
+    };
+  }
+
   public static void manageFailure(Message msg, Throwable cause, boolean includeDebugInfo) {
     if (cause instanceof ServiceException) {
       msg.reply(cause);
@@ -138,6 +194,18 @@ public class HelperUtils {
     return new HashSet<T>((List<T>)list);
   }
 
+  public static <T extends Number> List<T> convertNumberList(List list, Class<T> type, Function<Number, T> converter) {
+    return ProxyUtils.convertNumberList(list, type, converter);
+  }
+
+  public static <T extends Number> Set<T> convertNumberSet(List list, Class<T> type, Function<Number, T> converter) {
+    return ProxyUtils.convertNumberSet(list, type, converter);
+  }
+
+  public static <T extends Number> Map<String, T> convertNumberMap(Map map, Class<T> type, Function<Number, T> converter) {
+    return ProxyUtils.convertNumberMap(map, type, converter);
+  }
+
   public static JsonObject generateDebugInfo(Throwable cause) {
     if (cause == null) return null;
     JsonObject obj = new JsonObject();
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the deduplication of the calls carrying an {@link #HEADER idempotency key}.
+ * <p>
+ * A call is executed once per key: a duplicate received while the call is in flight joins it and receives the same
+ * reply, a duplicate received after a successful reply receives the cached reply, without the service being called
+ * again. Failed calls are not cached, so a later retry executes the call again. The keys are scoped by action and by
+ * authentication token.
+ */
+@DataObject
+public class IdempotencyOptions {
+
+  /**
+   * The header of the idempotency key of a call.
+   */
+  public static final String HEADER = "idempotency-key";
+
+  /**
+   * The default maximum number of remembered calls = 10000
+   */
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+
+  /**
+   * The default time a call is remembered = 60000 ms
+   */
+  public static final long DEFAULT_TTL = 60_000L;
+
+  private int maxSize;
+  private long ttl;
+
+  public IdempotencyOptions() {
+    maxSize = DEFAULT_MAX_SIZE;
+    ttl = DEFAULT_TTL;
+  }
+
+  public IdempotencyOptions(IdempotencyOptions other) {
+    maxSize = other.maxSize;
+    ttl = other.ttl;
+  }
+
+  public IdempotencyOptions(JsonObject json) {
+    this();
+    setMaxSize(json.getInteger("maxSize", DEFAULT_MAX_SIZE));
+    setTtl(json.getLong("ttl", DEFAULT_TTL));
+  }
+
+  /**
+   * @return the maximum number of remembered calls
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Set the maximum number of remembered calls, the least recently used calls are forgotten first.
+   *
+   * @param maxSize the maximum size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public IdempotencyOptions setMaxSize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0");
+    }
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  /**
+   * @return the time a call is remembered in milliseconds
+   */
+  public long getTtl() {
+    return ttl;
+  }
+
+  /**
+   * Set the time a call is remembered in milliseconds, from its reception, it should exceed the time the callers
+   * keep retrying a call.
+   *
+   * @param ttl the time to live
+   * @return a reference to this, so the API can be used fluently
+   */
+  public IdempotencyOptions setTtl(long ttl) {
+    if (ttl < 1) {
+      throw new IllegalArgumentException("ttl must be > 0");
+    }
+    this.ttl = ttl;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("maxSize", maxSize)
+      .put("ttl", ttl);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the near cache of the proxies, which keeps the results of the service methods annotated with
+ * {@link io.vertx.serviceproxy.annotations.ProxyCacheable}.
+ * <p>
+ * The cache of a service is shared by the proxies of the service in a Vert.x instance, it is sized by the first proxy
+ * built. The results are cached by action, authentication token and arguments, the caches of all the Vert.x instances
+ * are purged with {@link NearCaches#invalidate(io.vertx.core.Vertx, String)}.
+ */
+@DataObject
+public class NearCacheOptions {
+
+  /**
+   * The default maximum number of cached results = 1024
+   */
+  public static final int DEFAULT_MAX_SIZE = 1024;
+
+  private int maxSize;
+
+  public NearCacheOptions() {
+    maxSize = DEFAULT_MAX_SIZE;
+  }
+
+  public NearCacheOptions(NearCacheOptions other) {
+    maxSize = other.maxSize;
+  }
+
+  public NearCacheOptions(JsonObject json) {
+    this();
+    setMaxSize(json.getInteger("maxSize", DEFAULT_MAX_SIZE));
+  }
+
+  /**
+   * @return the maximum number of cached results
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Set the maximum number of cached results, the least recently used results are evicted first.
+   *
+   * @param maxSize the maximum size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public NearCacheOptions setMaxSize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0");
+    }
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("maxSize", maxSize);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Purge the near caches of the proxies of a service, see {@link NearCacheOptions}.
+ * <p>
+ * The invalidations are published on the {@link #invalidationAddress(String) invalidation address} of the service,
+ * so the caches of all the Vert.x instances of a cluster are purged. A service typically invalidates the results of
+ * its read methods when it handles a write.
+ */
+public final class NearCaches {
+
+  /**
+   * The field of an invalidation naming the action whose results are purged, all the results are purged when it is
+   * missing.
+   */
+  public static final String ACTION = "action";
+
+  private NearCaches() {
+  }
+
+  /**
+   * @return the address on which the invalidations of the near caches of the service at {@code address} are published
+   */
+  public static String invalidationAddress(String address) {
+    return address + ".cache-invalidation";
+  }
+
+  /**
+   * Purge all the results of the service at {@code address}.
+   *
+   * @param vertx   the vertx instance
+   * @param address the service address
+   */
+  public static void invalidate(Vertx vertx, String address) {
+    vertx.eventBus().publish(invalidationAddress(address), new JsonObject());
+  }
+
+  /**
+   * Purge the results of an action of the service at {@code address}.
+   *
+   * @param vertx   the vertx instance
+   * @param address the service address
+   * @param action  the action
+   */
+  public static void invalidate(Vertx vertx, String address, String action) {
+    vertx.eventBus().publish(invalidationAddress(address), new JsonObject().put(ACTION, action));
+  }
+}
@@ -21,13 +21,14 @@ import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.impl.BatchEnvelope;
+import io.vertx.serviceproxy.impl.IdleExpiryWheel;
 import io.vertx.serviceproxy.impl.InterceptorHolder;
+import io.vertx.serviceproxy.impl.InterceptorPipeline;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -35,14 +36,48 @@ import java.util.Objects;
  */
 public abstract class ProxyHandler implements Handler<Message<JsonObject>> {
 
+  /**
+   * The header of a call carrying the ordinal of its action, see {@link #actions()}. The {@code action} header is still
+   * sent, the ordinal is only trusted when it designates the same action.
+   */
+  public static final String ORDINAL_HEADER = "action-ordinal";
+
+  private static final String[] NO_ACTIONS = new String[0];
+
   protected boolean closed;
   protected MessageConsumer<JsonObject> consumer;
+  private IdleExpiryWheel.Entry idleEntry;
 
   public void close() {
+    if (idleEntry != null) {
+      idleEntry.cancel();
+    }
     consumer.unregister();
     closed = true;
   }
 
+  /**
+   * Expire this handler when it has not been {@link #accessed() accessed} for the given timeout. The expiry of the
+   * handlers of a Vert.x instance is tracked by a single shared timer wheel instead of a timer per handler.
+   *
+   * @param vertx          the VertX instance
+   * @param timeoutSeconds the idle timeout in seconds
+   * @param expiryHandler  called on the current context when the handler expires
+   */
+  protected void expireWhenIdle(Vertx vertx, long timeoutSeconds, Handler<Void> expiryHandler) {
+    idleEntry = IdleExpiryWheel.get(vertx).register(timeoutSeconds * 1000, expiryHandler);
+  }
+
+  /**
+   * Mark this handler accessed, see {@link #expireWhenIdle(Vertx, long, Handler)}.
+   */
+  protected void accessed() {
+    IdleExpiryWheel.Entry entry = idleEntry;
+    if (entry != null) {
+      entry.touch();
+    }
+  }
+
   /**
    * Register the proxy handle on the event bus.
    *
@@ -50,7 +85,7 @@ public abstract class ProxyHandler implements Handler<Message<JsonObject>> {
    * @param address  the proxy address
    */
   public MessageConsumer<JsonObject> register(EventBus eventBus, String address) {
-    consumer = eventBus.consumer(address, this);
+    consumer = eventBus.consumer(address, batching(this));
     return consumer;
   }
 
@@ -64,7 +99,7 @@ public abstract class ProxyHandler implements Handler<Message<JsonObject>> {
   public MessageConsumer<JsonObject> register(Vertx vertx, String address,
                                               List<InterceptorHolder> interceptorHolders) {
     Objects.requireNonNull(interceptorHolders);
-    Handler<Message<JsonObject>> handler = configureHandler(vertx, interceptorHolders);
+    Handler<Message<JsonObject>> handler = batching(configureHandler(vertx, interceptorHolders));
     consumer = vertx.eventBus().consumer(address, handler);
     return consumer;
   }
@@ -77,7 +112,7 @@ public abstract class ProxyHandler implements Handler<Message<JsonObject>> {
    * @param address  the proxy address
    */
   public MessageConsumer<JsonObject> registerLocal(EventBus eventBus, String address) {
-    consumer = eventBus.localConsumer(address, this);
+    consumer = eventBus.localConsumer(address, batching(this));
     return consumer;
   }
 
@@ -92,34 +127,96 @@ public abstract class ProxyHandler implements Handler<Message<JsonObject>> {
   public MessageConsumer<JsonObject> registerLocal(Vertx vertx, String address,
                                                    List<InterceptorHolder> interceptorHolders) {
     Objects.requireNonNull(interceptorHolders);
-    Handler<Message<JsonObject>> handler = configureHandler(vertx, interceptorHolders);
+    Handler<Message<JsonObject>> handler = batching(configureHandler(vertx, interceptorHolders));
     consumer = vertx.eventBus().localConsumer(address, handler);
     return consumer;
   }
 
+  /**
+   * The actions handled by this proxy handler, sorted in natural order, the position of an action in this array is
+   * its ordinal. Generated handlers override this method, the returned array must not be modified.
+   *
+   * @return the sorted actions
+   */
+  public String[] actions() {
+    return NO_ACTIONS;
+  }
+
+  /**
+   * Resolve the ordinal of an action.
+   *
+   * @param action the action
+   * @return the ordinal of the action or {@code -1} when the action is unknown
+   */
+  public int actionOrdinal(String action) {
+    if (action == null) {
+      return -1;
+    }
+    int ordinal = Arrays.binarySearch(actions(), action);
+    return ordinal < 0 ? -1 : ordinal;
+  }
+
+  /**
+   * Resolve the ordinal of the action of a call, from its {@link #ORDINAL_HEADER} when it designates the action of
+   * the {@code action} header, from the action name otherwise, e.g. when the call is sent by a proxy generated from
+   * another version of the service interface or by a client not sending the ordinal.
+   *
+   * @param msg the call
+   * @return the ordinal of the action or {@code -1} when the action is unknown
+   */
+  public int actionOrdinal(Message<?> msg) {
+    String action = msg.headers().get("action");
+    if (action == null) {
+      return -1;
+    }
+    String[] actions = actions();
+    int ordinal = parseOrdinal(msg.headers().get(ORDINAL_HEADER));
+    if (ordinal >= 0 && ordinal < actions.length && actions[ordinal].equals(action)) {
+      return ordinal;
+    }
+    return actionOrdinal(action);
+  }
+
+  private static int parseOrdinal(String value) {
+    // no exception for a malformed header, the call is dispatched by name
+    if (value == null || value.isEmpty() || value.length() > 9) {
+      return -1;
+    }
+    int ordinal = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      ordinal = ordinal * 10 + (c - '0');
+    }
+    return ordinal;
+  }
+
+  /**
+   * Register the handler of the proxy messages on the event bus, this proxy handler being the last handler.
+   */
+  MessageConsumer<JsonObject> register(Vertx vertx, String address, boolean local, Handler<Message<JsonObject>> handler) {
+    consumer = local ? vertx.eventBus().localConsumer(address, handler) : vertx.eventBus().consumer(address, handler);
+    return consumer;
+  }
+
+  static Handler<Message<JsonObject>> batching(Handler<Message<JsonObject>> handler) {
+    // the calls of a batch are dispatched before the interceptors so each call is intercepted on its own
+    return msg -> {
+      if (BatchEnvelope.ACTION.equals(msg.headers().get("action"))) {
+        BatchEnvelope.dispatch(msg, handler);
+      } else {
+        handler.handle(msg);
+      }
+    };
+  }
+
   private Handler<Message<JsonObject>> configureHandler(Vertx vertx, List<InterceptorHolder> interceptorHolders) {
-    Handler<Message<JsonObject>> handler = this;
-    Map<String, Object> context = new HashMap<>();
-    // construct the handler backwards, this allows the checks to be performed in the correct order
-    for (int i = interceptorHolders.size() - 1; i >= 0; i--) {
-      final InterceptorHolder interceptorHolder = interceptorHolders.get(i);
-      Handler<Message<JsonObject>> prev = handler;
-      handler = msg -> {
-        String action = msg.headers().get("action");
-        String holderAction = interceptorHolder.action();
-        if (holderAction == null || action.equals(holderAction)) {
-          interceptorHolder.interceptor().intercept(vertx, context, msg)
-            .onSuccess(prev)
-            .onFailure(err -> {
-              ReplyException exception = (ReplyException) err;
-              msg.fail(exception.failureCode(), exception.getMessage());
-            });
-        } else {
-          prev.handle(msg);
-        }
-      };
+    if (interceptorHolders.isEmpty()) {
+      return this;
     }
-    return handler;
+    return new InterceptorPipeline(vertx, this, interceptorHolders);
   }
 
 }
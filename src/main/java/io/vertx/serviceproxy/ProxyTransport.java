@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.serviceproxy.impl.EventBusProxyTransport;
+
+/**
+ * The transport used by generated proxies to deliver their call envelopes, by default the event bus.
+ * <p>
+ * Transports are composed by {@link ServiceProxyBuilder}: each feature of the builder (batching, retries...)
+ * decorates the transport it is given.
+ */
+public interface ProxyTransport {
+
+  /**
+   * @return a transport sending the call envelopes over the event bus of {@code vertx}
+   */
+  static ProxyTransport eventBus(Vertx vertx) {
+    return new EventBusProxyTransport(vertx.eventBus());
+  }
+
+  /**
+   * Send a call envelope and expect a reply.
+   *
+   * @param address the service address
+   * @param body    the call envelope
+   * @param options the delivery options, carrying the {@code action} header
+   * @return a future notified with the reply
+   */
+  <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options);
+
+  /**
+   * Send a call envelope without expecting a reply.
+   *
+   * @param address the service address
+   * @param body    the call envelope
+   * @param options the delivery options, carrying the {@code action} header
+   */
+  void send(String address, Object body, DeliveryOptions options);
+
+}
@@ -15,8 +15,14 @@
  */
 package io.vertx.serviceproxy;
 
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.serviceproxy.impl.BufferEnvelopeCodec;
+import io.vertx.serviceproxy.impl.CodecRegistry;
+import io.vertx.serviceproxy.impl.ProxyReadStream;
+import io.vertx.serviceproxy.impl.SharedBufferCodec;
 
 import java.util.*;
 import java.util.function.Function;
@@ -89,4 +95,75 @@ public class ProxyUtils {
     return new HashSet<T>(convertList(list));
   }
 
+  /**
+   * Convert a decoded list of numbers to a list of a numeric type. The numbers already of the type are kept as they
+   * are, the list itself is returned when all its numbers are of the type.
+   *
+   * @param list the decoded list
+   * @param type the numeric type
+   * @param converter the conversion of a number of another type
+   * @return the list of numbers of the type
+   */
+  public static <T extends Number> List<T> convertNumberList(List list, Class<T> type, Function<Number, T> converter) {
+    int size = list.size();
+    int i = 0;
+    while (i < size && (list.get(i) == null || list.get(i).getClass() == type)) {
+      i++;
+    }
+    if (i == size) {
+      return (List<T>) list;
+    }
+    List<T> converted = new ArrayList<>(size);
+    for (Object value : list) {
+      converted.add(value == null || value.getClass() == type ? (T) value : converter.apply((Number) value));
+    }
+    return converted;
+  }
+
+  public static <T extends Number> Set<T> convertNumberSet(List list, Class<T> type, Function<Number, T> converter) {
+    return new HashSet<>(convertNumberList(list, type, converter));
+  }
+
+  /**
+   * Convert a decoded map of numbers to a map of a numeric type, see {@link #convertNumberList(List, Class, Function)}.
+   */
+  public static <T extends Number> Map<String, T> convertNumberMap(Map map, Class<T> type, Function<Number, T> converter) {
+    for (Object value : map.values()) {
+      if (value != null && value.getClass() != type) {
+        Map<String, T> converted = new HashMap<>(map.size() * 2);
+        ((Map<String, Object>) map).forEach((key, v) -> converted.put(key, v == null || v.getClass() == type ? (T) v : converter.apply((Number) v)));
+        return converted;
+      }
+    }
+    return (Map<String, T>) map;
+  }
+
+  /**
+   * Register the codecs carrying the {@link io.vertx.core.buffer.Buffer} arguments and results of services, once per
+   * Vert.x instance.
+   *
+   * @param vertx the vertx instance
+   */
+  public static void registerBufferCodecs(Vertx vertx) {
+    CodecRegistry registry = CodecRegistry.get(vertx);
+    registry.registerCodec(vertx, BufferEnvelopeCodec.NAME, BufferEnvelopeCodec::new);
+    registry.registerCodec(vertx, SharedBufferCodec.NAME, SharedBufferCodec::new);
+  }
+
+  /**
+   * Read a stream result published by a service handler, see {@link HelperUtils#createStreamHandler}.
+   *
+   * @param vertx the vertx instance
+   * @param address the address of the published stream, {@code null} when the service returned a {@code null} stream
+   * @param timeout the timeout in ms of each pull
+   * @param decoder the decoder of the items from their JSON representation
+   * @return the stream or {@code null}
+   */
+  public static <T> ReadStream<T> readStream(Vertx vertx, String address, long timeout, Function<Object, T> decoder) {
+    if (address == null) {
+      return null;
+    }
+    return new ProxyReadStream<>(vertx, address, timeout, decoder, ProxyReadStream.DEFAULT_CHUNK_SIZE);
+  }
+
 }
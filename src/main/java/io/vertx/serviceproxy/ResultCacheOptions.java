@@ -0,0 +1,217 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Options of the result cache of a service: the replies of idempotent actions are cached by arguments, so the calls
+ * with the same arguments share one execution of the service method and one conversion of its result.
+ * <p>
+ * The cache is bounded both in number of results and in estimated heap size of the results. Failures and the replies
+ * creating resources, such as streams and proxies, are not cached. The calls with the same arguments as a call in
+ * flight wait for its reply.
+ */
+@DataObject
+public class ResultCacheOptions {
+
+  /**
+   * The default maximum number of cached results = 10000
+   */
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+
+  /**
+   * The default maximum estimated heap size of the cached results = 67108864 bytes
+   */
+  public static final long DEFAULT_MAX_WEIGHT = 64L * 1024 * 1024;
+
+  /**
+   * The default time to live of a cached result = 60000 ms
+   */
+  public static final long DEFAULT_TTL = 60_000L;
+
+  /**
+   * The default eviction policy = {@link EvictionPolicy#LRU}
+   */
+  public static final EvictionPolicy DEFAULT_EVICTION_POLICY = EvictionPolicy.LRU;
+
+  private final Set<String> actions;
+  private int maxSize;
+  private long maxWeight;
+  private long ttl;
+  private EvictionPolicy evictionPolicy;
+
+  public ResultCacheOptions() {
+    actions = new LinkedHashSet<>();
+    maxSize = DEFAULT_MAX_SIZE;
+    maxWeight = DEFAULT_MAX_WEIGHT;
+    ttl = DEFAULT_TTL;
+    evictionPolicy = DEFAULT_EVICTION_POLICY;
+  }
+
+  public ResultCacheOptions(ResultCacheOptions other) {
+    actions = new LinkedHashSet<>(other.actions);
+    maxSize = other.maxSize;
+    maxWeight = other.maxWeight;
+    ttl = other.ttl;
+    evictionPolicy = other.evictionPolicy;
+  }
+
+  public ResultCacheOptions(JsonObject json) {
+    this();
+    JsonArray array = json.getJsonArray("actions");
+    if (array != null) {
+      array.forEach(action -> addAction((String) action));
+    }
+    setMaxSize(json.getInteger("maxSize", DEFAULT_MAX_SIZE));
+    setMaxWeight(json.getLong("maxWeight", DEFAULT_MAX_WEIGHT));
+    setTtl(json.getLong("ttl", DEFAULT_TTL));
+    setEvictionPolicy(EvictionPolicy.valueOf(json.getString("evictionPolicy", DEFAULT_EVICTION_POLICY.name())));
+  }
+
+  /**
+   * @return the cached actions
+   */
+  public Set<String> getActions() {
+    return actions;
+  }
+
+  /**
+   * Set the cached actions, only the actions returning the same result for the same arguments during the time to
+   * live should be cached.
+   *
+   * @param actions the actions, i.e the names of the service methods
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResultCacheOptions setActions(Set<String> actions) {
+    this.actions.clear();
+    actions.forEach(this::addAction);
+    return this;
+  }
+
+  /**
+   * Cache an action, see {@link #setActions(Set)}.
+   *
+   * @param action the action
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResultCacheOptions addAction(String action) {
+    if (action == null) {
+      throw new IllegalArgumentException("action must not be null");
+    }
+    actions.add(action);
+    return this;
+  }
+
+  /**
+   * @return the maximum number of cached results
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Set the maximum number of cached results.
+   *
+   * @param maxSize the maximum size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResultCacheOptions setMaxSize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0");
+    }
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum estimated heap size of the cached results in bytes
+   */
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  /**
+   * Set the maximum estimated heap size of the cached results in bytes, a result larger than this size is not cached.
+   *
+   * @param maxWeight the maximum weight
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResultCacheOptions setMaxWeight(long maxWeight) {
+    if (maxWeight < 1) {
+      throw new IllegalArgumentException("maxWeight must be > 0");
+    }
+    this.maxWeight = maxWeight;
+    return this;
+  }
+
+  /**
+   * @return the time to live of a cached result in milliseconds
+   */
+  public long getTtl() {
+    return ttl;
+  }
+
+  /**
+   * Set the time to live of a cached result in milliseconds.
+   *
+   * @param ttl the time to live
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResultCacheOptions setTtl(long ttl) {
+    if (ttl < 1) {
+      throw new IllegalArgumentException("ttl must be > 0");
+    }
+    this.ttl = ttl;
+    return this;
+  }
+
+  /**
+   * @return the eviction policy
+   */
+  public EvictionPolicy getEvictionPolicy() {
+    return evictionPolicy;
+  }
+
+  /**
+   * Set the results evicted first when the cache is full.
+   *
+   * @param evictionPolicy the eviction policy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResultCacheOptions setEvictionPolicy(EvictionPolicy evictionPolicy) {
+    if (evictionPolicy == null) {
+      throw new IllegalArgumentException("evictionPolicy must not be null");
+    }
+    this.evictionPolicy = evictionPolicy;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("actions", new JsonArray(new ArrayList<>(actions)))
+      .put("maxSize", maxSize)
+      .put("maxWeight", maxWeight)
+      .put("ttl", ttl)
+      .put("evictionPolicy", evictionPolicy.name());
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Options of the retries of a proxy: the calls of idempotent actions that time out or find no handler are retried
+ * after an exponential backoff with full jitter.
+ * <p>
+ * Retries are limited by a budget shared by the actions of the proxy: each call adds a fraction of a retry to the
+ * budget, each retry takes one, so a failing service does not receive more than a fraction of extra calls.
+ */
+@DataObject
+public class RetryOptions {
+
+  /**
+   * The default maximum number of retries of a call = 2
+   */
+  public static final int DEFAULT_MAX_RETRIES = 2;
+
+  /**
+   * The default backoff of the first retry = 100 ms
+   */
+  public static final long DEFAULT_INITIAL_BACKOFF = 100L;
+
+  /**
+   * The default maximum backoff = 2000 ms
+   */
+  public static final long DEFAULT_MAX_BACKOFF = 2_000L;
+
+  /**
+   * The default fraction of a retry added to the budget by a call = 0.2
+   */
+  public static final double DEFAULT_BUDGET_RATIO = 0.2D;
+
+  /**
+   * The default maximum number of retries of the budget = 10
+   */
+  public static final int DEFAULT_MAX_BUDGET = 10;
+
+  private final Set<String> actions;
+  private int maxRetries;
+  private long initialBackoff;
+  private long maxBackoff;
+  private double budgetRatio;
+  private int maxBudget;
+
+  public RetryOptions() {
+    actions = new LinkedHashSet<>();
+    maxRetries = DEFAULT_MAX_RETRIES;
+    initialBackoff = DEFAULT_INITIAL_BACKOFF;
+    maxBackoff = DEFAULT_MAX_BACKOFF;
+    budgetRatio = DEFAULT_BUDGET_RATIO;
+    maxBudget = DEFAULT_MAX_BUDGET;
+  }
+
+  public RetryOptions(RetryOptions other) {
+    actions = new LinkedHashSet<>(other.actions);
+    maxRetries = other.maxRetries;
+    initialBackoff = other.initialBackoff;
+    maxBackoff = other.maxBackoff;
+    budgetRatio = other.budgetRatio;
+    maxBudget = other.maxBudget;
+  }
+
+  public RetryOptions(JsonObject json) {
+    this();
+    JsonArray array = json.getJsonArray("actions");
+    if (array != null) {
+      array.forEach(action -> addAction((String) action));
+    }
+    setMaxRetries(json.getInteger("maxRetries", DEFAULT_MAX_RETRIES));
+    setInitialBackoff(json.getLong("initialBackoff", DEFAULT_INITIAL_BACKOFF));
+    setMaxBackoff(json.getLong("maxBackoff", DEFAULT_MAX_BACKOFF));
+    setBudgetRatio(json.getDouble("budgetRatio", DEFAULT_BUDGET_RATIO));
+    setMaxBudget(json.getInteger("maxBudget", DEFAULT_MAX_BUDGET));
+  }
+
+  /**
+   * @return the retried actions
+   */
+  public Set<String> getActions() {
+    return actions;
+  }
+
+  /**
+   * Set the retried actions, only idempotent actions should be retried since a call that timed out may have been
+   * executed by the service.
+   *
+   * @param actions the actions, i.e the names of the service methods
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setActions(Set<String> actions) {
+    this.actions.clear();
+    actions.forEach(this::addAction);
+    return this;
+  }
+
+  /**
+   * Retry an action, see {@link #setActions(Set)}.
+   *
+   * @param action the action
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions addAction(String action) {
+    if (action == null) {
+      throw new IllegalArgumentException("action must not be null");
+    }
+    actions.add(action);
+    return this;
+  }
+
+  /**
+   * @return the maximum number of retries of a call
+   */
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Set the maximum number of retries of a call.
+   *
+   * @param maxRetries the maximum number of retries
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setMaxRetries(int maxRetries) {
+    if (maxRetries < 1) {
+      throw new IllegalArgumentException("maxRetries must be > 0");
+    }
+    this.maxRetries = maxRetries;
+    return this;
+  }
+
+  /**
+   * @return the backoff of the first retry in milliseconds
+   */
+  public long getInitialBackoff() {
+    return initialBackoff;
+  }
+
+  /**
+   * Set the backoff of the first retry in milliseconds, it doubles at each retry and the actual delay is drawn at
+   * random below it.
+   *
+   * @param initialBackoff the backoff
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setInitialBackoff(long initialBackoff) {
+    if (initialBackoff < 1) {
+      throw new IllegalArgumentException("initialBackoff must be > 0");
+    }
+    this.initialBackoff = initialBackoff;
+    return this;
+  }
+
+  /**
+   * @return the maximum backoff in milliseconds
+   */
+  public long getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  /**
+   * Set the maximum backoff in milliseconds.
+   *
+   * @param maxBackoff the maximum backoff
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setMaxBackoff(long maxBackoff) {
+    if (maxBackoff < 1) {
+      throw new IllegalArgumentException("maxBackoff must be > 0");
+    }
+    this.maxBackoff = maxBackoff;
+    return this;
+  }
+
+  /**
+   * @return the fraction of a retry added to the budget by a call
+   */
+  public double getBudgetRatio() {
+    return budgetRatio;
+  }
+
+  /**
+   * Set the fraction of a retry added to the budget by a call, e.g {@code 0.2} allows one retry every 5 calls.
+   *
+   * @param budgetRatio the ratio
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setBudgetRatio(double budgetRatio) {
+    if (budgetRatio <= 0D) {
+      throw new IllegalArgumentException("budgetRatio must be > 0");
+    }
+    this.budgetRatio = budgetRatio;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of retries of the budget
+   */
+  public int getMaxBudget() {
+    return maxBudget;
+  }
+
+  /**
+   * Set the maximum number of retries of the budget, the budget starts full.
+   *
+   * @param maxBudget the maximum budget
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setMaxBudget(int maxBudget) {
+    if (maxBudget < 1) {
+      throw new IllegalArgumentException("maxBudget must be > 0");
+    }
+    this.maxBudget = maxBudget;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("actions", new JsonArray(new ArrayList<>(actions)))
+      .put("maxRetries", maxRetries)
+      .put("initialBackoff", initialBackoff)
+      .put("maxBackoff", maxBackoff)
+      .put("budgetRatio", budgetRatio)
+      .put("maxBudget", maxBudget);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the routing of the calls of a proxy across the instances of a service, the instances must be bound with
+ * a heartbeat, see {@link ServiceBinder#setInstanceHeartbeat(long)}.
+ * <p>
+ * An instance failing several calls in a row is ejected for a while, timeouts, missing handlers and failures with a
+ * code {@code >= 500} are failures. The calls are sent to the service address when no instance is known.
+ */
+@DataObject
+public class RoutingOptions {
+
+  /**
+   * The default routing policy = {@link RoutingPolicy#LEAST_OUTSTANDING}
+   */
+  public static final RoutingPolicy DEFAULT_POLICY = RoutingPolicy.LEAST_OUTSTANDING;
+
+  /**
+   * The default number of consecutive failures ejecting an instance = 5
+   */
+  public static final int DEFAULT_EJECTION_FAILURES = 5;
+
+  /**
+   * The default ejection duration = 30000 ms
+   */
+  public static final long DEFAULT_EJECTION_DURATION = 30_000L;
+
+  private RoutingPolicy policy;
+  private int ejectionFailures;
+  private long ejectionDuration;
+
+  public RoutingOptions() {
+    policy = DEFAULT_POLICY;
+    ejectionFailures = DEFAULT_EJECTION_FAILURES;
+    ejectionDuration = DEFAULT_EJECTION_DURATION;
+  }
+
+  public RoutingOptions(RoutingOptions other) {
+    policy = other.policy;
+    ejectionFailures = other.ejectionFailures;
+    ejectionDuration = other.ejectionDuration;
+  }
+
+  public RoutingOptions(JsonObject json) {
+    this();
+    setPolicy(RoutingPolicy.valueOf(json.getString("policy", DEFAULT_POLICY.name())));
+    setEjectionFailures(json.getInteger("ejectionFailures", DEFAULT_EJECTION_FAILURES));
+    setEjectionDuration(json.getLong("ejectionDuration", DEFAULT_EJECTION_DURATION));
+  }
+
+  /**
+   * @return the routing policy
+   */
+  public RoutingPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Set the routing policy.
+   *
+   * @param policy the policy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RoutingOptions setPolicy(RoutingPolicy policy) {
+    if (policy == null) {
+      throw new IllegalArgumentException("policy must not be null");
+    }
+    this.policy = policy;
+    return this;
+  }
+
+  /**
+   * @return the number of consecutive failures ejecting an instance
+   */
+  public int getEjectionFailures() {
+    return ejectionFailures;
+  }
+
+  /**
+   * Set the number of consecutive failures ejecting an instance.
+   *
+   * @param ejectionFailures the number of failures
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RoutingOptions setEjectionFailures(int ejectionFailures) {
+    if (ejectionFailures < 1) {
+      throw new IllegalArgumentException("ejectionFailures must be > 0");
+    }
+    this.ejectionFailures = ejectionFailures;
+    return this;
+  }
+
+  /**
+   * @return the time in milliseconds an instance stays ejected
+   */
+  public long getEjectionDuration() {
+    return ejectionDuration;
+  }
+
+  /**
+   * Set the time in milliseconds an instance stays ejected.
+   *
+   * @param ejectionDuration the duration
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RoutingOptions setEjectionDuration(long ejectionDuration) {
+    if (ejectionDuration < 1) {
+      throw new IllegalArgumentException("ejectionDuration must be > 0");
+    }
+    this.ejectionDuration = ejectionDuration;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("policy", policy.name())
+      .put("ejectionFailures", ejectionFailures)
+      .put("ejectionDuration", ejectionDuration);
+  }
+}
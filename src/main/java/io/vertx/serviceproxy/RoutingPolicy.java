@@ -0,0 +1,33 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+/**
+ * How a proxy chooses the instance of a service it calls, see {@link RoutingOptions}.
+ */
+public enum RoutingPolicy {
+
+  /**
+   * The instance with the fewest calls in flight.
+   */
+  LEAST_OUTSTANDING,
+
+  /**
+   * The instance with the best exponentially weighted moving average latency, weighted by its calls in flight.
+   */
+  EWMA_LATENCY
+
+}
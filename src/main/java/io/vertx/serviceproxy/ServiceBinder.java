@@ -16,13 +16,25 @@
 package io.vertx.serviceproxy;
 
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.impl.BulkheadStage;
+import io.vertx.serviceproxy.impl.CompressionStage;
+import io.vertx.serviceproxy.impl.DeadlineStage;
+import io.vertx.serviceproxy.impl.IdempotencyStage;
+import io.vertx.serviceproxy.impl.InstanceAdvertiser;
 import io.vertx.serviceproxy.impl.InterceptorHolder;
+import io.vertx.serviceproxy.impl.InterceptorPipeline;
+import io.vertx.serviceproxy.impl.LocalServiceRegistry;
+import io.vertx.serviceproxy.impl.MetricsStage;
+import io.vertx.serviceproxy.impl.ResultCacheStage;
+import io.vertx.serviceproxy.impl.PayloadCompressor;
+import io.vertx.serviceproxy.impl.ServiceProxyFactories;
+import io.vertx.serviceproxy.impl.VegasLimit;
 
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -46,6 +58,13 @@ public class ServiceBinder {
   private long timeoutSeconds = DEFAULT_CONNECTION_TIMEOUT;
   private List<InterceptorHolder> interceptorHolders;
   private boolean includeDebugInfo = false;
+  private ServiceProxyMetrics metrics;
+  private CompressionOptions compression;
+  private long instanceHeartbeat;
+  private BulkheadOptions bulkhead;
+  private AdaptiveLimitOptions adaptiveLimit;
+  private IdempotencyOptions idempotency;
+  private ResultCacheOptions resultCache;
 
   /**
    * Creates a factory.
@@ -103,6 +122,97 @@ public class ServiceBinder {
     return this;
   }
 
+  /**
+   * Report the calls handled by the services to a metrics implementation.
+   *
+   * @param metrics the metrics
+   * @return self
+   */
+  public ServiceBinder setMetrics(ServiceProxyMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * Decompress the compressed calls and compress the replies larger than a threshold when the caller accepts them,
+   * see {@link ServiceProxyBuilder#setCompression(CompressionOptions)}.
+   *
+   * @param compression the compression options, {@code null} to disable compression (default)
+   * @return self
+   */
+  public ServiceBinder setCompression(CompressionOptions compression) {
+    this.compression = compression != null ? new CompressionOptions(compression) : null;
+    return this;
+  }
+
+  /**
+   * Advertise each registered service instance so proxies can route their calls to a given instance, see
+   * {@link ServiceProxyBuilder#setRouting(RoutingOptions)}. The instance is also registered at a unique address and
+   * publishes a heartbeat on the {@code <address>.instances} address at the given interval, it keeps handling the calls
+   * sent to the service address.
+   *
+   * @param instanceHeartbeat the heartbeat interval in milliseconds, {@code 0} to not advertise the instances (default)
+   * @return self
+   */
+  public ServiceBinder setInstanceHeartbeat(long instanceHeartbeat) {
+    if (instanceHeartbeat < 0) {
+      throw new IllegalArgumentException("instanceHeartbeat must be >= 0");
+    }
+    this.instanceHeartbeat = instanceHeartbeat;
+    return this;
+  }
+
+  /**
+   * Limit the calls the services handle concurrently, globally and per action, the calls above the limits wait in a
+   * bounded queue or are rejected, see {@link BulkheadOptions}.
+   *
+   * @param bulkhead the bulkhead options, {@code null} to not limit the calls (default)
+   * @return self
+   */
+  public ServiceBinder setBulkhead(BulkheadOptions bulkhead) {
+    this.bulkhead = bulkhead != null ? new BulkheadOptions(bulkhead) : null;
+    return this;
+  }
+
+  /**
+   * Tune the number of calls the services handle concurrently from the latency of the calls, the calls above the
+   * limit are rejected or wait in the queue of the {@link #setBulkhead(BulkheadOptions) bulkhead}, see
+   * {@link AdaptiveLimitOptions}. The limit is reported to {@link ServiceProxyMetrics#concurrencyLimitChanged}.
+   *
+   * @param adaptiveLimit the adaptive limit options, {@code null} to not limit the calls adaptively (default)
+   * @return self
+   */
+  public ServiceBinder setAdaptiveLimit(AdaptiveLimitOptions adaptiveLimit) {
+    this.adaptiveLimit = adaptiveLimit != null ? new AdaptiveLimitOptions(adaptiveLimit) : null;
+    return this;
+  }
+
+  /**
+   * Execute once the calls sharing an idempotency key, the duplicates join the call in flight or receive its cached
+   * reply, see {@link IdempotencyOptions} and {@link ServiceProxyBuilder#setIdempotencyKeys(boolean)}. Duplicates are
+   * reported to {@link ServiceProxyMetrics#callDeduplicated}.
+   *
+   * @param idempotency the idempotency options, {@code null} to execute every call received (default)
+   * @return self
+   */
+  public ServiceBinder setIdempotency(IdempotencyOptions idempotency) {
+    this.idempotency = idempotency != null ? new IdempotencyOptions(idempotency) : null;
+    return this;
+  }
+
+  /**
+   * Cache the replies of idempotent actions, the calls with the same arguments share one execution of the service
+   * method until the reply expires, see {@link ResultCacheOptions}. The lookups are reported to
+   * {@link ServiceProxyMetrics#resultCacheAccess}.
+   *
+   * @param resultCache the result cache options, {@code null} to execute every call (default)
+   * @return self
+   */
+  public ServiceBinder setResultCache(ResultCacheOptions resultCache) {
+    this.resultCache = resultCache != null ? new ResultCacheOptions(resultCache) : null;
+    return this;
+  }
+
   public ServiceBinder addInterceptor(String action, ServiceInterceptor interceptor) {
     checkAndAddInterceptor(action, interceptor);
     return this;
@@ -124,7 +234,14 @@ public class ServiceBinder {
   public <T> MessageConsumer<JsonObject> register(Class<T> clazz, T service) {
     Objects.requireNonNull(address);
     // register
-    return getProxyHandler(clazz, service).register(vertx, address, getInterceptorHolders());
+    ProxyHandler proxyHandler = getProxyHandler(clazz, service);
+    Handler<Message<JsonObject>> handler = configureHandler(proxyHandler);
+    MessageConsumer<JsonObject> consumer = proxyHandler.register(vertx, address, false, handler);
+    if (instanceHeartbeat > 0) {
+      InstanceAdvertiser.advertise(vertx, address, false, instanceHeartbeat, handler, consumer);
+    }
+    registerDirect(clazz, service, consumer);
+    return consumer;
   }
 
   /**
@@ -139,7 +256,14 @@ public class ServiceBinder {
   public <T> MessageConsumer<JsonObject> registerLocal(Class<T> clazz, T service) {
     Objects.requireNonNull(address);
     // register
-    return getProxyHandler(clazz, service).registerLocal(vertx, address, getInterceptorHolders());
+    ProxyHandler proxyHandler = getProxyHandler(clazz, service);
+    Handler<Message<JsonObject>> handler = configureHandler(proxyHandler);
+    MessageConsumer<JsonObject> consumer = proxyHandler.register(vertx, address, true, handler);
+    if (instanceHeartbeat > 0) {
+      InstanceAdvertiser.advertise(vertx, address, true, instanceHeartbeat, handler, consumer);
+    }
+    registerDirect(clazz, service, consumer);
+    return consumer;
   }
 
   /**
@@ -182,38 +306,58 @@ public class ServiceBinder {
     currentInterceptorHolders.add(new InterceptorHolder(interceptor));
   }
 
-  private <T> ProxyHandler getProxyHandler(Class<T> clazz, T service) {
-    String handlerClassName = clazz.getName() + "VertxProxyHandler";
-    Class<?> handlerClass = loadClass(handlerClassName, clazz);
-    Constructor<?> constructor = getConstructor(
-      handlerClass, Vertx.class, clazz, boolean.class, long.class, boolean.class
-    );
-    Object instance = createInstance(constructor, vertx, service, topLevel, timeoutSeconds, includeDebugInfo);
-    return (ProxyHandler) instance;
-  }
-
-  private static Class<?> loadClass(String name, Class<?> origin) {
-    try {
-      return origin.getClassLoader().loadClass(name);
-    } catch (ClassNotFoundException e) {
-      throw new IllegalStateException("Cannot find proxyClass: " + name, e);
+  /**
+   * Assemble the handlers a message goes through before reaching the proxy handler.
+   */
+  private Handler<Message<JsonObject>> configureHandler(ProxyHandler proxyHandler) {
+    Handler<Message<JsonObject>> handler = proxyHandler;
+    // the cached results are shared by the callers the interceptors let through
+    if (resultCache != null && !resultCache.getActions().isEmpty()) {
+      handler = new ResultCacheStage(resultCache, address, metrics).handler(handler);
+    }
+    MetricsStage metricsStage = metrics != null ? new MetricsStage(metrics, address) : null;
+    if (metricsStage != null) {
+      handler = metricsStage.dispatched(handler);
+    }
+    List<InterceptorHolder> interceptorHolders = getInterceptorHolders();
+    if (!interceptorHolders.isEmpty()) {
+      handler = new InterceptorPipeline(vertx, proxyHandler, handler, interceptorHolders);
     }
+    // the deadline is checked once a call is admitted, so the calls expiring while waiting are dropped too
+    handler = DeadlineStage.handler(handler);
+    // the calls wait before being authenticated, so a burst does not run the interceptors either
+    if (bulkhead != null || adaptiveLimit != null) {
+      VegasLimit limit = adaptiveLimit != null ? new VegasLimit(adaptiveLimit, address, metrics) : null;
+      handler = new BulkheadStage(vertx, bulkhead, limit).handler(handler);
+    }
+    if (metricsStage != null) {
+      handler = metricsStage.received(handler);
+    }
+    // the duplicates neither count as calls nor take a place in the bulkhead
+    if (idempotency != null) {
+      handler = new IdempotencyStage(idempotency, address, metrics).handler(handler);
+    }
+    handler = ProxyHandler.batching(handler);
+    // batches are decompressed as a whole
+    if (compression != null) {
+      handler = new CompressionStage(new PayloadCompressor(compression, metrics), address).handler(handler);
+    }
+    return handler;
   }
 
-  private static Constructor<?> getConstructor(Class<?> clazz, Class<?>... types) {
-    try {
-      return clazz.getDeclaredConstructor(types);
-    } catch (NoSuchMethodException e) {
-      throw new IllegalStateException("Cannot find constructor on: " + clazz.getName(), e);
+  /**
+   * Make the service callable directly by the proxies of this Vert.x instance, only when the calls would reach the
+   * service without going through interceptors, metrics, a bulkhead, deduplication or a result cache.
+   */
+  private <T> void registerDirect(Class<T> clazz, T service, MessageConsumer<JsonObject> consumer) {
+    if (topLevel && metrics == null && bulkhead == null && adaptiveLimit == null && idempotency == null
+      && resultCache == null && getInterceptorHolders().isEmpty()) {
+      LocalServiceRegistry.get(vertx).register(vertx, address, clazz, service, includeDebugInfo, consumer);
     }
   }
 
-  private static Object createInstance(Constructor<?> constructor, Object... args) {
-    try {
-      return constructor.newInstance(args);
-    } catch (Exception e) {
-      throw new IllegalStateException("Failed to call constructor on", e);
-    }
+  private <T> ProxyHandler getProxyHandler(Class<T> clazz, T service) {
+    return ServiceProxyFactories.get(clazz).createHandler(vertx, service, topLevel, timeoutSeconds, includeDebugInfo);
   }
 
   private List<InterceptorHolder> getInterceptorHolders() {
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.core.Vertx;
+import io.vertx.serviceproxy.impl.Deadlines;
+
+/**
+ * The deadline of the call a service is handling, see {@link ServiceProxyBuilder#setDeadlinePropagation(boolean)}.
+ * <p>
+ * The deadline is an absolute time carried by the {@link #HEADER} header of the call. It is visible on the context the
+ * service is called on, so a service can skip work that would complete too late, and the proxies with deadline
+ * propagation called by the service inherit it.
+ */
+public final class ServiceDeadline {
+
+  /**
+   * The header of the deadline of a call, in milliseconds since the epoch.
+   */
+  public static final String HEADER = "deadline";
+
+  /**
+   * The failure code of the calls whose deadline is exceeded = 504
+   */
+  public static final int DEADLINE_EXCEEDED = 504;
+
+  private ServiceDeadline() {
+  }
+
+  /**
+   * @return the deadline of the call handled on the current context in milliseconds since the epoch, or {@code -1}
+   * when there is none
+   */
+  public static long current() {
+    return Deadlines.get(Vertx.currentContext());
+  }
+
+  /**
+   * @return the time left in milliseconds until the deadline of the call handled on the current context, {@code 0}
+   * when it is exceeded, or {@code -1} when there is no deadline
+   */
+  public static long remaining() {
+    long deadline = current();
+    return deadline < 0 ? -1 : Math.max(0, deadline - System.currentTimeMillis());
+  }
+}
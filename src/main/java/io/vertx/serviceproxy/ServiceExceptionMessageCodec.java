@@ -15,9 +15,11 @@
  */
 package io.vertx.serviceproxy;
 
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageCodec;
 import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.impl.CodecRegistry;
 
 import java.nio.charset.StandardCharsets;
 
@@ -28,6 +30,16 @@ import java.nio.charset.StandardCharsets;
  */
 public class ServiceExceptionMessageCodec implements MessageCodec<ServiceException, ServiceException> {
 
+  /**
+   * Register this codec as the default codec of {@link ServiceException} on the event bus of a Vert.x instance.
+   * The codec is registered once, the following calls return immediately.
+   *
+   * @param vertx the vertx instance
+   */
+  public static void register(Vertx vertx) {
+    CodecRegistry.get(vertx).registerServiceExceptionCodec(vertx);
+  }
+
   @Override
   public void encodeToWire(Buffer buffer, ServiceException body) {
     buffer.appendInt(body.failureCode());
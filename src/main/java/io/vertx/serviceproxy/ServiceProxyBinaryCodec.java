@@ -0,0 +1,409 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.impl.BufferEnvelopeCodec;
+import io.vertx.serviceproxy.impl.CodecRegistry;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.time.format.DateTimeFormatter.ISO_INSTANT;
+
+/**
+ * A compact binary MessageCodec for the {@link JsonObject} call envelopes of service proxies generated
+ * with {@link io.vertx.serviceproxy.annotations.ProxyBinaryCodec}.
+ * <p>
+ * Each value is written as a one byte tag followed by its payload: integral numbers are zig-zag varints,
+ * strings and binaries are length prefixed. Arrays of integers, longs or doubles are packed, their values are written
+ * without tag. Field names declared by the service interface are written as their position in the codec dictionary,
+ * other names are written in full.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class ServiceProxyBinaryCodec implements MessageCodec<JsonObject, JsonObject> {
+
+  private static final byte NULL = 0;
+  private static final byte TRUE = 1;
+  private static final byte FALSE = 2;
+  private static final byte INT = 3;
+  private static final byte LONG = 4;
+  private static final byte FLOAT = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte DECIMAL = 7;
+  private static final byte STRING = 8;
+  private static final byte BINARY = 9;
+  private static final byte OBJECT = 10;
+  private static final byte ARRAY = 11;
+  private static final byte PACKED_INTS = 12;
+  private static final byte PACKED_LONGS = 13;
+  private static final byte PACKED_DOUBLES = 14;
+
+  private final String name;
+  private final String[] fields;
+  private final Map<String, Integer> fieldIndex;
+
+  /**
+   * Register a codec on the event bus of a Vert.x instance. The codec is registered once, the following calls
+   * return immediately without creating it.
+   *
+   * @param vertx the vertx instance
+   * @param name  the codec name
+   * @param codec the codec factory
+   */
+  public static void register(Vertx vertx, String name, Supplier<ServiceProxyBinaryCodec> codec) {
+    CodecRegistry.get(vertx).registerCodec(vertx, name, codec);
+  }
+
+  /**
+   * Create a codec.
+   *
+   * @param name   the codec name
+   * @param fields the dictionary of field names, it must be identical on both sides of the event bus
+   */
+  public ServiceProxyBinaryCodec(String name, String... fields) {
+    this.name = name;
+    this.fields = fields;
+    this.fieldIndex = new HashMap<>();
+    for (int i = 0; i < fields.length; i++) {
+      fieldIndex.put(fields[i], i + 1);
+    }
+  }
+
+  @Override
+  public void encodeToWire(Buffer buffer, JsonObject body) {
+    if (body == null) {
+      buffer.appendByte(NULL);
+    } else {
+      writeObject(buffer, body.getMap());
+    }
+  }
+
+  @Override
+  public JsonObject decodeFromWire(int pos, Buffer buffer) {
+    Reader reader = new Reader(buffer, pos);
+    Object value = reader.readValue();
+    return (JsonObject) value;
+  }
+
+  @Override
+  public JsonObject transform(JsonObject body) {
+    return body == null ? null : BufferEnvelopeCodec.copySharingBuffers(body);
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+
+  private void writeObject(Buffer buffer, Map<String, Object> map) {
+    buffer.appendByte(OBJECT);
+    writeVarInt(buffer, map.size());
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      Integer index = fieldIndex.get(entry.getKey());
+      if (index != null) {
+        writeVarInt(buffer, index);
+      } else {
+        writeVarInt(buffer, 0);
+        writeString(buffer, entry.getKey());
+      }
+      writeValue(buffer, entry.getValue());
+    }
+  }
+
+  private void writeArray(Buffer buffer, List<Object> list) {
+    byte tag = packedTag(list);
+    buffer.appendByte(tag);
+    writeVarInt(buffer, list.size());
+    switch (tag) {
+      case PACKED_INTS:
+        for (Object value : list) {
+          writeVarInt(buffer, zigZag((Integer) value));
+        }
+        break;
+      case PACKED_LONGS:
+        for (Object value : list) {
+          writeVarLong(buffer, zigZag((Long) value));
+        }
+        break;
+      case PACKED_DOUBLES:
+        for (Object value : list) {
+          buffer.appendDouble((Double) value);
+        }
+        break;
+      default:
+        for (Object value : list) {
+          writeValue(buffer, value);
+        }
+    }
+  }
+
+  /**
+   * Arrays of numbers of a same type are packed: the values are written without their tag.
+   */
+  private static byte packedTag(List<Object> list) {
+    if (list.size() < 2) {
+      return ARRAY;
+    }
+    Object first = list.get(0);
+    Class<?> type = first == null ? null : first.getClass();
+    byte tag;
+    if (type == Integer.class) {
+      tag = PACKED_INTS;
+    } else if (type == Long.class) {
+      tag = PACKED_LONGS;
+    } else if (type == Double.class) {
+      tag = PACKED_DOUBLES;
+    } else {
+      return ARRAY;
+    }
+    for (int i = 1; i < list.size(); i++) {
+      Object value = list.get(i);
+      if (value == null || value.getClass() != type) {
+        return ARRAY;
+      }
+    }
+    return tag;
+  }
+
+  private void writeValue(Buffer buffer, Object value) {
+    if (value == null) {
+      buffer.appendByte(NULL);
+    } else if (value instanceof String) {
+      buffer.appendByte(STRING);
+      writeString(buffer, (String) value);
+    } else if (value instanceof Boolean) {
+      buffer.appendByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      buffer.appendByte(INT);
+      writeVarInt(buffer, zigZag(((Number) value).intValue()));
+    } else if (value instanceof Long) {
+      buffer.appendByte(LONG);
+      writeVarLong(buffer, zigZag(((Number) value).longValue()));
+    } else if (value instanceof Double) {
+      buffer.appendByte(DOUBLE);
+      buffer.appendDouble(((Number) value).doubleValue());
+    } else if (value instanceof Float) {
+      buffer.appendByte(FLOAT);
+      buffer.appendFloat(((Number) value).floatValue());
+    } else if (value instanceof Number) {
+      buffer.appendByte(DECIMAL);
+      writeString(buffer, value.toString());
+    } else if (value instanceof JsonObject) {
+      writeObject(buffer, ((JsonObject) value).getMap());
+    } else if (value instanceof JsonArray) {
+      writeArray(buffer, ((JsonArray) value).getList());
+    } else if (value instanceof Map) {
+      writeObject(buffer, (Map<String, Object>) value);
+    } else if (value instanceof List) {
+      writeArray(buffer, (List<Object>) value);
+    } else if (value instanceof Buffer) {
+      buffer.appendByte(BINARY);
+      writeVarInt(buffer, ((Buffer) value).length());
+      buffer.appendBuffer((Buffer) value);
+    } else if (value instanceof byte[]) {
+      buffer.appendByte(BINARY);
+      writeVarInt(buffer, ((byte[]) value).length);
+      buffer.appendBytes((byte[]) value);
+    } else if (value instanceof CharSequence) {
+      buffer.appendByte(STRING);
+      writeString(buffer, value.toString());
+    } else if (value instanceof Enum) {
+      buffer.appendByte(STRING);
+      writeString(buffer, ((Enum) value).name());
+    } else if (value instanceof Instant) {
+      buffer.appendByte(STRING);
+      writeString(buffer, ISO_INSTANT.format((Instant) value));
+    } else {
+      throw new IllegalStateException("Illegal type in the call envelope: " + value.getClass());
+    }
+  }
+
+  private static void writeString(Buffer buffer, String s) {
+    byte[] encoded = s.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(buffer, encoded.length);
+    buffer.appendBytes(encoded);
+  }
+
+  static int zigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static void writeVarInt(Buffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.appendByte((byte) value);
+  }
+
+  static void writeVarLong(Buffer buffer, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.appendByte((byte) value);
+  }
+
+  private final class Reader {
+
+    private final Buffer buffer;
+    private int pos;
+
+    Reader(Buffer buffer, int pos) {
+      this.buffer = buffer;
+      this.pos = pos;
+    }
+
+    Object readValue() {
+      byte tag = buffer.getByte(pos++);
+      switch (tag) {
+        case NULL:
+          return null;
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case INT: {
+          int value = readVarInt();
+          return (value >>> 1) ^ -(value & 1);
+        }
+        case LONG: {
+          long value = readVarLong();
+          return (value >>> 1) ^ -(value & 1);
+        }
+        case FLOAT: {
+          float value = buffer.getFloat(pos);
+          pos += 4;
+          return value;
+        }
+        case DOUBLE: {
+          double value = buffer.getDouble(pos);
+          pos += 8;
+          return value;
+        }
+        case DECIMAL:
+          return new BigDecimal(readString());
+        case STRING:
+          return readString();
+        case BINARY: {
+          int length = readVarInt();
+          Buffer value = buffer.getBuffer(pos, pos + length);
+          pos += length;
+          return value;
+        }
+        case OBJECT: {
+          int size = readVarInt();
+          Map<String, Object> map = new LinkedHashMap<>(size < 12 ? 16 : size * 2);
+          for (int i = 0; i < size; i++) {
+            int index = readVarInt();
+            String key = index == 0 ? readString() : fields[index - 1];
+            map.put(key, readValue());
+          }
+          return new JsonObject(map);
+        }
+        case ARRAY: {
+          int size = readVarInt();
+          List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            list.add(readValue());
+          }
+          return new JsonArray(list);
+        }
+        case PACKED_INTS: {
+          int size = readVarInt();
+          List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            int value = readVarInt();
+            list.add((value >>> 1) ^ -(value & 1));
+          }
+          return new JsonArray(list);
+        }
+        case PACKED_LONGS: {
+          int size = readVarInt();
+          List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            long value = readVarLong();
+            list.add((value >>> 1) ^ -(value & 1));
+          }
+          return new JsonArray(list);
+        }
+        case PACKED_DOUBLES: {
+          int size = readVarInt();
+          List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            list.add(buffer.getDouble(pos));
+            pos += 8;
+          }
+          return new JsonArray(list);
+        }
+        default:
+          throw new IllegalStateException("Invalid tag in the call envelope: " + tag);
+      }
+    }
+
+    String readString() {
+      int length = readVarInt();
+      String s = buffer.getString(pos, pos + length);
+      pos += length;
+      return s;
+    }
+
+    int readVarInt() {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = buffer.getByte(pos++);
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+
+    long readVarLong() {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = buffer.getByte(pos++);
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+  }
+}
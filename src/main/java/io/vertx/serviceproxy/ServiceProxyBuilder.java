@@ -17,8 +17,23 @@ package io.vertx.serviceproxy;
 
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.serviceproxy.impl.BatchingProxyTransport;
+import io.vertx.serviceproxy.impl.CircuitBreakerProxyTransport;
+import io.vertx.serviceproxy.impl.CompressingProxyTransport;
+import io.vertx.serviceproxy.impl.DeadlineProxyTransport;
+import io.vertx.serviceproxy.impl.HedgingProxyTransport;
+import io.vertx.serviceproxy.impl.IdempotencyProxyTransport;
+import io.vertx.serviceproxy.impl.LocalServiceRegistry;
+import io.vertx.serviceproxy.impl.MetricsProxyTransport;
+import io.vertx.serviceproxy.impl.NearCache;
+import io.vertx.serviceproxy.impl.NearCacheProxyTransport;
+import io.vertx.serviceproxy.impl.PayloadCompressor;
+import io.vertx.serviceproxy.impl.RetryProxyTransport;
+import io.vertx.serviceproxy.impl.RoutingProxyTransport;
+import io.vertx.serviceproxy.impl.ServiceInstances;
+import io.vertx.serviceproxy.impl.ServiceProxyFactories;
 
-import java.lang.reflect.Constructor;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -28,11 +43,28 @@ import java.util.Objects;
  */
 public class ServiceProxyBuilder {
 
+  /**
+   * The default maximum number of calls of a batch = 64
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
   private final Vertx vertx;
 
   private String address;
   private DeliveryOptions options;
   private String token;
+  private long batchWindow = -1;
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+  private ServiceProxyMetrics metrics;
+  private boolean directDispatch;
+  private CompressionOptions compression;
+  private HedgingOptions hedging;
+  private CircuitBreakerOptions circuitBreaker;
+  private RetryOptions retry;
+  private RoutingOptions routing;
+  private boolean deadlinePropagation;
+  private boolean idempotencyKeys;
+  private NearCacheOptions nearCache;
 
   /**
    * Creates a builder.
@@ -78,6 +110,162 @@ public class ServiceProxyBuilder {
     return this;
   }
 
+  /**
+   * Coalesce the calls made by the proxy to the service during a window of time into a single event bus request, the
+   * service fans the calls out and replies them all at once.
+   * <p>
+   * A window of {@code 0} coalesces the calls made during the same event loop tick, a negative window disables
+   * batching, which is the default. Calls of methods without result are never batched.
+   *
+   * @param batchWindow the batch window in milliseconds
+   * @return self
+   */
+  public ServiceProxyBuilder setBatchWindow(long batchWindow) {
+    this.batchWindow = batchWindow;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of calls of a batch, a batch is sent as soon as it is full.
+   *
+   * @param maxBatchSize the maximum batch size
+   * @return self
+   */
+  public ServiceProxyBuilder setMaxBatchSize(int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be > 0");
+    }
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  /**
+   * Report the calls made by the proxies to a metrics implementation.
+   *
+   * @param metrics the metrics
+   * @return self
+   */
+  public ServiceProxyBuilder setMetrics(ServiceProxyMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * Compress the call envelopes larger than a threshold and accept compressed replies, the service must be bound with
+   * the same compression options, see {@link ServiceBinder#setCompression(CompressionOptions)}.
+   *
+   * @param compression the compression options, {@code null} to disable compression (default)
+   * @return self
+   */
+  public ServiceProxyBuilder setCompression(CompressionOptions compression) {
+    this.compression = compression != null ? new CompressionOptions(compression) : null;
+    return this;
+  }
+
+  /**
+   * Hedge the calls of idempotent actions: a call which has not been replied after a delay is sent again and the first
+   * reply wins, see {@link HedgingOptions}.
+   *
+   * @param hedging the hedging options, {@code null} to disable hedging (default)
+   * @return self
+   */
+  public ServiceProxyBuilder setHedging(HedgingOptions hedging) {
+    this.hedging = hedging != null ? new HedgingOptions(hedging) : null;
+    return this;
+  }
+
+  /**
+   * Fail fast the calls of the actions which service is degraded, each action of the proxy has its own circuit, see
+   * {@link CircuitBreakerOptions}.
+   *
+   * @param circuitBreaker the circuit breaker options, {@code null} to disable circuit breaking (default)
+   * @return self
+   */
+  public ServiceProxyBuilder setCircuitBreaker(CircuitBreakerOptions circuitBreaker) {
+    this.circuitBreaker = circuitBreaker != null ? new CircuitBreakerOptions(circuitBreaker) : null;
+    return this;
+  }
+
+  /**
+   * Retry the calls of idempotent actions that time out or find no handler, within a retry budget, see
+   * {@link RetryOptions}.
+   *
+   * @param retry the retry options, {@code null} to disable retries (default)
+   * @return self
+   */
+  public ServiceProxyBuilder setRetry(RetryOptions retry) {
+    this.retry = retry != null ? new RetryOptions(retry) : null;
+    return this;
+  }
+
+  /**
+   * Route the calls to the instance of the service with the fewest calls in flight or the best latency instead of
+   * letting the event bus round robin them, see {@link RoutingOptions}. The instances must be bound with a heartbeat,
+   * see {@link ServiceBinder#setInstanceHeartbeat(long)}.
+   *
+   * @param routing the routing options, {@code null} to let the event bus route the calls (default)
+   * @return self
+   */
+  public ServiceProxyBuilder setRouting(RoutingOptions routing) {
+    this.routing = routing != null ? new RoutingOptions(routing) : null;
+    return this;
+  }
+
+  /**
+   * Stamp each call with an absolute deadline, its send timeout, so the service drops the calls it receives too late
+   * instead of serving a caller that gave up, see {@link ServiceDeadline}. When the proxy is called by a service, the
+   * deadline of the call being served is inherited when it is earlier and the send timeout is shortened accordingly.
+   * The clocks of the caller and the service are assumed to be synchronized. Direct dispatch calls are not stamped.
+   *
+   * @param deadlinePropagation whether to propagate deadlines (default: false)
+   * @return self
+   */
+  public ServiceProxyBuilder setDeadlinePropagation(boolean deadlinePropagation) {
+    this.deadlinePropagation = deadlinePropagation;
+    return this;
+  }
+
+  /**
+   * Stamp each call with a unique idempotency key shared by its retries and hedges, so a service bound with
+   * {@link ServiceBinder#setIdempotency(IdempotencyOptions)} executes the call once even when it receives it several
+   * times, see {@link IdempotencyOptions}.
+   *
+   * @param idempotencyKeys whether to stamp the calls with idempotency keys (default: false)
+   * @return self
+   */
+  public ServiceProxyBuilder setIdempotencyKeys(boolean idempotencyKeys) {
+    this.idempotencyKeys = idempotencyKeys;
+    return this;
+  }
+
+  /**
+   * Keep the results of the methods annotated with {@link io.vertx.serviceproxy.annotations.ProxyCacheable} in a near
+   * cache, for the time set by the annotation, see {@link NearCacheOptions}. The calls dispatched directly are not
+   * cached.
+   *
+   * @param nearCache the near cache options, {@code null} to send every call (default)
+   * @return self
+   */
+  public ServiceProxyBuilder setNearCache(NearCacheOptions nearCache) {
+    this.nearCache = nearCache != null ? new NearCacheOptions(nearCache) : null;
+    return this;
+  }
+
+  /**
+   * Call the service directly when it is registered in this Vert.x instance by a {@link ServiceBinder} without
+   * interceptors, metrics nor bulkhead at the time the proxy is built: the service implementation is called on its
+   * context with the Java arguments, nothing is encoded nor sent on the event bus. Arguments and results are passed by
+   * reference, they are not copied. The calls are sent on the event bus when the service is not registered locally or
+   * once it is unregistered.
+   *
+   * @param directDispatch whether to call a local service directly (default: false)
+   * @return self
+   */
+  public ServiceProxyBuilder setDirectDispatch(boolean directDispatch) {
+    this.directDispatch = directDispatch;
+    return this;
+  }
+
   /**
    * Creates a proxy to a service on the event bus.
    *
@@ -88,10 +276,7 @@ public class ServiceProxyBuilder {
   public <T> T build(Class<T> clazz) {
     Objects.requireNonNull(address);
 
-    String proxyClassName = clazz.getName() + "VertxEBProxy";
-    Class<?> proxyClass = loadClass(proxyClassName, clazz);
-    Constructor<?> constructor;
-    Object instance;
+    ServiceProxyFactory<T> factory = ServiceProxyFactories.get(clazz);
 
     if (token != null) {
       if (options == null) {
@@ -100,37 +285,65 @@ public class ServiceProxyBuilder {
       options.addHeader("auth-token", token);
     }
 
-    if (options == null) {
-      constructor = getConstructor(proxyClass, Vertx.class, String.class);
-      instance = createInstance(constructor, vertx, address);
-    } else {
-      constructor = getConstructor(proxyClass, Vertx.class, String.class, DeliveryOptions.class);
-      instance = createInstance(constructor, vertx, address, options);
-    }
-    return (T) instance;
-  }
+    T proxy = factory.createProxy(vertx, address, options, transport(factory.cachePolicies()));
 
-  private static Class<?> loadClass(String name, Class<?> origin) {
-    try {
-      return origin.getClassLoader().loadClass(name);
-    } catch (ClassNotFoundException e) {
-      throw new IllegalStateException("Cannot find proxyClass: " + name, e);
+    if (directDispatch) {
+      LocalServiceRegistry registry = LocalServiceRegistry.get(vertx);
+      if (!registry.lookup(address, clazz).isEmpty()) {
+        long timeout = options != null ? options.getSendTimeout() : DeliveryOptions.DEFAULT_TIMEOUT;
+        DirectDispatcher dispatcher = new DirectDispatcher(vertx, registry, address, clazz, timeout, metrics);
+        // the event bus proxy is the fallback once the service is unregistered
+        proxy = factory.createDirectProxy(dispatcher, proxy);
+      }
     }
+    return proxy;
   }
 
-  private static Constructor<?> getConstructor(Class<?> clazz, Class<?>... types) {
-    try {
-      return clazz.getDeclaredConstructor(types);
-    } catch (NoSuchMethodException e) {
-      throw new IllegalStateException("Cannot find constructor on: " + clazz.getName(), e);
+  /**
+   * @param cachePolicies the caching policies of the service methods
+   * @return the transport decorated with the features of this builder
+   */
+  private ProxyTransport transport(Map<String, CachePolicy> cachePolicies) {
+    ProxyTransport transport = ProxyTransport.eventBus(vertx);
+    // a batch is sent to a single instance
+    if (routing != null) {
+      transport = new RoutingProxyTransport(transport, ServiceInstances.get(vertx, address), routing, metrics);
     }
-  }
-
-  private static Object createInstance(Constructor<?> constructor, Object... args) {
-    try {
-      return constructor.newInstance(args);
-    } catch (Exception e) {
-      throw new IllegalStateException("Failed to call constructor on", e);
+    // batches are compressed as a whole
+    if (compression != null) {
+      transport = new CompressingProxyTransport(transport, new PayloadCompressor(compression, metrics));
+    }
+    if (batchWindow >= 0) {
+      transport = new BatchingProxyTransport(vertx, transport, batchWindow, maxBatchSize);
+    }
+    // each call of a batch carries its own deadline, each hedge and retry gets a fresh one
+    if (deadlinePropagation) {
+      transport = new DeadlineProxyTransport(transport);
+    }
+    // a hedge may join another batch than the call it duplicates
+    if (hedging != null && !hedging.getActions().isEmpty()) {
+      transport = new HedgingProxyTransport(vertx, transport, hedging, metrics);
+    }
+    // each retry goes through the circuit breaker
+    if (circuitBreaker != null) {
+      transport = new CircuitBreakerProxyTransport(transport, circuitBreaker, metrics);
+    }
+    if (retry != null && !retry.getActions().isEmpty()) {
+      transport = new RetryProxyTransport(vertx, transport, retry, metrics);
+    }
+    // the retries and the hedges of a call share its key
+    if (idempotencyKeys) {
+      transport = new IdempotencyProxyTransport(transport);
+    }
+    // a cached result is returned without retries, hedges nor circuit breaker
+    if (nearCache != null && !cachePolicies.isEmpty()) {
+      NearCache cache = NearCache.get(vertx, address, nearCache.getMaxSize());
+      transport = new NearCacheProxyTransport(transport, cache, cachePolicies, metrics);
+    }
+    // metrics are the outermost decoration, they measure the calls as seen by the proxy
+    if (metrics != null) {
+      transport = new MetricsProxyTransport(transport, metrics);
     }
+    return transport;
   }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Create the generated proxies and handlers of a service interface without reflection.
+ * <p>
+ * A factory named after the service interface followed by {@code VertxProxyFactory} is generated for each
+ * {@code @ProxyGen} interface and listed in {@code META-INF/services/io.vertx.serviceproxy.ServiceProxyFactory}.
+ * {@link ServiceProxyBuilder} and {@link ServiceBinder} look up the factory of an interface once and reuse it.
+ * Applications running in a named module declare the generated factories with {@code provides}.
+ *
+ * @param <T> the type of the service interface
+ */
+public interface ServiceProxyFactory<T> {
+
+  /**
+   * @return the service interface
+   */
+  Class<T> serviceInterface();
+
+  /**
+   * Create a proxy sending the calls on the event bus.
+   *
+   * @param vertx the vertx instance
+   * @param address the service address
+   * @param options the delivery options, can be {@code null}
+   * @param transport the transport of the calls
+   * @return the proxy
+   */
+  T createProxy(Vertx vertx, String address, DeliveryOptions options, ProxyTransport transport);
+
+  /**
+   * Create a proxy calling a service registered in the same Vert.x instance.
+   *
+   * @param dispatcher the dispatcher of the calls
+   * @param fallback the proxy used once the service is unregistered
+   * @return the proxy
+   */
+  T createDirectProxy(DirectDispatcher dispatcher, T fallback);
+
+  /**
+   * Create the handler of the calls of a service.
+   *
+   * @param vertx the vertx instance
+   * @param service the service implementation
+   * @param topLevel whether the handler is registered at the top level
+   * @param timeoutSeconds the idle timeout of the handler in seconds
+   * @param includeDebugInfo whether the failures carry debug info
+   * @return the handler
+   */
+  ProxyHandler createHandler(Vertx vertx, T service, boolean topLevel, long timeoutSeconds, boolean includeDebugInfo);
+
+  /**
+   * @return the caching policies of the methods annotated with
+   * {@link io.vertx.serviceproxy.annotations.ProxyCacheable}, by action
+   */
+  default Map<String, CachePolicy> cachePolicies() {
+    return Collections.emptyMap();
+  }
+}
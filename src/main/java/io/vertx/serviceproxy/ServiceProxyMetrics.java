@@ -0,0 +1,209 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy;
+
+/**
+ * The metrics SPI of service proxies, reporting the calls made by proxies and the calls handled by services.
+ * <p>
+ * Each call is tagged by the service address and its action. The {@code begin} methods return a metric object which
+ * is given back to the following methods of the same call, an implementation may record the start time of the call
+ * in it. Bodies are given as they are, computing their serialized size is left to the implementation so that only the
+ * implementations needing it pay for it.
+ * <p>
+ * All the methods have a no-op default implementation, metrics are only collected when an implementation is set on
+ * {@link ServiceProxyBuilder#setMetrics(ServiceProxyMetrics)} or {@link ServiceBinder#setMetrics(ServiceProxyMetrics)}.
+ */
+public interface ServiceProxyMetrics {
+
+  /**
+   * Called when a proxy sends a call.
+   *
+   * @param address the service address
+   * @param action  the action
+   * @param body    the call envelope
+   * @return the request metric
+   */
+  default Object requestBegin(String address, String action, Object body) {
+    return null;
+  }
+
+  /**
+   * Called when a proxy receives the reply of a call, or immediately after sending a call that expects no reply.
+   *
+   * @param requestMetric the request metric
+   * @param address       the service address
+   * @param action        the action
+   * @param reply         the reply body, {@code null} when the call failed
+   * @param failure       the failure, usually a {@link io.vertx.core.eventbus.ReplyException}, {@code null} when the call succeeded
+   */
+  default void requestEnd(Object requestMetric, String address, String action, Object reply, Throwable failure) {
+  }
+
+  /**
+   * Called when a service receives a call, before the call is intercepted.
+   *
+   * @param address the service address
+   * @param action  the action
+   * @param body    the call envelope
+   * @return the call metric
+   */
+  default Object callBegin(String address, String action, Object body) {
+    return null;
+  }
+
+  /**
+   * Called when a call has passed the interceptors and is handed to the service.
+   *
+   * @param callMetric the call metric
+   * @param address    the service address
+   * @param action     the action
+   */
+  default void callDispatched(Object callMetric, String address, String action) {
+  }
+
+  /**
+   * Called when a service replies a call.
+   *
+   * @param callMetric the call metric
+   * @param address    the service address
+   * @param action     the action
+   * @param reply      the reply body, {@code null} when the call failed
+   * @param failure    the failure, a {@link io.vertx.core.eventbus.ReplyException}, {@code null} when the call succeeded
+   */
+  default void callEnd(Object callMetric, String address, String action, Object reply, Throwable failure) {
+  }
+
+  /**
+   * Called when a payload is compressed, by a proxy for a call or by a service for a reply, see
+   * {@link CompressionOptions}.
+   *
+   * @param address        the service address
+   * @param action         the action
+   * @param size           the size of the payload in bytes
+   * @param compressedSize the size of the compressed payload in bytes
+   * @param durationNanos  the time spent compressing the payload
+   */
+  default void payloadCompressed(String address, String action, int size, int compressedSize, long durationNanos) {
+  }
+
+  /**
+   * Called when a payload is decompressed, by a service for a call or by a proxy for a reply.
+   *
+   * @param address        the service address
+   * @param action         the action
+   * @param compressedSize the size of the compressed payload in bytes
+   * @param size           the size of the payload in bytes
+   * @param durationNanos  the time spent decompressing the payload
+   */
+  default void payloadDecompressed(String address, String action, int compressedSize, int size, long durationNanos) {
+  }
+
+  /**
+   * Called when a proxy hedges a call that has not been replied in time, see {@link HedgingOptions}.
+   *
+   * @param address the service address
+   * @param action  the action
+   */
+  default void requestHedged(String address, String action) {
+  }
+
+  /**
+   * Called when the hedge of a call is replied before the original call.
+   *
+   * @param address the service address
+   * @param action  the action
+   */
+  default void hedgeWon(String address, String action) {
+  }
+
+  /**
+   * Called when a proxy retries a call, see {@link RetryOptions}.
+   *
+   * @param address the service address
+   * @param action  the action
+   * @param retry   the number of the retry, starting at 1
+   */
+  default void requestRetried(String address, String action, int retry) {
+  }
+
+  /**
+   * Called when the circuit of an action of a proxy opens, see {@link CircuitBreakerOptions}.
+   *
+   * @param address the service address
+   * @param action  the action
+   */
+  default void circuitOpened(String address, String action) {
+  }
+
+  /**
+   * Called when the circuit of an action of a proxy closes after successful probe calls.
+   *
+   * @param address the service address
+   * @param action  the action
+   */
+  default void circuitClosed(String address, String action) {
+  }
+
+  /**
+   * Called when a proxy ejects an instance of a service failing its calls, see {@link RoutingOptions}.
+   *
+   * @param address  the service address
+   * @param instance the address of the instance
+   */
+  default void instanceEjected(String address, String instance) {
+  }
+
+  /**
+   * Called when the adaptive concurrency limit of a service changes and when the service is bound, see
+   * {@link AdaptiveLimitOptions}.
+   *
+   * @param address the service address
+   * @param limit   the number of calls the service may handle concurrently
+   */
+  default void concurrencyLimitChanged(String address, int limit) {
+  }
+
+  /**
+   * Called when a service receives a duplicate of a call, which is not executed again, see
+   * {@link IdempotencyOptions}.
+   *
+   * @param address the service address
+   * @param action  the action
+   */
+  default void callDeduplicated(String address, String action) {
+  }
+
+  /**
+   * Called when a proxy looks up the result of a call in its near cache, see {@link NearCacheOptions}.
+   *
+   * @param address the service address
+   * @param action  the action
+   * @param hit     whether the result was found, possibly stale
+   */
+  default void nearCacheAccess(String address, String action, boolean hit) {
+  }
+
+  /**
+   * Called when a service looks up the result of a call in its result cache, see {@link ResultCacheOptions}. A call
+   * waiting for a call in flight with the same arguments is a hit.
+   *
+   * @param address the service address
+   * @param action  the action
+   * @param hit     whether the call is replied without executing the service method
+   */
+  default void resultCacheAccess(String address, String action, boolean hit) {
+  }
+}
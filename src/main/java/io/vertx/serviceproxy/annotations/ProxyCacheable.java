@@ -0,0 +1,44 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Let the proxies keep the results of a {@code @ProxyGen} method in their near cache, see
+ * {@link io.vertx.serviceproxy.ServiceProxyBuilder#setNearCache(io.vertx.serviceproxy.NearCacheOptions)}.
+ * <p>
+ * The results are cached by arguments, the method must return the same result for the same arguments for the time
+ * they are cached.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface ProxyCacheable {
+
+  /**
+   * @return the time a result is fresh in milliseconds
+   */
+  long ttl();
+
+  /**
+   * @return the time a result is still returned once it is no longer fresh in milliseconds, while it is refreshed in
+   * the background
+   */
+  long staleWhileRevalidate() default 0;
+}
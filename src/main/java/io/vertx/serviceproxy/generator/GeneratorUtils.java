@@ -1,16 +1,20 @@
 package io.vertx.serviceproxy.generator;
 
+import io.vertx.codegen.processor.MethodInfo;
 import io.vertx.codegen.processor.ParamInfo;
 import io.vertx.codegen.processor.type.ClassKind;
 import io.vertx.codegen.processor.type.ClassTypeInfo;
 import io.vertx.codegen.processor.type.MapperInfo;
 import io.vertx.codegen.processor.type.ParameterizedTypeInfo;
+import io.vertx.codegen.processor.writer.CodeWriter;
 import io.vertx.serviceproxy.generator.model.ProxyModel;
 
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -23,6 +27,7 @@ public class GeneratorUtils {
   final String handlerGenImports;
   final String roger;
   final String handlerConstructorBody;
+  final String handlerExpiringConstructorBody;
   final String handlerCloseAccessed;
 
   public GeneratorUtils() {
@@ -30,6 +35,7 @@ public class GeneratorUtils {
     proxyGenImports = loadResource("proxy_gen_import") + "\n";
     handlerGenImports = loadResource("handler_gen_import") + "\n";
     handlerConstructorBody = loadResource("handler_constructor_body") + "\n";
+    handlerExpiringConstructorBody = loadResource("handler_expiring_constructor_body") + "\n";
     handlerCloseAccessed = loadResource("handler_close_accessed") + "\n";
     roger = loadResource("roger") + "\n";
   }
@@ -65,14 +71,75 @@ public class GeneratorUtils {
 
   public void roger(PrintWriter w) { w.print(roger); }
 
+  /**
+   * Write the end of the constructor of a handler expiring with its own periodic timer, it assigns the
+   * {@code timerID} field used by {@link #handleCloseAccessed(PrintWriter)}.
+   *
+   * @deprecated kept for the generators extending this module that still generate their own timer, use
+   *             {@link #handlerExpiringConstructorBody(PrintWriter)} instead
+   */
+  @Deprecated
   public void handlerConstructorBody(PrintWriter w) { w.print(handlerConstructorBody); }
 
+  /**
+   * Write the end of the constructor of a handler expiring through {@code ProxyHandler#expireWhenIdle}, the handler
+   * must declare an {@code expired()} method.
+   */
+  public void handlerExpiringConstructorBody(PrintWriter w) { w.print(handlerExpiringConstructorBody); }
+
+  /**
+   * Write the {@code close} and {@code accessed} methods of a handler expiring with its own periodic timer, the
+   * generated handlers now expire through {@code ProxyHandler#expireWhenIdle} and no longer use them.
+   *
+   * @deprecated kept for the generators extending this module that still generate their own timer, together with
+   *             {@link #handlerConstructorBody(PrintWriter)}
+   */
+  @Deprecated
   public void handleCloseAccessed(PrintWriter w) { w.print(handlerCloseAccessed); }
 
   public void writeImport(PrintWriter w, String i) {
     w.print("import " + i + ";\n");
   }
 
+  /**
+   * Write the registration of the binary codec of an interface annotated with {@code @ProxyBinaryCodec}, the
+   * dictionary of the codec is made of the parameter names of the interface so both sides agree on it.
+   *
+   * @param w the writer
+   * @param model the proxy model
+   * @param vertx the expression of the Vert.x instance
+   */
+  public void binaryCodecRegistration(CodeWriter w, ProxyModel model, String vertx) {
+    String fields = model.getMethods()
+      .stream()
+      .filter(m -> !m.isStaticMethod())
+      .flatMap(m -> m.getParams().stream())
+      .map(ParamInfo::getName)
+      .distinct()
+      .sorted()
+      .map(name -> ", \"" + name + "\"")
+      .collect(Collectors.joining());
+    String codecName = "\"" + binaryCodecName(model) + "\"";
+    w.stmt("io.vertx.serviceproxy.ServiceProxyBinaryCodec.register(" + vertx + ", " + codecName + ", () -> new io.vertx.serviceproxy.ServiceProxyBinaryCodec(" + codecName + fields + "))");
+  }
+
+  /**
+   * @return the sorted names of the actions of a service, the position of an action is its ordinal, see
+   * {@link io.vertx.serviceproxy.ProxyHandler#actions()}
+   */
+  public static List<String> actions(ProxyModel model) {
+    return model.getMethods().stream()
+      .filter(m -> !m.isStaticMethod())
+      .map(MethodInfo::getName)
+      .distinct()
+      .sorted()
+      .collect(Collectors.toList());
+  }
+
+  public static String binaryCodecName(ProxyModel model) {
+    return model.getIfaceFQCN() + ".binary";
+  }
+
   public String loadResource(String resource) {
     return loadResource(resource, "vertx-service-proxy");
   }
@@ -0,0 +1,143 @@
+package io.vertx.serviceproxy.generator;
+
+import io.vertx.codegen.processor.Generator;
+import io.vertx.codegen.processor.MethodInfo;
+import io.vertx.codegen.processor.MethodKind;
+import io.vertx.codegen.processor.ParamInfo;
+import io.vertx.codegen.processor.TypeParamInfo;
+import io.vertx.codegen.annotations.ModuleGen;
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.codegen.processor.type.ApiTypeInfo;
+import io.vertx.codegen.processor.type.ParameterizedTypeInfo;
+import io.vertx.codegen.processor.type.TypeInfo;
+import io.vertx.codegen.processor.writer.CodeWriter;
+import io.vertx.serviceproxy.generator.model.ProxyMethodInfo;
+import io.vertx.serviceproxy.generator.model.ProxyModel;
+
+import java.io.StringWriter;
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Generate the proxy calling a service registered in the same Vert.x instance through a
+ * {@link io.vertx.serviceproxy.DirectDispatcher}, falling back to the event bus proxy.
+ */
+public class ServiceProxyDirectGen extends Generator<ProxyModel> {
+
+  final GeneratorUtils utils;
+
+  public ServiceProxyDirectGen(GeneratorUtils utils) {
+    kinds = Collections.singleton("proxy");
+    name = "service_proxy_direct";
+    this.utils = utils;
+  }
+
+  @Override
+  public Collection<Class<? extends Annotation>> annotations() {
+    return Arrays.asList(ProxyGen.class, ModuleGen.class);
+  }
+
+  @Override
+  public String filename(ProxyModel model) {
+    return model.getIfaceFQCN() + "VertxDirectProxy.java";
+  }
+
+  @Override
+  public String render(ProxyModel model, int index, int size, Map<String, Object> session) {
+    StringWriter buffer = new StringWriter();
+    CodeWriter writer = new CodeWriter(buffer);
+
+    String iface = model.getIfaceSimpleName();
+    String className = iface + "VertxDirectProxy";
+
+    utils.classHeader(writer);
+    writer.code("package " + model.getIfacePackageName() + ";\n");
+    writer.code("\n");
+    utils.proxyGenImports(writer);
+    utils.writeImport(writer, "io.vertx.serviceproxy.DirectDispatcher");
+    utils.additionalImports(model).forEach(i -> utils.writeImport(writer, i));
+    utils.roger(writer);
+    writer
+      .code("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+      .code("public class " + className + " implements " + iface + " {\n")
+      .indent()
+        .stmt("private final DirectDispatcher _dispatcher")
+        .stmt("private final " + iface + " _fallback")
+        .stmt("private boolean closed")
+        .newLine()
+        .code("public " + className + "(DirectDispatcher dispatcher, " + iface + " fallback) {\n")
+        .indent()
+          .stmt("this._dispatcher = dispatcher")
+          .stmt("this._fallback = fallback")
+        .unindent()
+        .code("}\n")
+        .newLine();
+    for (MethodInfo m : model.getMethods()) {
+      if (!m.isStaticMethod()) {
+        generateMethod(iface, (ProxyMethodInfo) m, writer);
+      }
+    }
+    writer
+      .unindent()
+      .code("}\n");
+    return buffer.toString();
+  }
+
+  private void generateMethod(String iface, ProxyMethodInfo method, CodeWriter writer) {
+    writer.code("@Override\n");
+    writer.code("public");
+    if (!method.getTypeParams().isEmpty()) {
+      writer.write(" <");
+      writer.writeSeq(method.getTypeParams().stream().map(TypeParamInfo::getName), ", ");
+      writer.write(">");
+    }
+    writer.write(" " + method.getReturnType().getSimpleName() + " " + method.getName() + "(");
+    writer.writeSeq(method.getParams().stream().map(p -> p.getType().getSimpleName() + " " + p.getName()), ", ");
+    writer.write("){\n");
+    writer.indent();
+    if (!method.isProxyIgnore()) {
+      String call = method.getName() + "(" + method.getParams().stream().map(ParamInfo::getName).collect(Collectors.joining(", ")) + ")";
+      if (method.getKind() == MethodKind.FUTURE) {
+        writer.code("if (closed) return io.vertx.core.Future.failedFuture(\"Proxy is closed\");\n");
+        if (method.isProxyClose()) {
+          // the service handler unregisters the service when it handles the close call
+          writer.stmt("closed = true");
+          writer.stmt("return _fallback." + call);
+        } else if (isEventBusResult(((ParameterizedTypeInfo) method.getReturnType()).getArg(0))) {
+          // streams and services are exchanged on the event bus, so they are used on the context of the caller
+          writer.stmt("return _fallback." + call);
+        } else {
+          writer.code("if (!_dispatcher.isAvailable()) return _fallback." + call + ";\n");
+          writer.stmt("return _dispatcher.call(\"" + method.getName() + "\", (" + iface + " _service) -> _service." + call + ")");
+        }
+      } else {
+        writer.code("if (closed) throw new IllegalStateException(\"Proxy is closed\");\n");
+        if (method.isProxyClose()) {
+          // the service handler unregisters the service when it handles the close call
+          writer.stmt("closed = true");
+          writer.stmt("_fallback." + call);
+        } else {
+          writer.code("if (_dispatcher.isAvailable()) {\n")
+            .indent()
+            .stmt("_dispatcher.send(\"" + method.getName() + "\", (" + iface + " _service) -> _service." + call + ")")
+            .unindent()
+            .code("} else {\n")
+            .indent()
+            .stmt("_fallback." + call)
+            .unindent()
+            .code("}\n");
+        }
+      }
+    }
+    if (method.isFluent()) {
+      writer.stmt("return this");
+    }
+    writer.unindent();
+    writer.code("}\n");
+  }
+
+  private static boolean isEventBusResult(TypeInfo type) {
+    return ProxyModel.isStreamResult(type) || type instanceof ApiTypeInfo && ((ApiTypeInfo) type).isProxyGen();
+  }
+}
@@ -0,0 +1,126 @@
+package io.vertx.serviceproxy.generator;
+
+import io.vertx.codegen.processor.Generator;
+import io.vertx.codegen.annotations.ModuleGen;
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.codegen.processor.writer.CodeWriter;
+import io.vertx.serviceproxy.generator.model.ProxyMethodInfo;
+import io.vertx.serviceproxy.generator.model.ProxyModel;
+
+import java.io.StringWriter;
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Generate the {@link io.vertx.serviceproxy.ServiceProxyFactory} creating the proxies and the handler of a service.
+ */
+public class ServiceProxyFactoryGen extends Generator<ProxyModel> {
+
+  final GeneratorUtils utils;
+
+  public ServiceProxyFactoryGen(GeneratorUtils utils) {
+    kinds = Collections.singleton("proxy");
+    name = "service_proxy_factory";
+    this.utils = utils;
+  }
+
+  @Override
+  public Collection<Class<? extends Annotation>> annotations() {
+    return Arrays.asList(ProxyGen.class, ModuleGen.class);
+  }
+
+  @Override
+  public String filename(ProxyModel model) {
+    return model.getIfaceFQCN() + "VertxProxyFactory.java";
+  }
+
+  @Override
+  public String render(ProxyModel model, int index, int size, Map<String, Object> session) {
+    StringWriter buffer = new StringWriter();
+    CodeWriter writer = new CodeWriter(buffer);
+
+    String iface = model.getIfaceSimpleName();
+    String className = iface + "VertxProxyFactory";
+    List<ProxyMethodInfo> cacheable = model.getMethods().stream()
+      .filter(m -> !m.isStaticMethod())
+      .map(m -> (ProxyMethodInfo) m)
+      .filter(ProxyMethodInfo::isCacheable)
+      .collect(Collectors.toList());
+
+    utils.classHeader(writer);
+    writer.code("package " + model.getIfacePackageName() + ";\n");
+    writer.code("\n");
+    utils.writeImport(writer, "io.vertx.core.Vertx");
+    utils.writeImport(writer, "io.vertx.core.eventbus.DeliveryOptions");
+    if (!cacheable.isEmpty()) {
+      utils.writeImport(writer, "io.vertx.serviceproxy.CachePolicy");
+    }
+    utils.writeImport(writer, "io.vertx.serviceproxy.DirectDispatcher");
+    utils.writeImport(writer, "io.vertx.serviceproxy.ProxyHandler");
+    utils.writeImport(writer, "io.vertx.serviceproxy.ProxyTransport");
+    utils.writeImport(writer, "io.vertx.serviceproxy.ServiceProxyFactory");
+    if (!cacheable.isEmpty()) {
+      utils.writeImport(writer, "java.util.Map");
+    }
+    utils.roger(writer);
+    writer
+      .code("public class " + className + " implements ServiceProxyFactory<" + iface + "> {\n")
+      .indent();
+    if (!cacheable.isEmpty()) {
+      writer
+        .newLine()
+        .code("private static final Map<String, CachePolicy> CACHE_POLICIES = Map.ofEntries(\n")
+        .indent();
+      for (int i = 0; i < cacheable.size(); i++) {
+        ProxyMethodInfo method = cacheable.get(i);
+        writer.code("Map.entry(\"" + method.getName() + "\", new CachePolicy(" + method.getCacheTtl() + "L, " +
+          method.getCacheStaleWhileRevalidate() + "L))" + (i < cacheable.size() - 1 ? ",\n" : ");\n"));
+      }
+      writer.unindent();
+    }
+    writer
+        .newLine()
+        .code("@Override\n")
+        .code("public Class<" + iface + "> serviceInterface() {\n")
+        .indent()
+          .stmt("return " + iface + ".class")
+        .unindent()
+        .code("}\n")
+        .newLine()
+        .code("@Override\n")
+        .code("public " + iface + " createProxy(Vertx vertx, String address, DeliveryOptions options, ProxyTransport transport) {\n")
+        .indent()
+          .stmt("return new " + iface + "VertxEBProxy(vertx, address, options, transport)")
+        .unindent()
+        .code("}\n")
+        .newLine()
+        .code("@Override\n")
+        .code("public " + iface + " createDirectProxy(DirectDispatcher dispatcher, " + iface + " fallback) {\n")
+        .indent()
+          .stmt("return new " + iface + "VertxDirectProxy(dispatcher, fallback)")
+        .unindent()
+        .code("}\n")
+        .newLine()
+        .code("@Override\n")
+        .code("public ProxyHandler createHandler(Vertx vertx, " + iface + " service, boolean topLevel, long timeoutSeconds, boolean includeDebugInfo) {\n")
+        .indent()
+          .stmt("return new " + iface + "VertxProxyHandler(vertx, service, topLevel, timeoutSeconds, includeDebugInfo)")
+        .unindent()
+        .code("}\n");
+    if (!cacheable.isEmpty()) {
+      writer
+        .newLine()
+        .code("@Override\n")
+        .code("public Map<String, CachePolicy> cachePolicies() {\n")
+        .indent()
+          .stmt("return CACHE_POLICIES")
+        .unindent()
+        .code("}\n");
+    }
+    writer
+      .unindent()
+      .code("}\n");
+    return buffer.toString();
+  }
+}
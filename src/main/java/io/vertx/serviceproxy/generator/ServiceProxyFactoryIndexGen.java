@@ -0,0 +1,37 @@
+package io.vertx.serviceproxy.generator;
+
+import io.vertx.codegen.processor.Generator;
+import io.vertx.codegen.annotations.ModuleGen;
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.serviceproxy.generator.model.ProxyModel;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Generate the {@code META-INF/services} index listing the {@link io.vertx.serviceproxy.ServiceProxyFactory} of
+ * every service of the compilation unit.
+ */
+public class ServiceProxyFactoryIndexGen extends Generator<ProxyModel> {
+
+  public ServiceProxyFactoryIndexGen() {
+    kinds = Collections.singleton("proxy");
+    name = "service_proxy_factory_index";
+    incremental = true;
+  }
+
+  @Override
+  public Collection<Class<? extends Annotation>> annotations() {
+    return Arrays.asList(ProxyGen.class, ModuleGen.class);
+  }
+
+  @Override
+  public String filename(ProxyModel model) {
+    return "resources/META-INF/services/io.vertx.serviceproxy.ServiceProxyFactory";
+  }
+
+  @Override
+  public String render(ProxyModel model, int index, int size, Map<String, Object> session) {
+    return model.getIfaceFQCN() + "VertxProxyFactory\n";
+  }
+}
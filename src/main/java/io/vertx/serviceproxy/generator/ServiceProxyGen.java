@@ -9,8 +9,10 @@ import io.vertx.codegen.annotations.ModuleGen;
 import io.vertx.codegen.annotations.ProxyGen;
 import io.vertx.codegen.processor.type.*;
 import io.vertx.codegen.processor.writer.CodeWriter;
+import io.vertx.serviceproxy.ProxyHandler;
 import io.vertx.serviceproxy.generator.model.ProxyMethodInfo;
 import io.vertx.serviceproxy.generator.model.ProxyModel;
+import io.vertx.serviceproxy.impl.BufferEnvelopeCodec;
 
 import java.io.StringWriter;
 import java.lang.annotation.Annotation;
@@ -59,6 +61,7 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
         .stmt("private Vertx _vertx")
         .stmt("private String _address")
         .stmt("private DeliveryOptions _options")
+        .stmt("private ProxyTransport _transport")
         .stmt("private boolean closed")
         .newLine()
         .code("public " + className + "(Vertx vertx, String address) {\n")
@@ -68,15 +71,25 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
         .code("}\n")
         .newLine()
         .code("public " + className +  "(Vertx vertx, String address, DeliveryOptions options) {\n")
+        .indent()
+          .stmt("this(vertx, address, options, ProxyTransport.eventBus(vertx))")
+        .unindent()
+        .code("}\n")
+        .newLine()
+        .code("public " + className +  "(Vertx vertx, String address, DeliveryOptions options, ProxyTransport transport) {\n")
         .indent()
           .stmt("this._vertx = vertx")
           .stmt("this._address = address")
           .stmt("this._options = options")
-          .code("try {")
-          .indent()
-            .stmt("this._vertx.eventBus().registerDefaultCodec(ServiceException.class, new ServiceExceptionMessageCodec())")
-          .unindent()
-          .code("} catch (IllegalStateException ex) {\n}")
+          .stmt("this._transport = transport")
+          .stmt("ServiceExceptionMessageCodec.register(this._vertx)");
+    if (model.isBinaryCodec()) {
+      utils.binaryCodecRegistration(writer, model, "this._vertx");
+    }
+    if (model.usesBuffers()) {
+      writer.stmt("ProxyUtils.registerBufferCodecs(this._vertx)");
+    }
+    writer
         .unindent()
         .code("}\n")
         .newLine();
@@ -101,7 +114,7 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
         writer.writeSeq(m.getParams().stream().map(p -> p.getType().getSimpleName() + " " + p.getName()), ", ");
         writer.write("){\n");
         writer.indent();
-        if (!((ProxyMethodInfo) m).isProxyIgnore()) generateMethodBody((ProxyMethodInfo) m, writer);
+        if (!((ProxyMethodInfo) m).isProxyIgnore()) generateMethodBody(model, (ProxyMethodInfo) m, writer);
         if (m.isFluent()) writer.stmt("return this");
         writer.unindent();
         writer.code("}\n");
@@ -109,7 +122,7 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
     }
   }
 
-  private void generateMethodBody(ProxyMethodInfo method, CodeWriter writer) {
+  private void generateMethodBody(ProxyModel model, ProxyMethodInfo method, CodeWriter writer) {
     ParamInfo lastParam = !method.getParams().isEmpty() ? method.getParam(method.getParams().size() - 1) : null;
     if (method.getKind() == MethodKind.FUTURE) {
       writer.code("if (closed) return io.vertx.core.Future.failedFuture(\"Proxy is closed\");\n");
@@ -125,12 +138,21 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
     writer.newLine();
     writer.stmt("DeliveryOptions _deliveryOptions = (_options != null) ? new DeliveryOptions(_options) : new DeliveryOptions()");
     writer.stmt("_deliveryOptions.addHeader(\"action\", \"" + method.getName() + "\")");
+    // the delivery options may already carry an action header, it must be replaced
     writer.stmt("_deliveryOptions.getHeaders().set(\"action\", \"" + method.getName() + "\")");
+    // the ordinal lets the handler dispatch without hashing the action, it is checked against the action header
+    writer.stmt("_deliveryOptions.getHeaders().set(\"" + ProxyHandler.ORDINAL_HEADER + "\", \"" + GeneratorUtils.actions(model).indexOf(method.getName()) + "\")");
+    if (model.isBinaryCodec()) {
+      writer.stmt("_deliveryOptions.setCodecName(\"" + GeneratorUtils.binaryCodecName(model) + "\")");
+    } else if (method.getParams().stream().anyMatch(p -> ProxyModel.isBuffer(p.getType()))) {
+      // the buffer arguments are sent as raw bytes, the binary codec already does it
+      writer.stmt("_deliveryOptions.setCodecName(\"" + BufferEnvelopeCodec.NAME + "\")");
+    }
     if (method.getKind() == MethodKind.FUTURE) {
       TypeInfo t = ((ParameterizedTypeInfo)method.getReturnType()).getArg(0);
       generateSendCallWithResultHandler(t, null, writer, true);
     } else {
-      writer.stmt("_vertx.eventBus().send(_address, _json, _deliveryOptions)");
+      writer.stmt("_transport.send(_address, _json, _deliveryOptions)");
     }
   }
 
@@ -209,7 +231,7 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
       writer.print("return ");
     }
     writer
-      .print("_vertx.eventBus().<" + sendTypeParameter(t) + ">request(_address, _json, _deliveryOptions");
+      .print("_transport.<" + sendTypeParameter(t) + ">request(_address, _json, _deliveryOptions");
     if (promise) {
       writer.println(").map(msg -> {");
       writer.indent();
@@ -238,6 +260,8 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
           .codeln(".map(v -> " + GeneratorUtils.generateDeserializeDataObject("v", doType) + ")")
           .code(".collect(Collectors.toList())")
           .unindent();
+      } else if (ServiceProxyHandlerGen.isBoxedNumber(((ParameterizedTypeInfo) t).getArg(0))) {
+        writer.print("ProxyUtils.convertNumberList(" + resultStr + ".body().getList(), " + ServiceProxyHandlerGen.numberConversion(((ParameterizedTypeInfo) t).getArg(0)) + ")");
       } else {
         writer.print("ProxyUtils.convertList(" + resultStr + ".body().getList())");
       }
@@ -251,6 +275,8 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
           .codeln(".map(v -> " + GeneratorUtils.generateDeserializeDataObject("v", doType) + ")")
           .code(".collect(Collectors.toSet())")
           .unindent();
+      } else if (ServiceProxyHandlerGen.isBoxedNumber(((ParameterizedTypeInfo) t).getArg(0))) {
+        writer.print("ProxyUtils.convertNumberSet(" + resultStr + ".body().getList(), " + ServiceProxyHandlerGen.numberConversion(((ParameterizedTypeInfo) t).getArg(0)) + ")");
       } else {
         writer.print("ProxyUtils.convertSet(" + resultStr + ".body().getList())");
       }
@@ -263,9 +289,14 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
         writer.indent()
           .code(".collect(Collectors.toMap(Map.Entry::getKey, e -> " + GeneratorUtils.generateDeserializeDataObject("e.getValue()", doType) + "))")
           .unindent();
+      } else if (ServiceProxyHandlerGen.isBoxedNumber(((ParameterizedTypeInfo) t).getArg(1))) {
+        writer.print("ProxyUtils.convertNumberMap(" + resultStr + ".body().getMap(), " + ServiceProxyHandlerGen.numberConversion(((ParameterizedTypeInfo) t).getArg(1)) + ")");
       } else {
         writer.print("ProxyUtils.convertMap(" + resultStr + ".body().getMap())");
       }
+    } else if (ProxyModel.isStreamResult(t)) {
+      TypeInfo itemType = ((ParameterizedTypeInfo) t).getArg(0);
+      writer.print("ProxyUtils.<" + itemType.getName() + ">readStream(_vertx, " + resultStr + ".headers().get(\"streamaddr\"), _deliveryOptions.getSendTimeout(), " + generateStreamItemDecoder(itemType) + ")");
     } else if (t.getKind() == ClassKind.API && t instanceof ApiTypeInfo && ((ApiTypeInfo)t).isProxyGen()) {
       writer.print("new " + t.getSimpleName() + "VertxEBProxy(_vertx, " + resultStr + ".headers().get(\"proxyaddr\"))");
     } else if (t.isDataObjectHolder())
@@ -292,7 +323,21 @@ public class ServiceProxyGen extends Generator<ProxyModel> {
 
   }
 
+  private String generateStreamItemDecoder(TypeInfo itemType) {
+    String name = itemType.getName();
+    if (itemType.isDataObjectHolder())
+      return "v -> " + GeneratorUtils.generateDeserializeDataObject("v", (ClassTypeInfo) itemType);
+    if ("java.lang.Character".equals(name))
+      return "v -> v == null ? null : ProxyUtils.javaObjToChar(v)";
+    if (ServiceProxyHandlerGen.numericMapping.containsKey(name))
+      return "v -> v == null ? null : ((Number) v)." + ServiceProxyHandlerGen.numericMapping.get(name) + "Value()";
+    if (itemType.getKind() == ClassKind.ENUM)
+      return "v -> v == null ? null : " + name + ".valueOf((String) v)";
+    return "v -> (" + name + ") v";
+  }
+
   private String sendTypeParameter(TypeInfo t) {
+    if (ProxyModel.isStreamResult(t)) return "Void";
     if (t.getKind() == ClassKind.LIST || t.getKind() == ClassKind.SET) return "JsonArray";
     if (t.getKind() == ClassKind.MAP) return "JsonObject";
     if (t.isDataObjectHolder()) return t.getDataObject().getJsonType().getSimpleName();
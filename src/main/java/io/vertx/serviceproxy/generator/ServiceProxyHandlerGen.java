@@ -13,6 +13,7 @@ import io.vertx.serviceproxy.generator.model.ProxyModel;
 import java.io.StringWriter;
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -39,6 +40,17 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
     numericMapping.put("java.lang.Double", "double");
   }
 
+  static boolean isBoxedNumber(TypeInfo type) {
+    return type.getName().startsWith("java.lang.") && numericMapping.containsKey(type.getName());
+  }
+
+  /**
+   * @return the arguments converting a decoded number to a boxed numeric type, without boxing numbers already of that type
+   */
+  static String numberConversion(TypeInfo type) {
+    return type.getName() + ".class, Number::" + numericMapping.get(type.getName()) + "Value";
+  }
+
   public ServiceProxyHandlerGen(GeneratorUtils utils) {
     kinds = Collections.singleton("proxy");
     name = "service_proxy_handler";
@@ -79,10 +91,9 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
       .newLine()
       .indent()
       .code("public static final long DEFAULT_CONNECTION_TIMEOUT = 5 * 60; // 5 minutes \n")
+      .code("private static final String[] ACTIONS = {" + actions(model).map(action -> "\"" + action + "\"").collect(Collectors.joining(", ")) + "};\n")
       .stmt("private final Vertx vertx")
       .stmt("private final " + model.getIfaceSimpleName() + " service")
-      .stmt("private final long timerID")
-      .stmt("private long lastAccessed")
       .stmt("private final long timeoutSeconds")
       .stmt("private final boolean includeDebugInfo")
       .newLine()
@@ -105,11 +116,18 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
       .code("}\n")
       .newLine()
       .code("public " + className + "(Vertx vertx, " + model.getIfaceSimpleName() + " service, boolean topLevel, long timeoutSeconds, boolean includeDebugInfo) {\n");
-    utils.handlerConstructorBody(writer);
-    writer.code("private void checkTimedOut(long id) {\n")
-      .indent()
-      .stmt("long now = System.nanoTime()")
-      .code("if (now - lastAccessed > timeoutSeconds * 1000000000) {\n")
+    if (model.isBinaryCodec()) {
+      writer.indent();
+      utils.binaryCodecRegistration(writer, model, "vertx");
+      writer.unindent();
+    }
+    if (model.usesBuffers()) {
+      writer.indent();
+      writer.stmt("HelperUtils.registerBufferCodecs(vertx)");
+      writer.unindent();
+    }
+    utils.handlerExpiringConstructorBody(writer);
+    writer.code("private void expired() {\n")
       .indent();
     model.getMethods().stream()
       .filter(m -> ((ProxyMethodInfo)m).isProxyClose())
@@ -121,10 +139,14 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
       .stmt("close()")
       .unindent()
       .code("}\n")
+      .newLine();
+    writer.code("@Override\n")
+      .code("public String[] actions() {\n")
+      .indent()
+      .stmt("return ACTIONS")
       .unindent()
       .code("}\n")
       .newLine();
-    utils.handleCloseAccessed(writer);
     writer.code("public void handle(Message<JsonObject> msg) {\n")
       .indent()
       .code("try{\n")
@@ -132,10 +154,16 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
       .stmt("JsonObject json = msg.body()")
       .stmt("String action = msg.headers().get(\"action\")")
       .stmt("if (action == null) throw new IllegalStateException(\"action not specified\")")
-      .stmt("accessed()")
-      .code("switch (action) {\n")
-      .indent();
-    model.getMethods().stream().filter(m -> !m.isStaticMethod()).forEach(m -> generateActionSwitchEntry((ProxyMethodInfo) m, writer));
+      .stmt("accessed()");
+    if (ordinalDispatch()) {
+      List<String> actions = GeneratorUtils.actions(model);
+      writer.code("switch (actionOrdinal(msg)) {\n").indent();
+      model.getMethods().stream().filter(m -> !m.isStaticMethod()).forEach(m ->
+        generateActionSwitchEntry((ProxyMethodInfo) m, actions.indexOf(m.getName()) + " /* " + m.getName() + " */", writer));
+    } else {
+      writer.code("switch (action) {\n").indent();
+      model.getMethods().stream().filter(m -> !m.isStaticMethod()).forEach(m -> generateActionSwitchEntry((ProxyMethodInfo) m, writer));
+    }
     writer
       .code("default: throw new IllegalStateException(\"Invalid action: \" + action);\n")
       .unindent()
@@ -157,10 +185,42 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
     return buffer.toString();
   }
 
+  /**
+   * @return the sorted names of the actions dispatched by the handler, matching {@link io.vertx.serviceproxy.ProxyHandler#actions()}
+   */
+  public Stream<String> actions(ProxyModel model) {
+    return GeneratorUtils.actions(model).stream();
+  }
+
+  /**
+   * @return whether the handler dispatches the calls on the ordinal of their action, generators overriding
+   * {@link #generateActionSwitchEntry(ProxyMethodInfo, CodeWriter)} write the action names as case labels and keep
+   * dispatching on the action name
+   */
+  protected boolean ordinalDispatch() {
+    try {
+      return getClass().getMethod("generateActionSwitchEntry", ProxyMethodInfo.class, CodeWriter.class)
+        .getDeclaringClass() == ServiceProxyHandlerGen.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
   public void generateActionSwitchEntry(ProxyMethodInfo m, CodeWriter writer) {
+    generateActionSwitchEntry(m, "\"" + m.getName() + "\"", writer);
+  }
+
+  /**
+   * Write the case of a method in the dispatch switch of the handler.
+   *
+   * @param m the method
+   * @param label the case label, the action name or its ordinal
+   * @param writer the writer
+   */
+  public void generateActionSwitchEntry(ProxyMethodInfo m, String label, CodeWriter writer) {
     ParamInfo lastParam = !m.getParams().isEmpty() ? m.getParam(m.getParams().size() - 1) : null;
     writer
-      .code("case \"" + m.getName() + "\": {\n")
+      .code("case " + label + ": {\n")
       .indent()
       .code("service." + m.getName() + "(")
       .indent();
@@ -192,6 +252,8 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
     String name = param.getName();
     TypeInfo type = param.getType();
     String typeName = type.getName();
+    if (ProxyModel.isBuffer(type))
+      return "json.getBuffer(\"" + name + "\")";
     if (typeName.equals("char") || typeName.equals("java.lang.Character"))
       return "json.getInteger(\"" + name + "\") == null ? null : (char)(int)(json.getInteger(\"" + name + "\"))";
     if (typeName.equals("byte") || typeName.equals("java.lang.Byte") ||
@@ -223,17 +285,14 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
           coll
         );
       }
-      if (typeArg.getName().equals("java.lang.Byte") || typeArg.getName().equals("java.lang.Short") ||
-        typeArg.getName().equals("java.lang.Integer") || typeArg.getName().equals("java.lang.Long"))
-        return "json.getJsonArray(\"" + name + "\").stream().map(o -> ((Number)o)." + numericMapping.get(typeArg.getName()) + "Value()).collect(Collectors.to" + coll + "())";
+      if (isBoxedNumber(typeArg))
+        return "HelperUtils.convertNumber" + coll + "(json.getJsonArray(\"" + name + "\").getList(), " + numberConversion(typeArg) + ")";
       return "HelperUtils.convert" + coll + "(json.getJsonArray(\"" + name + "\").getList())";
     }
     if (type.getKind() == ClassKind.MAP) {
       TypeInfo typeArg = ((ParameterizedTypeInfo)type).getArg(1);
-      if (typeArg.getName().equals("java.lang.Byte") || typeArg.getName().equals("java.lang.Short") ||
-        typeArg.getName().equals("java.lang.Integer") || typeArg.getName().equals("java.lang.Long") ||
-        typeArg.getName().equals("java.lang.Float") || typeArg.getName().equals("java.lang.Double"))
-        return "json.getJsonObject(\"" + name + "\").getMap().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> ((java.lang.Number)entry.getValue())." + numericMapping.get(typeArg.getName()) + "Value()))";
+      if (isBoxedNumber(typeArg))
+        return "HelperUtils.convertNumberMap(json.getJsonObject(\"" + name + "\").getMap(), " + numberConversion(typeArg) + ")";
       if (typeArg.isDataObjectHolder()) {
         ClassTypeInfo doType = (ClassTypeInfo) typeArg;
         return String.format(
@@ -296,6 +355,8 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
           "         }";
       return "HelperUtils.createMapHandler(msg, includeDebugInfo)";
     }
+    if (ProxyModel.isStreamResult(typeArg))
+      return "HelperUtils.createStreamHandler(vertx, msg, includeDebugInfo, timeoutSeconds, " + generateStreamItemEncoder(((ParameterizedTypeInfo) typeArg).getArg(0)) + ")";
     if (typeArg.isDataObjectHolder())
       return "res -> {\n" +
         "            if (res.failed()) {\n" +
@@ -304,6 +365,8 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
         "              msg.reply(" + GeneratorUtils.generateSerializeDataObject("res.result()", (ClassTypeInfo) typeArg) + ");\n" +
         "            }\n" +
         "         }";
+    if (ProxyModel.isBuffer(typeArg))
+      return "HelperUtils.createBufferHandler(msg, includeDebugInfo)";
     if (typeArg.getKind() == ClassKind.API && ((ApiTypeInfo)typeArg).isProxyGen())
       return "res -> {\n" +
         "            if (res.failed()) {\n" +
@@ -317,6 +380,19 @@ public class ServiceProxyHandlerGen extends Generator<ProxyModel> {
     return "HelperUtils.createHandler(msg, includeDebugInfo)";
   }
 
+  /**
+   * @return the function encoding the items of a stream result to the JSON values published to the proxy
+   */
+  public String generateStreamItemEncoder(TypeInfo itemType) {
+    if (itemType.isDataObjectHolder())
+      return "v -> " + GeneratorUtils.generateSerializeDataObject("v", (ClassTypeInfo) itemType);
+    if (itemType.getName().equals("java.lang.Character"))
+      return "v -> v == null ? null : (int) v";
+    if (itemType.getKind() == ClassKind.ENUM)
+      return "v -> v == null ? null : v.name()";
+    return "v -> v";
+  }
+
   public void generateAdditionalMethods(ProxyModel model, CodeWriter writer) {}
 
 }
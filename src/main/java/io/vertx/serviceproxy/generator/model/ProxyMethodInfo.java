@@ -34,15 +34,27 @@ public class ProxyMethodInfo extends MethodInfo {
 
   private final boolean proxyIgnore;
   private final boolean proxyClose;
+  private final long cacheTtl;
+  private final long cacheStaleWhileRevalidate;
 
   public ProxyMethodInfo(Set<ClassTypeInfo> ownerTypes, String name, TypeInfo returnType, Text returnDescription, boolean fluent,
                          boolean cacheReturn, List<ParamInfo> params, String comment, Doc doc, boolean staticMethod, boolean defaultMethod,
                          List<TypeParamInfo.Method> typeParams, boolean proxyIgnore, boolean proxyClose, boolean deprecated, Text deprecatedDesc, boolean methodOverride) {
+    this(ownerTypes, name, returnType, returnDescription, fluent, cacheReturn, params, comment, doc, staticMethod, defaultMethod,
+      typeParams, proxyIgnore, proxyClose, deprecated, deprecatedDesc, methodOverride, 0, 0);
+  }
+
+  public ProxyMethodInfo(Set<ClassTypeInfo> ownerTypes, String name, TypeInfo returnType, Text returnDescription, boolean fluent,
+                         boolean cacheReturn, List<ParamInfo> params, String comment, Doc doc, boolean staticMethod, boolean defaultMethod,
+                         List<TypeParamInfo.Method> typeParams, boolean proxyIgnore, boolean proxyClose, boolean deprecated, Text deprecatedDesc, boolean methodOverride,
+                         long cacheTtl, long cacheStaleWhileRevalidate) {
 
 
     super(ownerTypes, name, returnType, returnDescription, fluent, cacheReturn, params, comment, doc, staticMethod, defaultMethod, typeParams, deprecated, deprecatedDesc, methodOverride);
     this.proxyIgnore = proxyIgnore;
     this.proxyClose = proxyClose;
+    this.cacheTtl = cacheTtl;
+    this.cacheStaleWhileRevalidate = cacheStaleWhileRevalidate;
   }
 
   public boolean isProxyIgnore() {
@@ -52,4 +64,25 @@ public class ProxyMethodInfo extends MethodInfo {
   public boolean isProxyClose() {
     return proxyClose;
   }
+
+  /**
+   * @return {@code true} when the method is annotated with {@link io.vertx.serviceproxy.annotations.ProxyCacheable}
+   */
+  public boolean isCacheable() {
+    return cacheTtl > 0;
+  }
+
+  /**
+   * @return the time a result is fresh in milliseconds, {@code 0} when the method is not cacheable
+   */
+  public long getCacheTtl() {
+    return cacheTtl;
+  }
+
+  /**
+   * @return the time a stale result is returned while it is refreshed in milliseconds
+   */
+  public long getCacheStaleWhileRevalidate() {
+    return cacheStaleWhileRevalidate;
+  }
 }
@@ -22,6 +22,10 @@ import io.vertx.codegen.annotations.ProxyIgnore;
 import io.vertx.codegen.processor.doc.Doc;
 import io.vertx.codegen.processor.doc.Text;
 import io.vertx.codegen.processor.type.*;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.serviceproxy.annotations.ProxyBinaryCodec;
+import io.vertx.serviceproxy.annotations.ProxyCacheable;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.AnnotationMirror;
@@ -38,8 +42,11 @@ import java.util.Set;
  */
 public class ProxyModel extends ClassModel {
 
+  private final boolean binaryCodec;
+
   public ProxyModel(ProcessingEnvironment env, TypeMirrorFactory typeFactory, TypeElement modelElt) {
     super(env, typeFactory, modelElt);
+    this.binaryCodec = modelElt.getAnnotation(ProxyBinaryCodec.class) != null;
   }
 
   @Override
@@ -47,6 +54,13 @@ public class ProxyModel extends ClassModel {
     return "proxy";
   }
 
+  /**
+   * @return {@code true} when the interface is annotated with {@link ProxyBinaryCodec}
+   */
+  public boolean isBinaryCodec() {
+    return binaryCodec;
+  }
+
   @Override
   protected void checkParamType(ExecutableElement elem, TypeInfo typeInfo, int pos, int numParams) {
     // Basic types, int, long, String etc
@@ -58,6 +72,10 @@ public class ProxyModel extends ClassModel {
     if (typeInfo.getKind() == ClassKind.ENUM) {
       return;
     }
+    // Buffers travel as raw bytes
+    if (isBuffer(typeInfo)) {
+      return;
+    }
     if (isLegalContainerParam(typeInfo)) {
       return;
     }
@@ -81,12 +99,53 @@ public class ProxyModel extends ClassModel {
       // Ignore static methods - we won't use them anyway
       return;
     }
-    if (type.isVoid() || type.getName().startsWith("io.vertx.core.Future")) {
+    if (type.isVoid()) {
+      return;
+    }
+    if (type.getName().startsWith("io.vertx.core.Future")) {
+      if (type instanceof ParameterizedTypeInfo) {
+        TypeInfo resultType = ((ParameterizedTypeInfo) type).getArg(0);
+        if (resultType.getRaw().getName().equals(ReadStream.class.getName()) && !isLegalStreamResult(resultType)) {
+          throw new GenException(elem, "type " + resultType + " is not legal for use for a stream result in proxy");
+        }
+      }
       return;
     }
     throw new GenException(elem, "Proxy methods must return Future<T>");
   }
 
+  /**
+   * @return {@code true} when the type is {@link Buffer}
+   */
+  public static boolean isBuffer(TypeInfo type) {
+    return type.getName().equals(Buffer.class.getName());
+  }
+
+  /**
+   * @return {@code true} when a method of the interface has a {@link Buffer} parameter or result
+   */
+  public boolean usesBuffers() {
+    return getMethods().stream()
+      .filter(m -> !m.isStaticMethod())
+      .anyMatch(m -> m.getParams().stream().anyMatch(p -> isBuffer(p.getType())) ||
+        (m.getKind() == MethodKind.FUTURE && isBuffer(((ParameterizedTypeInfo) m.getReturnType()).getArg(0))));
+  }
+
+  /**
+   * @return {@code true} when the type is a {@link ReadStream} which items are transferred in chunks to the proxy
+   */
+  public static boolean isStreamResult(TypeInfo type) {
+    return type instanceof ParameterizedTypeInfo && type.getRaw().getName().equals(ReadStream.class.getName());
+  }
+
+  private boolean isLegalStreamResult(TypeInfo type) {
+    if (!isStreamResult(type)) {
+      return false;
+    }
+    TypeInfo item = ((ParameterizedTypeInfo) type).getArg(0);
+    return item.getKind().basic || item.getKind().json || item.getKind() == ClassKind.ENUM || isValidDataObject(item);
+  }
+
   @Override
   protected void checkMethod(MethodInfo methodInfo) {
     // We don't allow overloaded methods in proxies
@@ -102,9 +161,14 @@ public class ProxyModel extends ClassModel {
     boolean isProxyIgnore = proxyIgnoreAnnotation != null;
     AnnotationMirror proxyCloseAnnotation = Helper.resolveMethodAnnotation(ProxyClose.class, elementUtils, typeUtils, declaringElt, methodElt);
     boolean isProxyClose = proxyCloseAnnotation != null;
+    ProxyCacheable cacheable = methodElt.getAnnotation(ProxyCacheable.class);
+    if (cacheable != null) {
+      checkCacheable(methodElt, cacheable, returnType, isProxyClose);
+    }
     ProxyMethodInfo proxyMeth = new ProxyMethodInfo(ownerTypes, methodName, returnType, returnDescription,
       isFluent, isCacheReturn, mParams, comment, doc, isStatic, isDefault, typeParams, isProxyIgnore,
-      isProxyClose, methodDeprecated, methodDeprecatedDesc, methodOverride);
+      isProxyClose, methodDeprecated, methodDeprecatedDesc, methodOverride,
+      cacheable != null ? cacheable.ttl() : 0, cacheable != null ? cacheable.staleWhileRevalidate() : 0);
     if (isProxyClose) {
       if (mParams.size() > 0) {
         throw new GenException(this.modelElt, "@ProxyClose methods can't have parameters");
@@ -120,10 +184,26 @@ public class ProxyModel extends ClassModel {
     return proxyMeth;
   }
 
+  private void checkCacheable(ExecutableElement methodElt, ProxyCacheable cacheable, TypeInfo returnType, boolean isProxyClose) {
+    if (cacheable.ttl() < 1) {
+      throw new GenException(methodElt, "@ProxyCacheable ttl must be > 0");
+    }
+    if (cacheable.staleWhileRevalidate() < 0) {
+      throw new GenException(methodElt, "@ProxyCacheable staleWhileRevalidate must be >= 0");
+    }
+    // only a value can be cached, not a stream nor a proxy
+    TypeInfo resultType = returnType instanceof ParameterizedTypeInfo && returnType.getKind() == ClassKind.FUTURE ?
+      ((ParameterizedTypeInfo) returnType).getArg(0) : null;
+    if (isProxyClose || resultType == null || resultType.getKind() == ClassKind.VOID || isStreamResult(resultType) ||
+      resultType.getKind() == ClassKind.API) {
+      throw new GenException(methodElt, "@ProxyCacheable methods must return a Future of a value");
+    }
+  }
+
   private boolean isLegalAsyncResultType(TypeInfo resultType) {
     if (resultType.getKind().json || resultType.getKind().basic ||
       isLegalContainerParam(resultType) || resultType.getKind() == ClassKind.VOID ||
-      resultType.getKind() == ClassKind.ENUM || resultType.isDataObjectHolder()) {
+      resultType.getKind() == ClassKind.ENUM || resultType.isDataObjectHolder() || isBuffer(resultType)) {
       return true;
     }
     if (resultType.getKind() == ClassKind.API) {
@@ -22,11 +22,17 @@ import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.internal.ContextInternal;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.auth.authentication.CredentialValidationException;
 import io.vertx.ext.auth.authentication.TokenCredentials;
+import io.vertx.serviceproxy.AuthCacheOptions;
 import io.vertx.serviceproxy.AuthenticationInterceptor;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Map;
 
 /**
@@ -34,18 +40,58 @@ import java.util.Map;
  */
 public class AuthenticationInterceptorImpl implements AuthenticationInterceptor {
 
+  private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+  });
+
   //an authentication authenticationProvider that will verify all requests before the service is invoked.
   final AuthenticationProvider authenticationProvider;
 
+  //the users of the authenticated tokens, keyed by token hash, null when caching is disabled
+  //the interceptors of a call can modify its user (e.g. adding authorizations), each call gets its own copy
+  private final ExpiringCache<String, User> cache;
+
   public AuthenticationInterceptorImpl(AuthenticationProvider authenticationProvider) {
+    this(authenticationProvider, null);
+  }
+
+  public AuthenticationInterceptorImpl(AuthenticationProvider authenticationProvider, AuthCacheOptions cacheOptions) {
     this.authenticationProvider = authenticationProvider;
+    this.cache = cacheOptions == null ? null : new ExpiringCache<>(cacheOptions.getMaxSize(), cacheOptions.getTtl());
+  }
+
+  @Override
+  public long cacheHitCount() {
+    return cache == null ? 0L : cache.hits();
+  }
+
+  @Override
+  public long cacheMissCount() {
+    return cache == null ? 0L : cache.misses();
   }
 
   @Override
   public Future<Message<JsonObject>> intercept(Vertx vertx, Map<String, Object> interceptorContext,
                                                Message<JsonObject> body) {
     final ContextInternal vertxContext = (ContextInternal) vertx.getOrCreateContext();
-    final TokenCredentials tokenCredentials = new TokenCredentials(body.headers().get("auth-token"));
+    final String token = body.headers().get("auth-token");
+    final String tokenHash = cache == null || token == null ? null : hash(token);
+    if (tokenHash != null) {
+      User user = cache.get(tokenHash);
+      if (user != null) {
+        if (!user.expired()) {
+          interceptorContext.put("user", copy(user));
+          return vertxContext.succeededFuture(body);
+        }
+        cache.remove(tokenHash);
+      }
+    }
+    final TokenCredentials tokenCredentials = new TokenCredentials(token);
     try {
       tokenCredentials.checkValid(null);
       if (authenticationProvider == null) {
@@ -60,6 +106,9 @@ public class AuthenticationInterceptorImpl implements AuthenticationInterceptor
             return vertxContext.failedFuture(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, 401, "User is null"));
           }
           //authentication succeeded
+          if (tokenHash != null) {
+            cache.put(tokenHash, copy(user));
+          }
           interceptorContext.put("user", user);
           return vertxContext.succeededFuture(body);
         });
@@ -67,4 +116,12 @@ public class AuthenticationInterceptorImpl implements AuthenticationInterceptor
       return Future.failedFuture(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, 401, e.getMessage()));
     }
   }
+
+  private static String hash(String token) {
+    return Base64.getEncoder().encodeToString(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static User copy(User user) {
+    return User.create(user.principal().copy(), user.attributes().copy());
+  }
 }
@@ -26,6 +26,7 @@ import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authorization.Authorization;
 import io.vertx.ext.auth.authorization.AuthorizationContext;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
+import io.vertx.serviceproxy.AuthCacheOptions;
 import io.vertx.serviceproxy.AuthorizationInterceptor;
 
 import java.util.HashSet;
@@ -40,8 +41,16 @@ public class AuthorizationInterceptorImpl implements AuthorizationInterceptor {
 
   private Set<Authorization> authorizations;
 
+  //the decisions of the users, keyed by principal, null when caching is disabled
+  private final ExpiringCache<JsonObject, Boolean> cache;
+
   public AuthorizationInterceptorImpl(AuthorizationProvider authorizationProvider) {
+    this(authorizationProvider, null);
+  }
+
+  public AuthorizationInterceptorImpl(AuthorizationProvider authorizationProvider, AuthCacheOptions cacheOptions) {
     this.authorizationProvider = authorizationProvider;
+    this.cache = cacheOptions == null ? null : new ExpiringCache<>(cacheOptions.getMaxSize(), cacheOptions.getTtl());
   }
 
   /**
@@ -54,7 +63,7 @@ public class AuthorizationInterceptorImpl implements AuthorizationInterceptor {
   @Override
   public AuthorizationInterceptorImpl setAuthorizations(Set<Authorization> authorizations) {
     this.authorizations = authorizations;
-    return this;
+    return invalidateAll();
   }
 
   /**
@@ -69,6 +78,22 @@ public class AuthorizationInterceptorImpl implements AuthorizationInterceptor {
       authorizations = new HashSet<>();
     }
     authorizations.add(authorization);
+    return invalidateAll();
+  }
+
+  @Override
+  public AuthorizationInterceptorImpl invalidate(User user) {
+    if (cache != null) {
+      cache.remove(user.principal());
+    }
+    return this;
+  }
+
+  @Override
+  public AuthorizationInterceptorImpl invalidateAll() {
+    if (cache != null) {
+      cache.clear();
+    }
     return this;
   }
 
@@ -84,6 +109,13 @@ public class AuthorizationInterceptorImpl implements AuthorizationInterceptor {
       return vertxContext.succeededFuture(body);
     }
     User user = (User) interceptorContext.get("user");
+    final JsonObject principal = cache == null ? null : user.principal();
+    if (principal != null) {
+      Boolean granted = cache.get(principal);
+      if (granted != null) {
+        return granted ? vertxContext.succeededFuture(body) : forbidden(vertxContext);
+      }
+    }
     return authorizationProvider.getAuthorizations(user)
       .recover(err -> vertxContext.failedFuture(
         new ReplyException(ReplyFailure.RECIPIENT_FAILURE, 500, err.getMessage())))
@@ -92,11 +124,21 @@ public class AuthorizationInterceptorImpl implements AuthorizationInterceptor {
         for (Authorization authorization : authorizations) {
           // authorization failed
           if (!authorization.match(userAuthorizationContext)) {
-            return vertxContext.failedFuture(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, 403, "Forbidden"));
+            if (principal != null) {
+              cache.put(principal.copy(), Boolean.FALSE);
+            }
+            return forbidden(vertxContext);
           }
         }
         // all authorities have passed
+        if (principal != null) {
+          cache.put(principal.copy(), Boolean.TRUE);
+        }
         return vertxContext.succeededFuture(body);
       });
   }
+
+  private static <T> Future<T> forbidden(ContextInternal vertxContext) {
+    return vertxContext.failedFuture(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, 403, "Forbidden"));
+  }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The envelope of a batch of calls to a service, sent with the {@link #ACTION} action.
+ * <p>
+ * The envelope is <code>{"calls":[{"headers":{...},"body":{...}}, ...]}</code> and its reply is
+ * <code>{"replies":[...]}</code> with one entry per call, in the same order. A reply entry carries the reply
+ * body, the reply headers and a type tag when JSON cannot preserve the type of the body, or the failure code,
+ * message and debug info of a failed call.
+ */
+public class BatchEnvelope {
+
+  public static final String ACTION = "__batch";
+
+  private static final String CALLS = "calls";
+  private static final String REPLIES = "replies";
+  private static final String HEADERS = "headers";
+  private static final String BODY = "body";
+  private static final String TYPE = "type";
+  private static final String FAILURE = "failure";
+  private static final String MESSAGE = "message";
+  private static final String DEBUG_INFO = "debugInfo";
+  private static final String SERVICE = "service";
+
+  /**
+   * Create the envelope of a batch of calls.
+   *
+   * @param bodies  the call envelopes
+   * @param options the delivery options of each call
+   * @return the batch envelope
+   */
+  public static JsonObject encodeCalls(List<JsonObject> bodies, List<DeliveryOptions> options) {
+    JsonArray calls = new JsonArray(new ArrayList<>(bodies.size()));
+    for (int i = 0; i < bodies.size(); i++) {
+      calls.add(new JsonObject()
+        .put(HEADERS, encodeHeaders(options.get(i).getHeaders()))
+        .put(BODY, bodies.get(i)));
+    }
+    return new JsonObject().put(CALLS, calls);
+  }
+
+  /**
+   * Dispatch each call of a batch envelope to {@code handler}, the envelope is replied once every call is.
+   *
+   * @param msg     the batch envelope
+   * @param handler the handler of the calls
+   */
+  public static void dispatch(Message<JsonObject> msg, Handler<Message<JsonObject>> handler) {
+    JsonArray calls = msg.body().getJsonArray(CALLS);
+    int size = calls.size();
+    AtomicReferenceArray<JsonObject> replies = new AtomicReferenceArray<>(size);
+    AtomicInteger remaining = new AtomicInteger(size);
+    for (int i = 0; i < size; i++) {
+      JsonObject call = calls.getJsonObject(i);
+      int index = i;
+      LocalMessage<JsonObject> entry = new LocalMessage<>(msg.address(), decodeHeaders(call.getJsonObject(HEADERS)),
+        call.getJsonObject(BODY), msg.replyAddress(), (body, options) -> {
+        if (replies.compareAndSet(index, null, encodeReply(body, options)) && remaining.decrementAndGet() == 0) {
+          JsonObject[] array = new JsonObject[size];
+          for (int j = 0; j < size; j++) {
+            array[j] = replies.get(j);
+          }
+          msg.reply(new JsonObject().put(REPLIES, new JsonArray(new ArrayList<>(Arrays.asList(array)))));
+        }
+      });
+      try {
+        handler.handle(entry);
+      } catch (Throwable t) {
+        // a failed call must not prevent the other calls of the batch from being dispatched
+        if (replies.get(index) == null) {
+          entry.reply(new ServiceException(500, t.getMessage()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Complete the promise of a call with its entry in the reply of a batch envelope.
+   *
+   * @param address the service address
+   * @param replies the reply of the batch envelope
+   * @param index   the index of the call
+   * @param promise the promise of the call
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> void complete(String address, JsonObject replies, int index, Promise<Message<T>> promise) {
+    JsonObject reply = replies.getJsonArray(REPLIES).getJsonObject(index);
+    if (reply.containsKey(FAILURE)) {
+      int code = reply.getInteger(FAILURE);
+      String message = reply.getString(MESSAGE);
+      if (reply.getBoolean(SERVICE, false)) {
+        promise.tryFail(new ServiceException(code, message, reply.getJsonObject(DEBUG_INFO, new JsonObject())));
+      } else {
+        promise.tryFail(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, code, message));
+      }
+    } else {
+      promise.tryComplete(new LocalMessage<>(address, decodeHeaders(reply.getJsonObject(HEADERS)), (T) decodeBody(reply), null));
+    }
+  }
+
+  private static JsonObject encodeReply(Object body, DeliveryOptions options) {
+    JsonObject reply = new JsonObject();
+    if (body instanceof ReplyException) {
+      ReplyException failure = (ReplyException) body;
+      reply.put(FAILURE, failure.failureCode()).put(MESSAGE, failure.getMessage());
+      if (failure instanceof ServiceException) {
+        reply.put(SERVICE, true).put(DEBUG_INFO, ((ServiceException) failure).getDebugInfo());
+      }
+      return reply;
+    }
+    if (options != null && options.getHeaders() != null && !options.getHeaders().isEmpty()) {
+      reply.put(HEADERS, encodeHeaders(options.getHeaders()));
+    }
+    if (body instanceof Byte) {
+      reply.put(TYPE, "byte");
+    } else if (body instanceof Short) {
+      reply.put(TYPE, "short");
+    } else if (body instanceof Long) {
+      reply.put(TYPE, "long");
+    } else if (body instanceof Float) {
+      reply.put(TYPE, "float");
+    } else if (body instanceof Character) {
+      reply.put(TYPE, "char");
+      body = (int) (Character) body;
+    } else if (body instanceof Buffer) {
+      reply.put(TYPE, "buffer");
+    } else if (body instanceof byte[]) {
+      reply.put(TYPE, "bytes");
+    }
+    return reply.put(BODY, body);
+  }
+
+  private static Object decodeBody(JsonObject reply) {
+    String type = reply.getString(TYPE);
+    if (type == null) {
+      return reply.getValue(BODY);
+    }
+    switch (type) {
+      case "byte":
+        return reply.getNumber(BODY).byteValue();
+      case "short":
+        return reply.getNumber(BODY).shortValue();
+      case "long":
+        return reply.getNumber(BODY).longValue();
+      case "float":
+        return reply.getNumber(BODY).floatValue();
+      case "char":
+        return (char) reply.getNumber(BODY).intValue();
+      case "buffer":
+        return reply.getBuffer(BODY);
+      case "bytes":
+        return reply.getBinary(BODY);
+      default:
+        throw new IllegalStateException("Invalid reply type: " + type);
+    }
+  }
+
+  private static JsonObject encodeHeaders(MultiMap headers) {
+    JsonObject json = new JsonObject();
+    if (headers != null) {
+      for (String name : headers.names()) {
+        List<String> values = headers.getAll(name);
+        json.put(name, values.size() == 1 ? values.get(0) : new JsonArray(new ArrayList<>(values)));
+      }
+    }
+    return json;
+  }
+
+  private static MultiMap decodeHeaders(JsonObject json) {
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+    if (json != null) {
+      json.forEach(header -> {
+        if (header.getValue() instanceof JsonArray) {
+          ((JsonArray) header.getValue()).forEach(value -> headers.add(header.getKey(), (String) value));
+        } else {
+          headers.add(header.getKey(), (String) header.getValue());
+        }
+      });
+    }
+    return headers;
+  }
+}
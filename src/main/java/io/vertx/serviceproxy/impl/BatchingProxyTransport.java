@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ProxyTransport;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A transport coalescing the requests sent to an address during a window into a single {@link BatchEnvelope}.
+ * <p>
+ * A window of {@code 0} coalesces the requests made during the same event loop tick. Requests without reply are
+ * not batched. The batch is sent with the largest send timeout of its calls, the calls with a shorter send timeout
+ * time out on their own, without failing the other calls of the batch.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class BatchingProxyTransport implements ProxyTransport {
+
+  private final Vertx vertx;
+  private final ProxyTransport transport;
+  private final long window;
+  private final int maxBatchSize;
+  private final Map<String, Batch> batches = new HashMap<>();
+
+  public BatchingProxyTransport(Vertx vertx, ProxyTransport transport, long window, int maxBatchSize) {
+    this.vertx = vertx;
+    this.transport = transport;
+    this.window = window;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    if (!(body instanceof JsonObject)) {
+      return transport.request(address, body, options);
+    }
+    Promise<Message<T>> promise = Promise.promise();
+    Batch full = null;
+    boolean schedule = false;
+    synchronized (this) {
+      Batch batch = batches.get(address);
+      if (batch == null) {
+        batch = new Batch();
+        batches.put(address, batch);
+        schedule = true;
+      }
+      batch.add((JsonObject) body, options, (Promise) promise);
+      if (batch.bodies.size() >= maxBatchSize) {
+        batches.remove(address);
+        full = batch;
+      }
+    }
+    if (full != null) {
+      flush(address, full);
+    } else if (schedule) {
+      if (window > 0) {
+        vertx.setTimer(window, id -> flush(address));
+      } else {
+        vertx.getOrCreateContext().runOnContext(v -> flush(address));
+      }
+    }
+    return promise.future();
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    transport.send(address, body, options);
+  }
+
+  private void flush(String address) {
+    Batch batch;
+    synchronized (this) {
+      batch = batches.remove(address);
+    }
+    if (batch != null) {
+      flush(address, batch);
+    }
+  }
+
+  private void flush(String address, Batch batch) {
+    if (batch.bodies.size() == 1) {
+      Promise<Message<Object>> promise = batch.promises.get(0);
+      transport.request(address, batch.bodies.get(0), batch.options.get(0)).onComplete(ar -> {
+        if (ar.succeeded()) {
+          promise.complete(ar.result());
+        } else {
+          promise.fail(ar.cause());
+        }
+      });
+      return;
+    }
+    DeliveryOptions options = new DeliveryOptions(batch.options.get(0));
+    long timeout = 0;
+    for (DeliveryOptions callOptions : batch.options) {
+      timeout = Math.max(timeout, callOptions.getSendTimeout());
+    }
+    options.setHeaders(null);
+    options.setCodecName(null);
+    options.setSendTimeout(timeout);
+    options.addHeader("action", BatchEnvelope.ACTION);
+    for (int i = 0; i < batch.promises.size(); i++) {
+      long callTimeout = batch.options.get(i).getSendTimeout();
+      if (callTimeout > 0 && callTimeout < timeout) {
+        timeout(address, callTimeout, batch.promises.get(i));
+      }
+    }
+    transport.<JsonObject>request(address, BatchEnvelope.encodeCalls(batch.bodies, batch.options), options).onComplete(ar -> {
+      for (int i = 0; i < batch.promises.size(); i++) {
+        if (ar.succeeded()) {
+          BatchEnvelope.complete(address, ar.result().body(), i, batch.promises.get(i));
+        } else {
+          batch.promises.get(i).tryFail(ar.cause());
+        }
+      }
+    });
+  }
+
+  private void timeout(String address, long timeout, Promise<Message<Object>> promise) {
+    long timerId = vertx.setTimer(timeout, id -> promise.tryFail(new ReplyException(ReplyFailure.TIMEOUT,
+      "Timed out after waiting " + timeout + "(ms) for a reply. address: " + address)));
+    promise.future().onComplete(ar -> vertx.cancelTimer(timerId));
+  }
+
+  private static class Batch {
+
+    final List<JsonObject> bodies = new ArrayList<>();
+    final List<DeliveryOptions> options = new ArrayList<>();
+    final List<Promise<Message<Object>>> promises = new ArrayList<>();
+
+    void add(JsonObject body, DeliveryOptions callOptions, Promise<Message<Object>> promise) {
+      bodies.add(body);
+      options.add(callOptions);
+      promises.add(promise);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The codec of the call envelopes carrying {@link Buffer} arguments.
+ * <p>
+ * On the wire the buffers are written as raw bytes after the JSON text of the other arguments, instead of being
+ * encoded in base64 within the JSON text. Within a Vert.x instance the buffers are handed to the service as they are,
+ * the other arguments are copied like the default {@link JsonObject} codec does.
+ */
+public class BufferEnvelopeCodec implements MessageCodec<JsonObject, JsonObject> {
+
+  public static final String NAME = "serviceproxy.buffers";
+
+  /**
+   * Copy a call envelope like {@link JsonObject#copy()} does, except for its {@link Buffer} arguments which are not
+   * copied.
+   *
+   * @param body the call envelope
+   * @return the copy
+   */
+  @SuppressWarnings("unchecked")
+  public static JsonObject copySharingBuffers(JsonObject body) {
+    Map<String, Object> map = body.getMap();
+    Map<String, Object> copy = new LinkedHashMap<>(map.size() < 12 ? 16 : map.size() * 2);
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof JsonObject) {
+        value = ((JsonObject) value).copy();
+      } else if (value instanceof JsonArray) {
+        value = ((JsonArray) value).copy();
+      } else if (value instanceof Map) {
+        value = new JsonObject((Map<String, Object>) value).copy();
+      } else if (value instanceof List) {
+        value = new JsonArray((List<Object>) value).copy();
+      } else if (value instanceof byte[]) {
+        value = ((byte[]) value).clone();
+      }
+      copy.put(entry.getKey(), value);
+    }
+    return new JsonObject(copy);
+  }
+
+  @Override
+  public void encodeToWire(Buffer buffer, JsonObject body) {
+    JsonObject json = new JsonObject();
+    List<Map.Entry<String, Object>> buffers = new ArrayList<>();
+    for (Map.Entry<String, Object> entry : body) {
+      if (entry.getValue() instanceof Buffer) {
+        buffers.add(entry);
+      } else {
+        json.put(entry.getKey(), entry.getValue());
+      }
+    }
+    Buffer encoded = json.toBuffer();
+    buffer.appendInt(encoded.length());
+    buffer.appendBuffer(encoded);
+    buffer.appendInt(buffers.size());
+    for (Map.Entry<String, Object> entry : buffers) {
+      byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      Buffer value = (Buffer) entry.getValue();
+      buffer.appendInt(name.length);
+      buffer.appendBytes(name);
+      buffer.appendInt(value.length());
+      buffer.appendBuffer(value);
+    }
+  }
+
+  @Override
+  public JsonObject decodeFromWire(int pos, Buffer buffer) {
+    int length = buffer.getInt(pos);
+    pos += 4;
+    JsonObject body = new JsonObject(buffer.getBuffer(pos, pos + length));
+    pos += length;
+    int size = buffer.getInt(pos);
+    pos += 4;
+    for (int i = 0; i < size; i++) {
+      int nameLength = buffer.getInt(pos);
+      pos += 4;
+      String name = buffer.getString(pos, pos + nameLength, StandardCharsets.UTF_8.name());
+      pos += nameLength;
+      int valueLength = buffer.getInt(pos);
+      pos += 4;
+      body.put(name, buffer.getBuffer(pos, pos + valueLength));
+      pos += valueLength;
+    }
+    return body;
+  }
+
+  @Override
+  public JsonObject transform(JsonObject body) {
+    return copySharingBuffers(body);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
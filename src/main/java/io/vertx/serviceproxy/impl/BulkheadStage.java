@@ -0,0 +1,210 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.BulkheadOptions;
+import io.vertx.serviceproxy.ServiceDeadline;
+import io.vertx.serviceproxy.ServiceException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Limit the calls a service handles concurrently, see {@link BulkheadOptions} and
+ * {@link io.vertx.serviceproxy.AdaptiveLimitOptions}.
+ * <p>
+ * A waiting call is dispatched on the context it was received on, as soon as a call in flight of the service, and of
+ * its action when the action is limited, ends. A call ends when it is replied, or when its caller stops waiting for
+ * the reply: at its {@link ServiceDeadline#HEADER deadline} or, without deadline, after the default send timeout.
+ * A service that never replies does not hold its permits forever.
+ */
+public class BulkheadStage {
+
+  private final Vertx vertx;
+  private final int maxConcurrentCalls;
+  private final int maxQueueSize;
+  private final Map<String, Integer> actionLimits;
+  private final Map<String, int[]> actionInFlight = new HashMap<>();
+  private final ArrayDeque<Waiting> queue = new ArrayDeque<>();
+  private final VegasLimit adaptiveLimit;
+  private int inFlight;
+
+  /**
+   * @param vertx         the vertx instance
+   * @param options       the bulkhead options, {@code null} for no static limit
+   * @param adaptiveLimit the adaptive limit, {@code null} for no adaptive limit
+   */
+  public BulkheadStage(Vertx vertx, BulkheadOptions options, VegasLimit adaptiveLimit) {
+    this.vertx = vertx;
+    this.maxConcurrentCalls = options != null ? options.getMaxConcurrentCalls() : Integer.MAX_VALUE;
+    this.maxQueueSize = options != null ? options.getMaxQueueSize() : 0;
+    this.actionLimits = options != null ? Map.copyOf(options.getActionMaxConcurrentCalls()) : Map.of();
+    this.adaptiveLimit = adaptiveLimit;
+  }
+
+  public Handler<Message<JsonObject>> handler(Handler<Message<JsonObject>> next) {
+    return msg -> {
+      String action = msg.headers().get("action");
+      boolean rejected;
+      synchronized (this) {
+        if (tryAcquire(action)) {
+          rejected = false;
+        } else if (queue.size() < maxQueueSize) {
+          queue.add(new Waiting(msg, action, Vertx.currentContext(), next));
+          return;
+        } else {
+          rejected = true;
+        }
+      }
+      if (!rejected) {
+        dispatch(msg, action, next);
+      } else if (msg.replyAddress() != null) {
+        msg.reply(new ServiceException(BulkheadOptions.REJECTED, "Too many concurrent calls"));
+      }
+    };
+  }
+
+  /**
+   * @return the number of calls in flight
+   */
+  public synchronized int inFlight() {
+    return inFlight;
+  }
+
+  private int limit() {
+    return adaptiveLimit != null ? Math.min(maxConcurrentCalls, adaptiveLimit.limit()) : maxConcurrentCalls;
+  }
+
+  private boolean tryAcquire(String action) {
+    if (inFlight >= limit()) {
+      return false;
+    }
+    Integer limit = action != null ? actionLimits.get(action) : null;
+    if (limit != null) {
+      int[] count = actionInFlight.computeIfAbsent(action, a -> new int[1]);
+      if (count[0] >= limit) {
+        return false;
+      }
+      count[0]++;
+    }
+    inFlight++;
+    return true;
+  }
+
+  private void dispatch(Message<JsonObject> msg, String action, Handler<Message<JsonObject>> next) {
+    AtomicBoolean released = new AtomicBoolean();
+    Runnable release = () -> {
+      if (released.compareAndSet(false, true)) {
+        release(action);
+      }
+    };
+    if (msg.replyAddress() == null) {
+      try {
+        next.handle(msg);
+      } finally {
+        release.run();
+      }
+      return;
+    }
+    long timerID = vertx.setTimer(permitTimeout(msg), id -> release.run());
+    Runnable replied = () -> {
+      vertx.cancelTimer(timerID);
+      release.run();
+    };
+    if (adaptiveLimit == null) {
+      dispatch(msg, next, (reply, options) -> replied.run(), replied);
+      return;
+    }
+    long start = System.nanoTime();
+    int load = inFlight();
+    dispatch(msg, next, (reply, options) -> {
+      boolean failed = reply instanceof ReplyException && ((ReplyException) reply).failureCode() >= 500;
+      adaptiveLimit.sample(System.nanoTime() - start, load, failed);
+      replied.run();
+    }, replied);
+  }
+
+  private static long permitTimeout(Message<JsonObject> msg) {
+    long deadline = Deadlines.parse(msg.headers().get(ServiceDeadline.HEADER));
+    if (deadline < 0) {
+      return DeliveryOptions.DEFAULT_TIMEOUT;
+    }
+    return Math.max(1, deadline - System.currentTimeMillis());
+  }
+
+  private void dispatch(Message<JsonObject> msg, Handler<Message<JsonObject>> next, BiConsumer<Object, DeliveryOptions> observer,
+                        Runnable release) {
+    try {
+      next.handle(new ObservedMessage<>(msg, observer));
+    } catch (Throwable t) {
+      release.run();
+      throw t;
+    }
+  }
+
+  private void release(String action) {
+    List<Waiting> ready = new ArrayList<>();
+    synchronized (this) {
+      inFlight--;
+      int[] count = action != null ? actionInFlight.get(action) : null;
+      if (count != null) {
+        count[0]--;
+      }
+      for (Iterator<Waiting> it = queue.iterator(); it.hasNext() && inFlight < limit(); ) {
+        Waiting waiting = it.next();
+        if (tryAcquire(waiting.action)) {
+          it.remove();
+          ready.add(waiting);
+        }
+      }
+    }
+    for (Waiting waiting : ready) {
+      if (waiting.context != null) {
+        waiting.context.runOnContext(v -> dispatch(waiting.msg, waiting.action, waiting.next));
+      } else {
+        dispatch(waiting.msg, waiting.action, waiting.next);
+      }
+    }
+  }
+
+  private static class Waiting {
+
+    final Message<JsonObject> msg;
+    final String action;
+    final Context context;
+    final Handler<Message<JsonObject>> next;
+
+    Waiting(Message<JsonObject> msg, String action, Context context, Handler<Message<JsonObject>> next) {
+      this.msg = msg;
+      this.action = action;
+      this.context = context;
+      this.next = next;
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.serviceproxy.CircuitBreakerOptions;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A transport failing fast the requests of the actions which circuit is open, see {@link CircuitBreakerOptions}.
+ * <p>
+ * Requests without reply go through, whatever the state of their circuit.
+ */
+public class CircuitBreakerProxyTransport implements ProxyTransport {
+
+  private final ProxyTransport transport;
+  private final CircuitBreakerOptions options;
+  private final ServiceProxyMetrics metrics;
+  private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+  public CircuitBreakerProxyTransport(ProxyTransport transport, CircuitBreakerOptions options, ServiceProxyMetrics metrics) {
+    this.transport = transport;
+    this.options = new CircuitBreakerOptions(options);
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return whether a failure denotes a degraded service rather than the business of the service
+   */
+  static boolean isFailure(Throwable cause) {
+    if (cause instanceof ReplyException) {
+      ReplyException failure = (ReplyException) cause;
+      switch (failure.failureType()) {
+        case TIMEOUT:
+        case NO_HANDLERS:
+          return true;
+        default:
+          return failure.failureCode() >= 500;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    String action = options.getHeaders().get("action");
+    Circuit circuit = circuits.computeIfAbsent(action != null ? action : "", a -> new Circuit(address, action));
+    long permit = circuit.acquire(System.nanoTime());
+    if (permit < 0) {
+      return Future.failedFuture(new ServiceException(CircuitBreakerOptions.CIRCUIT_OPEN, "Circuit open for action " + action));
+    }
+    long start = System.nanoTime();
+    return transport.<T>request(address, body, options).andThen(ar -> {
+      long now = System.nanoTime();
+      boolean slow = now - start >= slowCallNanos();
+      circuit.record(permit, ar.failed() && isFailure(ar.cause()), slow, now);
+    });
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    transport.send(address, body, options);
+  }
+
+  private long slowCallNanos() {
+    return MILLISECONDS.toNanos(options.getSlowCallDuration());
+  }
+
+  private enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  /**
+   * The circuit of an action, a permit is the generation of the circuit when a call starts: the outcome of a call
+   * started before the circuit changed its state is ignored.
+   */
+  private class Circuit {
+
+    private final String address;
+    private final String action;
+    private final boolean[] failed = new boolean[options.getWindowSize()];
+    private final boolean[] slow = new boolean[options.getWindowSize()];
+    private State state = State.CLOSED;
+    private long generation;
+    private int count;
+    private int index;
+    private int failures;
+    private int slowCalls;
+    private long openUntil;
+    private int probes;
+    private int probeSuccesses;
+
+    Circuit(String address, String action) {
+      this.address = address;
+      this.action = action;
+    }
+
+    synchronized long acquire(long now) {
+      switch (state) {
+        case CLOSED:
+          return generation;
+        case OPEN:
+          if (now - openUntil < 0) {
+            return -1;
+          }
+          transition(State.HALF_OPEN, now);
+          // fall through
+        default:
+          if (probes < options.getHalfOpenCalls()) {
+            probes++;
+            return generation;
+          }
+          return -1;
+      }
+    }
+
+    synchronized void record(long permit, boolean failure, boolean slowCall, long now) {
+      if (permit != generation) {
+        return;
+      }
+      if (state == State.HALF_OPEN) {
+        if (failure || slowCall) {
+          transition(State.OPEN, now);
+        } else if (++probeSuccesses == options.getHalfOpenCalls()) {
+          transition(State.CLOSED, now);
+        }
+      } else if (state == State.CLOSED) {
+        if (count == failed.length) {
+          failures -= failed[index] ? 1 : 0;
+          slowCalls -= slow[index] ? 1 : 0;
+        } else {
+          count++;
+        }
+        failed[index] = failure;
+        slow[index] = slowCall;
+        failures += failure ? 1 : 0;
+        slowCalls += slowCall ? 1 : 0;
+        index = (index + 1) % failed.length;
+        if (count >= Math.min(options.getMinimumCalls(), failed.length)
+          && (failures >= options.getFailureRateThreshold() * count || slowCalls >= options.getSlowCallRateThreshold() * count)) {
+          transition(State.OPEN, now);
+        }
+      }
+    }
+
+    private void transition(State to, long now) {
+      State from = state;
+      state = to;
+      generation++;
+      probes = 0;
+      probeSuccesses = 0;
+      if (to == State.OPEN) {
+        openUntil = now + MILLISECONDS.toNanos(options.getOpenDuration());
+      } else if (to == State.CLOSED) {
+        count = 0;
+        index = 0;
+        failures = 0;
+        slowCalls = 0;
+      }
+      if (metrics != null) {
+        if (to == State.OPEN && from != State.OPEN) {
+          metrics.circuitOpened(address, action);
+        } else if (to == State.CLOSED) {
+          metrics.circuitClosed(address, action);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceExceptionMessageCodec;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The codecs registered by the proxies and the handlers on the event bus of a Vert.x instance.
+ * <p>
+ * Each codec is registered once per Vert.x instance, the following registrations only check a flag. A codec already
+ * registered by the application is kept.
+ */
+public class CodecRegistry implements Shareable {
+
+  private static final String MAP_NAME = "__vertx.serviceproxy.codecs";
+
+  /**
+   * @return the registry of the Vert.x instance
+   */
+  public static CodecRegistry get(Vertx vertx) {
+    LocalMap<String, CodecRegistry> map = vertx.sharedData().getLocalMap(MAP_NAME);
+    return map.computeIfAbsent(MAP_NAME, k -> new CodecRegistry());
+  }
+
+  private final Set<String> codecs = ConcurrentHashMap.newKeySet();
+  private volatile boolean serviceExceptionCodec;
+
+  private CodecRegistry() {
+  }
+
+  /**
+   * Register the {@link ServiceExceptionMessageCodec} as the default codec of {@link ServiceException}.
+   */
+  public void registerServiceExceptionCodec(Vertx vertx) {
+    if (!serviceExceptionCodec) {
+      synchronized (this) {
+        if (!serviceExceptionCodec) {
+          try {
+            vertx.eventBus().registerDefaultCodec(ServiceException.class, new ServiceExceptionMessageCodec());
+          } catch (IllegalStateException ignore) {
+            // already registered
+          }
+          serviceExceptionCodec = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Register a named codec.
+   *
+   * @param name the codec name
+   * @param codec the codec, only created when it is not yet registered
+   */
+  public void registerCodec(Vertx vertx, String name, Supplier<? extends MessageCodec<?, ?>> codec) {
+    if (!codecs.contains(name)) {
+      synchronized (this) {
+        if (!codecs.contains(name)) {
+          try {
+            vertx.eventBus().registerCodec(codec.get());
+          } catch (IllegalStateException ignore) {
+            // already registered
+          }
+          codecs.add(name);
+        }
+      }
+    }
+  }
+}
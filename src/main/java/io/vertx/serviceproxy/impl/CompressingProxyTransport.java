@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.ServiceException;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * A transport compressing the large call envelopes of a proxy and decompressing the compressed replies.
+ */
+public class CompressingProxyTransport implements ProxyTransport {
+
+  private final ProxyTransport transport;
+  private final PayloadCompressor compressor;
+
+  public CompressingProxyTransport(ProxyTransport transport, PayloadCompressor compressor) {
+    this.transport = transport;
+    this.compressor = compressor;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    String action = options.getHeaders().get("action");
+    options.addHeader(PayloadCompressor.ACCEPT_COMPRESSED, "true");
+    Object payload = compressor.compress(address, action, body, options);
+    return transport.<T>request(address, payload, options).compose(reply -> decompress(address, action, reply));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Future<Message<T>> decompress(String address, String action, Message<T> reply) {
+    Object body;
+    try {
+      body = compressor.decompress(address, action, reply.headers(), reply.body());
+    } catch (DataFormatException e) {
+      return Future.failedFuture(new ServiceException(400, "Invalid compressed reply: " + e.getMessage()));
+    }
+    if (body == reply.body()) {
+      return Future.succeededFuture(reply);
+    }
+    Message<T> decompressed = new LocalMessage<>(reply.address(), reply.headers(), (T) body, null);
+    return Future.succeededFuture(decompressed);
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    String action = options.getHeaders().get("action");
+    transport.send(address, compressor.compress(address, action, body, options), options);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceException;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * Decompress the compressed calls received by a service and compress the large replies of the calls which caller
+ * accepts compressed replies.
+ */
+public class CompressionStage {
+
+  private final PayloadCompressor compressor;
+  private final String address;
+
+  public CompressionStage(PayloadCompressor compressor, String address) {
+    this.compressor = compressor;
+    this.address = address;
+  }
+
+  public Handler<Message<JsonObject>> handler(Handler<Message<JsonObject>> next) {
+    return msg -> {
+      boolean compressed = msg.headers().contains(PayloadCompressor.COMPRESSED);
+      boolean acceptCompressed = msg.headers().contains(PayloadCompressor.ACCEPT_COMPRESSED);
+      if (!compressed && !acceptCompressed) {
+        next.handle(msg);
+        return;
+      }
+      String action = msg.headers().get("action");
+      Object body = ((Message<?>) msg).body();
+      JsonObject json;
+      try {
+        json = (JsonObject) compressor.decompress(address, action, msg.headers(), body);
+      } catch (DataFormatException | ClassCastException e) {
+        msg.reply(new ServiceException(400, "Invalid compressed call: " + e.getMessage()));
+        return;
+      }
+      if (!acceptCompressed) {
+        next.handle(new LocalMessage<>(msg.address(), msg.headers(), json, msg.replyAddress(), msg::reply));
+        return;
+      }
+      next.handle(new LocalMessage<>(msg.address(), msg.headers(), json, msg.replyAddress(), (reply, options) -> {
+        DeliveryOptions replyOptions = options != null ? new DeliveryOptions(options) : new DeliveryOptions();
+        msg.reply(compressor.compress(address, action, reply, replyOptions), replyOptions);
+      }));
+    };
+  }
+}
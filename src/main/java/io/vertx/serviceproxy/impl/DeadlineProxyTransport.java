@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.ServiceDeadline;
+import io.vertx.serviceproxy.ServiceException;
+
+/**
+ * A transport stamping the requests with their {@link ServiceDeadline#HEADER deadline}: the send timeout of the
+ * request, shortened to the deadline of the call being served on the current context when it is earlier.
+ * <p>
+ * A request made after the deadline of the call being served fails immediately, requests without reply carry the
+ * deadline of the call being served only.
+ */
+public class DeadlineProxyTransport implements ProxyTransport {
+
+  private final ProxyTransport transport;
+
+  public DeadlineProxyTransport(ProxyTransport transport) {
+    this.transport = transport;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    long now = System.currentTimeMillis();
+    long deadline = now + options.getSendTimeout();
+    long inherited = Deadlines.get(Vertx.currentContext());
+    if (inherited >= 0 && inherited < deadline) {
+      if (inherited <= now) {
+        return Future.failedFuture(new ServiceException(ServiceDeadline.DEADLINE_EXCEEDED, "Deadline exceeded"));
+      }
+      deadline = inherited;
+      options.setSendTimeout(inherited - now);
+    }
+    options.getHeaders().set(ServiceDeadline.HEADER, Long.toString(deadline));
+    return transport.request(address, body, options);
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    long inherited = Deadlines.get(Vertx.currentContext());
+    if (inherited >= 0) {
+      options.getHeaders().set(ServiceDeadline.HEADER, Long.toString(inherited));
+    }
+    transport.send(address, body, options);
+  }
+}
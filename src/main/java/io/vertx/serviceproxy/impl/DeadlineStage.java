@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceDeadline;
+import io.vertx.serviceproxy.ServiceException;
+
+/**
+ * Drop the calls whose {@link ServiceDeadline#HEADER deadline} is exceeded before they reach the service, they are
+ * failed with {@link ServiceDeadline#DEADLINE_EXCEEDED}.
+ * <p>
+ * The other calls are handled on a duplicate of the current context carrying their deadline, so the service and the
+ * proxies it calls see the deadline of the call they serve, even within a batch.
+ */
+public class DeadlineStage {
+
+  public static Handler<Message<JsonObject>> handler(Handler<Message<JsonObject>> next) {
+    return msg -> {
+      long deadline = Deadlines.parse(msg.headers().get(ServiceDeadline.HEADER));
+      if (deadline < 0) {
+        next.handle(msg);
+        return;
+      }
+      if (System.currentTimeMillis() >= deadline) {
+        if (msg.replyAddress() != null) {
+          msg.reply(new ServiceException(ServiceDeadline.DEADLINE_EXCEEDED, "Deadline exceeded"));
+        }
+        return;
+      }
+      ContextInternal context = (ContextInternal) Vertx.currentContext();
+      if (context == null) {
+        next.handle(msg);
+        return;
+      }
+      ContextInternal duplicate = context.duplicate();
+      Deadlines.set(duplicate, deadline);
+      duplicate.dispatch(msg, next);
+    };
+  }
+
+  private DeadlineStage() {
+  }
+}
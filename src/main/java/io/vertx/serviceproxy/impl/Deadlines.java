@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.internal.ContextInternal;
+
+/**
+ * The storage of the deadlines of the calls, a deadline is stored in the local data of the duplicated context a call
+ * is handled on.
+ */
+public class Deadlines {
+
+  private static final Object KEY = new Object();
+
+  private Deadlines() {
+  }
+
+  /**
+   * @return the deadline stored on {@code context} or {@code -1}
+   */
+  public static long get(Context context) {
+    if (context == null || !((ContextInternal) context).isDuplicate()) {
+      return -1;
+    }
+    Object deadline = ((ContextInternal) context).localContextData().get(KEY);
+    return deadline != null ? (Long) deadline : -1;
+  }
+
+  /**
+   * Store a deadline on a duplicated context.
+   */
+  public static void set(ContextInternal context, long deadline) {
+    context.localContextData().put(KEY, deadline);
+  }
+
+  /**
+   * Parse a deadline header.
+   *
+   * @return the deadline or {@code -1} when the header is missing or invalid
+   */
+  public static long parse(String header) {
+    if (header == null) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(header);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
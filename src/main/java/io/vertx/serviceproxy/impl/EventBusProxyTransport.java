@@ -0,0 +1,44 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.serviceproxy.ProxyTransport;
+
+/**
+ * The default transport, delivering call envelopes over the event bus.
+ */
+public class EventBusProxyTransport implements ProxyTransport {
+
+  private final EventBus eventBus;
+
+  public EventBusProxyTransport(EventBus eventBus) {
+    this.eventBus = eventBus;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    return eventBus.request(address, body, options);
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    eventBus.send(address, body, options);
+  }
+}
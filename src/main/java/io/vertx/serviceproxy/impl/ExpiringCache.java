@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A bounded cache evicting its least recently used entries, entries also expire after a time to live.
+ * <p>
+ * The cache counts its hits and misses.
+ */
+public class ExpiringCache<K, V> {
+
+  private final int maxSize;
+  private final long ttlNanos;
+  private final LinkedHashMap<K, Entry<V>> entries;
+  private long hits;
+  private long misses;
+
+  /**
+   * @param maxSize the maximum number of entries
+   * @param ttl     the time to live of the entries in milliseconds
+   */
+  public ExpiringCache(int maxSize, long ttl) {
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl * 1_000_000L;
+    this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        return size() > ExpiringCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * @return the value of {@code key} or {@code null} when the value is missing or has expired
+   */
+  public synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+      entries.remove(key);
+      entry = null;
+    }
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.value;
+  }
+
+  public synchronized void put(K key, V value) {
+    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+  }
+
+  /**
+   * Put {@code value} unless {@code key} has a value that has not expired, the hits and misses are not counted.
+   *
+   * @return the value of {@code key} or {@code null} when {@code value} was put
+   */
+  public synchronized V putIfAbsent(K key, V value) {
+    long now = System.nanoTime();
+    Entry<V> entry = entries.get(key);
+    if (entry != null && entry.expiresAt - now > 0) {
+      return entry.value;
+    }
+    entries.put(key, new Entry<>(value, now + ttlNanos));
+    return null;
+  }
+
+  public synchronized void remove(K key) {
+    entries.remove(key);
+  }
+
+  /**
+   * Remove the entries which key matches {@code predicate}.
+   */
+  public synchronized void removeIf(Predicate<K> predicate) {
+    for (Iterator<K> it = entries.keySet().iterator(); it.hasNext(); ) {
+      if (predicate.test(it.next())) {
+        it.remove();
+      }
+    }
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long hits() {
+    return hits;
+  }
+
+  public synchronized long misses() {
+    return misses;
+  }
+
+  private static final class Entry<V> {
+
+    final V value;
+    final long expiresAt;
+
+    Entry(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.serviceproxy.HedgingOptions;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A transport sending again the requests of the hedged actions which have not been replied after a delay, the first
+ * reply wins.
+ * <p>
+ * The delay is either fixed or a percentile of the latencies recently observed for the action. The event bus cannot
+ * withdraw a request, so the pending hedge timer is cancelled when the original request is replied and the reply of
+ * the losing request is discarded. Requests without reply are never hedged.
+ */
+public class HedgingProxyTransport implements ProxyTransport {
+
+  private final Vertx vertx;
+  private final ProxyTransport transport;
+  private final Set<String> actions;
+  private final long delay;
+  private final double percentile;
+  private final ServiceProxyMetrics metrics;
+  private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+  public HedgingProxyTransport(Vertx vertx, ProxyTransport transport, HedgingOptions options, ServiceProxyMetrics metrics) {
+    this.vertx = vertx;
+    this.transport = transport;
+    this.actions = Set.copyOf(options.getActions());
+    this.delay = options.getDelay();
+    this.percentile = options.getPercentile();
+    this.metrics = metrics;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    String action = options.getHeaders().get("action");
+    if (action == null || !actions.contains(action)) {
+      return transport.request(address, body, options);
+    }
+    LatencyWindow window = percentile > 0D ? latencies.computeIfAbsent(action, a -> new LatencyWindow(percentile)) : null;
+    long hedgeDelay = window != null ? window.delay(delay) : delay;
+    long start = System.nanoTime();
+    Promise<Message<T>> promise = Promise.promise();
+    AtomicInteger pending = new AtomicInteger(1);
+    long timerID = vertx.setTimer(hedgeDelay, id -> {
+      if (!promise.future().isComplete()) {
+        pending.incrementAndGet();
+        if (metrics != null) {
+          metrics.requestHedged(address, action);
+        }
+        transport.<T>request(address, body, new DeliveryOptions(options))
+          .onComplete(ar -> complete(promise, pending, ar, true, start, window, address, action));
+      }
+    });
+    transport.<T>request(address, body, options).onComplete(ar -> {
+      vertx.cancelTimer(timerID);
+      complete(promise, pending, ar, false, start, window, address, action);
+    });
+    return promise.future();
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    transport.send(address, body, options);
+  }
+
+  private <T> void complete(Promise<Message<T>> promise, AtomicInteger pending, AsyncResult<Message<T>> ar, boolean hedge,
+                            long start, LatencyWindow window, String address, String action) {
+    if (ar.succeeded()) {
+      if (promise.tryComplete(ar.result())) {
+        if (window != null) {
+          window.record(System.nanoTime() - start);
+        }
+        if (hedge && metrics != null) {
+          metrics.hedgeWon(address, action);
+        }
+      }
+    } else if (pending.decrementAndGet() == 0) {
+      // the call fails when neither the request nor its hedge succeeded
+      promise.tryFail(ar.cause());
+    }
+  }
+
+  /**
+   * The latencies of the last replies of an action, the percentile is refreshed every few replies.
+   */
+  private static class LatencyWindow {
+
+    private static final int SAMPLES = 128;
+    private static final int MIN_SAMPLES = 32;
+    private static final int REFRESH = 16;
+
+    private final double percentile;
+    private final long[] samples = new long[SAMPLES];
+    private int count;
+    private int index;
+    private volatile long delay = -1;
+
+    LatencyWindow(double percentile) {
+      this.percentile = percentile;
+    }
+
+    synchronized void record(long nanos) {
+      samples[index] = nanos;
+      index = (index + 1) % SAMPLES;
+      if (count < SAMPLES) {
+        count++;
+      }
+      if (count >= MIN_SAMPLES && index % REFRESH == 0) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        long latency = sorted[Math.max(0, (int) Math.ceil(percentile * count) - 1)];
+        delay = Math.max(1L, (latency + 999_999L) / 1_000_000L);
+      }
+    }
+
+    long delay(long fallback) {
+      long d = delay;
+      return d > 0 ? d : fallback;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.serviceproxy.IdempotencyOptions;
+import io.vertx.serviceproxy.ProxyTransport;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A transport stamping each call with a random {@link IdempotencyOptions#HEADER idempotency key}, the retries and
+ * hedges of the call made by the transports it decorates carry the same key.
+ */
+public class IdempotencyProxyTransport implements ProxyTransport {
+
+  private final ProxyTransport transport;
+
+  public IdempotencyProxyTransport(ProxyTransport transport) {
+    this.transport = transport;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    return transport.request(address, body, stamp(options));
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    transport.send(address, body, stamp(options));
+  }
+
+  private static DeliveryOptions stamp(DeliveryOptions options) {
+    // the keys are scoped by caller on the service side, they need to be unique, not unpredictable
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    options.getHeaders().set(IdempotencyOptions.HEADER, new UUID(random.nextLong(), random.nextLong()).toString());
+    return options;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.IdempotencyOptions;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Execute once the calls sharing an {@link IdempotencyOptions#HEADER idempotency key}, see {@link IdempotencyOptions}.
+ * <p>
+ * The duplicates of a call in flight are replied with its reply once it is replied, the duplicates of a call
+ * successfully replied are replied immediately. Duplicates of a call without reply are dropped.
+ */
+public class IdempotencyStage {
+
+  private final ExpiringCache<String, Call> calls;
+  private final String address;
+  private final ServiceProxyMetrics metrics;
+
+  public IdempotencyStage(IdempotencyOptions options, String address, ServiceProxyMetrics metrics) {
+    this.calls = new ExpiringCache<>(options.getMaxSize(), options.getTtl());
+    this.address = address;
+    this.metrics = metrics;
+  }
+
+  public Handler<Message<JsonObject>> handler(Handler<Message<JsonObject>> next) {
+    return msg -> {
+      String key = msg.headers().get(IdempotencyOptions.HEADER);
+      if (key == null) {
+        next.handle(msg);
+        return;
+      }
+      String action = msg.headers().get("action");
+      // a caller must not get the reply of the call of another caller
+      String scopedKey = action + '\n' + msg.headers().get("auth-token") + '\n' + key;
+      Call call = new Call();
+      Call existing = calls.putIfAbsent(scopedKey, call);
+      if (existing != null) {
+        if (metrics != null) {
+          metrics.callDeduplicated(address, action);
+        }
+        existing.join(msg);
+        return;
+      }
+      if (msg.replyAddress() == null) {
+        try {
+          next.handle(msg);
+        } finally {
+          call.complete(null, null);
+        }
+        return;
+      }
+      try {
+        next.handle(new ObservedMessage<>(msg, (reply, options) -> {
+          if (reply instanceof ReplyException) {
+            calls.remove(scopedKey);
+          }
+          call.complete(reply, options);
+        }));
+      } catch (Throwable t) {
+        calls.remove(scopedKey);
+        call.complete(new ServiceException(500, t.getMessage()), null);
+        throw t;
+      }
+    };
+  }
+
+  /**
+   * @return the number of remembered calls
+   */
+  public int size() {
+    return calls.size();
+  }
+
+  private static class Call {
+
+    private List<Message<JsonObject>> joined = new ArrayList<>();
+    private Object reply;
+    private DeliveryOptions options;
+
+    void join(Message<JsonObject> msg) {
+      synchronized (this) {
+        if (joined != null) {
+          joined.add(msg);
+          return;
+        }
+      }
+      reply(msg, reply, options);
+    }
+
+    void complete(Object reply, DeliveryOptions options) {
+      List<Message<JsonObject>> duplicates;
+      synchronized (this) {
+        this.reply = reply;
+        this.options = options;
+        duplicates = joined;
+        joined = null;
+      }
+      for (Message<JsonObject> duplicate : duplicates) {
+        reply(duplicate, reply, options);
+      }
+    }
+
+    private static void reply(Message<JsonObject> msg, Object reply, DeliveryOptions options) {
+      if (msg.replyAddress() == null) {
+        return;
+      }
+      if (options != null) {
+        msg.reply(reply, new DeliveryOptions(options));
+      } else {
+        msg.reply(reply);
+      }
+    }
+  }
+}
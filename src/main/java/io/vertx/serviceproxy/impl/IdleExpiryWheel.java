@@ -0,0 +1,213 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A timer wheel expiring the idle service handlers of a Vert.x instance.
+ * <p>
+ * The wheel is shared by all the handlers of the instance and driven by a single periodic timer, that only runs while
+ * entries are registered. Each tick advances a coarse clock, so marking an entry accessed is a plain write of this
+ * clock, and expires in bulk the entries of the current slot. An entry is re-slotted lazily when its slot comes up,
+ * it expires after at least its timeout and at most two ticks later.
+ */
+public class IdleExpiryWheel implements Shareable {
+
+  static final long TICK = 500;
+
+  private static final String MAP_NAME = "__vertx.serviceproxy.idle-expiry";
+  private static final int SLOTS = 64;
+  private static final int MASK = SLOTS - 1;
+
+  /**
+   * @return the wheel of the Vert.x instance
+   */
+  public static IdleExpiryWheel get(Vertx vertx) {
+    LocalMap<String, IdleExpiryWheel> map = vertx.sharedData().getLocalMap(MAP_NAME);
+    return map.computeIfAbsent(MAP_NAME, k -> new IdleExpiryWheel(vertx));
+  }
+
+  private final Vertx vertx;
+  private final ContextInternal context;
+  private final List<Entry>[] slots;
+  private volatile long now;
+  private long tick;
+  private int size;
+  private boolean running;
+  private long timerID = -1;
+
+  @SuppressWarnings("unchecked")
+  private IdleExpiryWheel(Vertx vertx) {
+    this.vertx = vertx;
+    // the timer must not be bound to the context of a deployment, it would be cancelled on undeploy
+    this.context = ((VertxInternal) vertx).createEventLoopContext();
+    this.slots = new List[SLOTS];
+    for (int i = 0; i < SLOTS; i++) {
+      slots[i] = new ArrayList<>();
+    }
+  }
+
+  /**
+   * Register an entry, the entry is marked accessed.
+   *
+   * @param timeout the idle timeout in milliseconds
+   * @param expiryHandler the handler called on the current context when the entry expires
+   * @return the entry
+   */
+  public synchronized Entry register(long timeout, Handler<Void> expiryHandler) {
+    if (size++ == 0) {
+      start();
+    }
+    Entry entry = new Entry(timeout, vertx.getOrCreateContext(), expiryHandler);
+    schedule(entry);
+    return entry;
+  }
+
+  /**
+   * @return the number of registered entries
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  private static long clock() {
+    return System.nanoTime() / 1_000_000;
+  }
+
+  private void start() {
+    running = true;
+    now = clock();
+    tick = now / TICK;
+    if (timerID == -1) {
+      context.runOnContext(v -> {
+        synchronized (IdleExpiryWheel.this) {
+          if (running && timerID == -1) {
+            timerID = vertx.setPeriodic(TICK, id -> advance());
+          }
+        }
+      });
+    }
+  }
+
+  private void stop() {
+    running = false;
+    if (timerID != -1) {
+      vertx.cancelTimer(timerID);
+      timerID = -1;
+    }
+    // only cancelled entries are left
+    for (List<Entry> slot : slots) {
+      slot.clear();
+    }
+  }
+
+  private void schedule(Entry entry) {
+    long deadline = Math.max(entry.deadline(), tick + 1);
+    slots[(int) (deadline & MASK)].add(entry);
+  }
+
+  private void advance() {
+    List<Entry> expired = new ArrayList<>();
+    synchronized (this) {
+      long clock = clock();
+      long current = clock / TICK;
+      long from = Math.max(tick + 1, current - MASK);
+      now = clock;
+      tick = current;
+      for (long t = from; t <= current; t++) {
+        int index = (int) (t & MASK);
+        List<Entry> slot = slots[index];
+        if (slot.isEmpty()) {
+          continue;
+        }
+        slots[index] = new ArrayList<>();
+        for (Entry entry : slot) {
+          if (entry.cancelled) {
+            continue;
+          }
+          if (entry.deadline() <= current) {
+            entry.cancelled = true;
+            size--;
+            expired.add(entry);
+          } else {
+            schedule(entry);
+          }
+        }
+      }
+      if (size == 0) {
+        stop();
+      }
+    }
+    for (Entry entry : expired) {
+      entry.context.runOnContext(entry.expiryHandler);
+    }
+  }
+
+  /**
+   * An entry of the wheel.
+   */
+  public class Entry {
+
+    private final long timeout;
+    private final Context context;
+    private final Handler<Void> expiryHandler;
+    private volatile long lastAccessed;
+    private boolean cancelled;
+
+    private Entry(long timeout, Context context, Handler<Void> expiryHandler) {
+      this.timeout = timeout;
+      this.context = context;
+      this.expiryHandler = expiryHandler;
+      this.lastAccessed = clock();
+    }
+
+    /**
+     * Mark the entry accessed.
+     */
+    public void touch() {
+      lastAccessed = now;
+    }
+
+    /**
+     * Cancel the entry, it will not expire.
+     */
+    public void cancel() {
+      synchronized (IdleExpiryWheel.this) {
+        if (!cancelled) {
+          cancelled = true;
+          if (--size == 0) {
+            stop();
+          }
+        }
+      }
+    }
+
+    private long deadline() {
+      // the coarse clock lags up to a tick behind, the entry is expired one tick later to never expire it early
+      return (lastAccessed + timeout + TICK) / TICK + 1;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+
+import java.util.UUID;
+
+/**
+ * Advertise an instance of a service: the instance is registered at a unique address and publishes heartbeats on the
+ * {@link ServiceInstances#instancesAddress(String) instances address} of the service.
+ * <p>
+ * The instance stops advertising itself and unregisters its unique address once the consumer of the service is
+ * unregistered, which is checked at each heartbeat.
+ */
+public class InstanceAdvertiser {
+
+  static final String INSTANCE = "instance";
+  static final String INTERVAL = "interval";
+  static final String LEAVING = "leaving";
+  static final String DISCOVER = "discover";
+
+  private final Vertx vertx;
+  private final String instancesAddress;
+  private final MessageConsumer<JsonObject> service;
+  private final DeliveryOptions options;
+  private final JsonObject heartbeat;
+  private final String instanceAddress;
+  private final long interval;
+  private MessageConsumer<JsonObject> instance;
+  private MessageConsumer<JsonObject> discovery;
+  private long timerID;
+
+  /**
+   * Advertise an instance of a service.
+   *
+   * @param vertx    the vertx instance
+   * @param address  the address of the service
+   * @param local    whether the service is registered locally
+   * @param interval the heartbeat interval in milliseconds
+   * @param handler  the handler of the service messages
+   * @param service  the consumer of the service at {@code address}
+   */
+  public static void advertise(Vertx vertx, String address, boolean local, long interval,
+                               Handler<Message<JsonObject>> handler, MessageConsumer<JsonObject> service) {
+    new InstanceAdvertiser(vertx, address, local, interval, service).start(local, handler);
+  }
+
+  private InstanceAdvertiser(Vertx vertx, String address, boolean local, long interval, MessageConsumer<JsonObject> service) {
+    this.vertx = vertx;
+    this.instancesAddress = ServiceInstances.instancesAddress(address);
+    this.service = service;
+    this.options = new DeliveryOptions().setLocalOnly(local);
+    this.instanceAddress = address + "." + UUID.randomUUID();
+    this.heartbeat = new JsonObject().put(INSTANCE, instanceAddress).put(INTERVAL, interval);
+    this.interval = interval;
+  }
+
+  private void start(boolean local, Handler<Message<JsonObject>> handler) {
+    instance = local ? vertx.eventBus().localConsumer(instanceAddress, handler) : vertx.eventBus().consumer(instanceAddress, handler);
+    discovery = vertx.eventBus().consumer(instancesAddress, msg -> {
+      if (msg.body() != null && msg.body().getBoolean(DISCOVER, false)) {
+        beat();
+      }
+    });
+    instance.completion().onSuccess(v -> beat());
+    timerID = vertx.setPeriodic(interval, id -> beat());
+  }
+
+  private void beat() {
+    if (service.isRegistered()) {
+      vertx.eventBus().publish(instancesAddress, heartbeat, options);
+    } else if (instance.isRegistered()) {
+      vertx.cancelTimer(timerID);
+      instance.unregister();
+      discovery.unregister();
+      vertx.eventBus().publish(instancesAddress, new JsonObject().put(INSTANCE, instanceAddress).put(LEAVING, true), options);
+    }
+  }
+}
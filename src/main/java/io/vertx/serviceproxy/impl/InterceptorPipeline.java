@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ProxyHandler;
+import io.vertx.serviceproxy.ServiceInterceptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run the interceptors of an action before handing the message to the next handler.
+ * <p>
+ * The interceptors of each action of the handler are resolved once, when the pipeline is created. A message is
+ * dispatched with the ordinal of its action and runs through its interceptors in a loop, which continues
+ * synchronously as long as the interceptors return completed futures. Each message gets its own interceptor context.
+ */
+public class InterceptorPipeline implements Handler<Message<JsonObject>> {
+
+  private static final ServiceInterceptor[] NO_INTERCEPTORS = new ServiceInterceptor[0];
+
+  private final Vertx vertx;
+  private final ProxyHandler handler;
+  private final Handler<Message<JsonObject>> next;
+  private final List<InterceptorHolder> interceptorHolders;
+  private final ServiceInterceptor[][] table;
+
+  public InterceptorPipeline(Vertx vertx, ProxyHandler handler, List<InterceptorHolder> interceptorHolders) {
+    this(vertx, handler, handler, interceptorHolders);
+  }
+
+  /**
+   * @param vertx              the Vert.x instance
+   * @param handler            the proxy handler, resolving the action ordinals
+   * @param next               the handler of the intercepted messages
+   * @param interceptorHolders the interceptors
+   */
+  public InterceptorPipeline(Vertx vertx, ProxyHandler handler, Handler<Message<JsonObject>> next,
+                             List<InterceptorHolder> interceptorHolders) {
+    this.vertx = vertx;
+    this.handler = handler;
+    this.next = next;
+    this.interceptorHolders = new ArrayList<>(interceptorHolders);
+    String[] actions = handler.actions();
+    this.table = new ServiceInterceptor[actions.length][];
+    for (int i = 0; i < actions.length; i++) {
+      table[i] = resolve(actions[i]);
+    }
+  }
+
+  @Override
+  public void handle(Message<JsonObject> msg) {
+    String action = msg.headers().get("action");
+    int ordinal = handler.actionOrdinal(msg);
+    // actions unknown to the handler are not in the table, resolving them is the slow path
+    ServiceInterceptor[] interceptors = ordinal >= 0 ? table[ordinal] : resolve(action);
+    if (interceptors.length == 0) {
+      next.handle(msg);
+    } else {
+      run(interceptors, 0, new HashMap<>(), msg);
+    }
+  }
+
+  private void run(ServiceInterceptor[] interceptors, int index, Map<String, Object> context, Message<JsonObject> msg) {
+    while (index < interceptors.length) {
+      Future<Message<JsonObject>> future;
+      try {
+        future = interceptors[index++].intercept(vertx, context, msg);
+      } catch (Throwable t) {
+        fail(msg, t);
+        return;
+      }
+      if (!future.isComplete()) {
+        int next = index;
+        Message<JsonObject> current = msg;
+        future.onComplete(ar -> {
+          if (ar.succeeded()) {
+            run(interceptors, next, context, ar.result());
+          } else {
+            fail(current, ar.cause());
+          }
+        });
+        return;
+      }
+      if (future.failed()) {
+        fail(msg, future.cause());
+        return;
+      }
+      msg = future.result();
+    }
+    next.handle(msg);
+  }
+
+  private ServiceInterceptor[] resolve(String action) {
+    List<ServiceInterceptor> interceptors = new ArrayList<>();
+    for (InterceptorHolder interceptorHolder : interceptorHolders) {
+      String holderAction = interceptorHolder.action();
+      if (holderAction == null || holderAction.equals(action)) {
+        interceptors.add(interceptorHolder.interceptor());
+      }
+    }
+    return interceptors.isEmpty() ? NO_INTERCEPTORS : interceptors.toArray(NO_INTERCEPTORS);
+  }
+
+  private static void fail(Message<JsonObject> msg, Throwable err) {
+    if (err instanceof ReplyException) {
+      msg.fail(((ReplyException) err).failureCode(), err.getMessage());
+    } else {
+      msg.fail(500, err.getMessage());
+    }
+  }
+}
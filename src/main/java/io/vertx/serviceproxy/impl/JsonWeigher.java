@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimate the heap size of the values replied by the services, walking JSON objects and arrays.
+ * <p>
+ * The estimate assumes a 64-bit JVM with compressed references and counts the hash map entries and the boxing of the
+ * JSON values, it is meant to bound a cache, not to be exact.
+ */
+public class JsonWeigher {
+
+  private static final int OBJECT = 16;
+  private static final int REFERENCE = 4;
+  private static final int MAP_ENTRY = 32;
+
+  private JsonWeigher() {
+  }
+
+  /**
+   * @return the estimated heap size of {@code value} in bytes
+   */
+  public static long weigh(Object value) {
+    if (value == null) {
+      return 0;
+    } else if (value instanceof String) {
+      return weigh((String) value);
+    } else if (value instanceof JsonObject) {
+      return OBJECT + weigh(((JsonObject) value).getMap());
+    } else if (value instanceof JsonArray) {
+      return OBJECT + weigh(((JsonArray) value).getList());
+    } else if (value instanceof Map) {
+      return weigh((Map<?, ?>) value);
+    } else if (value instanceof List) {
+      return weigh((List<?>) value);
+    } else if (value instanceof Buffer) {
+      return 2 * OBJECT + ((Buffer) value).length();
+    } else if (value instanceof byte[]) {
+      return OBJECT + ((byte[]) value).length;
+    } else {
+      // boxed numbers and booleans, instants, enums
+      return OBJECT + 8;
+    }
+  }
+
+  private static long weigh(String value) {
+    // two bytes per char, the size of the strings which are not Latin-1
+    return 2 * OBJECT + 2L * value.length();
+  }
+
+  private static long weigh(Map<?, ?> map) {
+    long weight = 3 * OBJECT + (long) REFERENCE * map.size() * 2;
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      weight += MAP_ENTRY + weigh(entry.getKey()) + weigh(entry.getValue());
+    }
+    return weight;
+  }
+
+  private static long weigh(List<?> list) {
+    long weight = 2 * OBJECT + (long) REFERENCE * list.size();
+    for (Object item : list) {
+      weight += weigh(item);
+    }
+    return weight;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.serviceproxy.ServiceException;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A message that is not delivered by the event bus, its replies are given to a callback.
+ * <p>
+ * The reply of such a message is not sent on its own (a batch replies all its calls at once) and so cannot receive
+ * a reply in turn, {@link #replyAndRequest} fails.
+ */
+public class LocalMessage<T> implements Message<T> {
+
+  private final String address;
+  private final MultiMap headers;
+  private final T body;
+  private final String replyAddress;
+  private final BiConsumer<Object, DeliveryOptions> replyHandler;
+
+  /**
+   * @param address      the address
+   * @param headers      the headers
+   * @param body         the body
+   * @param replyHandler the callback receiving the reply and its options, {@code null} when no reply is expected
+   */
+  public LocalMessage(String address, MultiMap headers, T body, BiConsumer<Object, DeliveryOptions> replyHandler) {
+    this(address, headers, body, null, replyHandler);
+  }
+
+  /**
+   * @param address      the address
+   * @param headers      the headers
+   * @param body         the body
+   * @param replyAddress the reply address of the event bus message this message stands for, {@code null} when the
+   *                     sender expects no reply
+   * @param replyHandler the callback receiving the reply and its options, {@code null} when no reply is expected
+   */
+  public LocalMessage(String address, MultiMap headers, T body, String replyAddress, BiConsumer<Object, DeliveryOptions> replyHandler) {
+    this.address = address;
+    this.headers = headers;
+    this.body = body;
+    this.replyAddress = replyAddress;
+    this.replyHandler = replyHandler;
+  }
+
+  @Override
+  public String address() {
+    return address;
+  }
+
+  @Override
+  public MultiMap headers() {
+    return headers;
+  }
+
+  @Override
+  public T body() {
+    return body;
+  }
+
+  @Override
+  public String replyAddress() {
+    return replyAddress;
+  }
+
+  @Override
+  public boolean isSend() {
+    return true;
+  }
+
+  @Override
+  public void reply(Object message) {
+    reply(message, new DeliveryOptions());
+  }
+
+  @Override
+  public void reply(Object message, DeliveryOptions options) {
+    if (replyHandler == null) {
+      throw new IllegalStateException("No reply expected");
+    }
+    replyHandler.accept(message, options);
+  }
+
+  @Override
+  public <R> Future<Message<R>> replyAndRequest(Object message) {
+    return replyAndRequest(message, new DeliveryOptions());
+  }
+
+  @Override
+  public <R> Future<Message<R>> replyAndRequest(Object message, DeliveryOptions options) {
+    return Future.failedFuture(new ServiceException(500, "replyAndRequest is not supported for a call delivered within a batch or a compressed envelope"));
+  }
+
+  @Override
+  public void fail(int failureCode, String message) {
+    reply(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, failureCode, message));
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The services registered in a Vert.x instance that proxies can call directly, by address.
+ * <p>
+ * Like the consumers of the event bus, several services can be registered at the same address. A registration lives
+ * as long as the consumer of the service is registered, dead registrations are removed when they are looked up.
+ */
+public class LocalServiceRegistry implements Shareable {
+
+  private static final String MAP_NAME = "__vertx.serviceproxy.local-services";
+
+  /**
+   * @return the registry of the Vert.x instance
+   */
+  public static LocalServiceRegistry get(Vertx vertx) {
+    LocalMap<String, LocalServiceRegistry> map = vertx.sharedData().getLocalMap(MAP_NAME);
+    return map.computeIfAbsent(MAP_NAME, k -> new LocalServiceRegistry());
+  }
+
+  private final ConcurrentMap<String, List<Registration>> registrations = new ConcurrentHashMap<>();
+
+  private LocalServiceRegistry() {
+  }
+
+  /**
+   * Register a service, in addition to the services already registered at the same address.
+   *
+   * @param vertx the vertx instance
+   * @param address the address of the service
+   * @param iface the service interface
+   * @param service the service implementation
+   * @param includeDebugInfo whether the failures of the service carry debug info
+   * @param consumer the consumer of the service
+   */
+  public void register(Vertx vertx, String address, Class<?> iface, Object service, boolean includeDebugInfo, MessageConsumer<?> consumer) {
+    // like the consumer, the service is called on the current context or on a new one when there is none
+    Context context = vertx.getOrCreateContext();
+    registrations
+      .computeIfAbsent(address, k -> new CopyOnWriteArrayList<>())
+      .add(new Registration(iface, service, context, includeDebugInfo, consumer));
+  }
+
+  /**
+   * Lookup the services registered at an address.
+   *
+   * @param address the address of the services
+   * @param iface the service interface
+   * @return the registrations, empty when no such service is registered
+   */
+  public List<Registration> lookup(String address, Class<?> iface) {
+    List<Registration> list = registrations.get(address);
+    if (list == null) {
+      return Collections.emptyList();
+    }
+    List<Registration> found = new ArrayList<>(list.size());
+    for (Registration registration : list) {
+      if (!registration.isRegistered()) {
+        list.remove(registration);
+      } else if (registration.iface == iface) {
+        found.add(registration);
+      }
+    }
+    return found;
+  }
+
+  public static class Registration {
+
+    private final Class<?> iface;
+    private final Object service;
+    private final Context context;
+    private final boolean includeDebugInfo;
+    private final MessageConsumer<?> consumer;
+
+    private Registration(Class<?> iface, Object service, Context context, boolean includeDebugInfo, MessageConsumer<?> consumer) {
+      this.iface = iface;
+      this.service = service;
+      this.context = context;
+      this.includeDebugInfo = includeDebugInfo;
+      this.consumer = consumer;
+    }
+
+    /**
+     * @return the service implementation
+     */
+    public Object service() {
+      return service;
+    }
+
+    /**
+     * @return the context on which the service is called
+     */
+    public Context context() {
+      return context;
+    }
+
+    /**
+     * @return whether the failures of the service carry debug info
+     */
+    public boolean includeDebugInfo() {
+      return includeDebugInfo;
+    }
+
+    /**
+     * @return whether the service is still registered
+     */
+    public boolean isRegistered() {
+      return consumer.isRegistered();
+    }
+  }
+}
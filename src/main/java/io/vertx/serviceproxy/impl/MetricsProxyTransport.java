@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+/**
+ * A transport reporting the calls of a proxy to {@link ServiceProxyMetrics}.
+ */
+public class MetricsProxyTransport implements ProxyTransport {
+
+  private final ProxyTransport transport;
+  private final ServiceProxyMetrics metrics;
+
+  public MetricsProxyTransport(ProxyTransport transport, ServiceProxyMetrics metrics) {
+    this.transport = transport;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    String action = options.getHeaders().get("action");
+    Object requestMetric = metrics.requestBegin(address, action, body);
+    return transport.<T>request(address, body, options).andThen(ar -> {
+      if (ar.succeeded()) {
+        metrics.requestEnd(requestMetric, address, action, ar.result().body(), null);
+      } else {
+        metrics.requestEnd(requestMetric, address, action, null, ar.cause());
+      }
+    });
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    String action = options.getHeaders().get("action");
+    Object requestMetric = metrics.requestBegin(address, action, body);
+    transport.send(address, body, options);
+    metrics.requestEnd(requestMetric, address, action, null, null);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+/**
+ * Report the calls handled by a service to {@link ServiceProxyMetrics}.
+ * <p>
+ * The stage is made of two handlers: {@link #received(Handler)} begins the call metric and observes the reply,
+ * {@link #dispatched(Handler)} reports the call once it has passed the interceptors.
+ */
+public class MetricsStage {
+
+  private final ServiceProxyMetrics metrics;
+  private final String address;
+
+  public MetricsStage(ServiceProxyMetrics metrics, String address) {
+    this.metrics = metrics;
+    this.address = address;
+  }
+
+  public Handler<Message<JsonObject>> received(Handler<Message<JsonObject>> next) {
+    return msg -> {
+      String action = msg.headers().get("action");
+      Object callMetric = metrics.callBegin(address, action, msg.body());
+      next.handle(new MeteredMessage(msg, action, callMetric));
+    };
+  }
+
+  public Handler<Message<JsonObject>> dispatched(Handler<Message<JsonObject>> next) {
+    return msg -> {
+      // the stages between the two handlers may observe the message too
+      Message<?> received = msg;
+      while (received instanceof ObservedMessage && !(received instanceof MeteredMessage)) {
+        received = ((ObservedMessage<?>) received).delegate;
+      }
+      if (received instanceof MeteredMessage) {
+        MeteredMessage metered = (MeteredMessage) received;
+        metrics.callDispatched(metered.callMetric, address, metered.action);
+      }
+      next.handle(msg);
+    };
+  }
+
+  private class MeteredMessage extends ObservedMessage<JsonObject> {
+
+    final String action;
+    final Object callMetric;
+
+    MeteredMessage(Message<JsonObject> msg, String action, Object callMetric) {
+      super(msg, (reply, options) -> {
+        if (reply instanceof ReplyException) {
+          metrics.callEnd(callMetric, address, action, null, (ReplyException) reply);
+        } else {
+          metrics.callEnd(callMetric, address, action, reply, null);
+        }
+      });
+      this.action = action;
+      this.callMetric = callMetric;
+    }
+  }
+}
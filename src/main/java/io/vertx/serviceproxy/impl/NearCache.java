@@ -0,0 +1,212 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.serviceproxy.CachePolicy;
+import io.vertx.serviceproxy.NearCaches;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The results of the cacheable methods of a service kept by a Vert.x instance, purged by the invalidations published
+ * on the {@link NearCaches#invalidationAddress(String) invalidation address} of the service.
+ * <p>
+ * The cache of an address is shared by the proxies of the Vert.x instance. An invalidation bumps the generation of the
+ * invalidated action, or of all the actions, so a result requested before an invalidation of its action and received
+ * after is not cached.
+ */
+public class NearCache implements Shareable {
+
+  private static final String MAP_NAME = "__vertx.serviceproxy.near-caches";
+
+  /**
+   * @return the cache of the service at {@code address}
+   */
+  public static NearCache get(Vertx vertx, String address, int maxSize) {
+    LocalMap<String, NearCache> map = vertx.sharedData().getLocalMap(MAP_NAME);
+    NearCache cache = map.computeIfAbsent(address, k -> new NearCache(address, maxSize));
+    cache.start(vertx);
+    return cache;
+  }
+
+  /**
+   * @return the key of a call
+   */
+  static String key(String action, String token, Object body) {
+    String arguments;
+    if (body instanceof Buffer) {
+      // one char per byte, two calls have the same key only when they have the same bytes
+      arguments = ((Buffer) body).toString(StandardCharsets.ISO_8859_1);
+    } else if (body instanceof JsonObject) {
+      arguments = ((JsonObject) body).encode();
+    } else {
+      arguments = String.valueOf(body);
+    }
+    return action + '\n' + token + '\n' + arguments;
+  }
+
+  private final String address;
+  private final LinkedHashMap<String, Entry> entries;
+  private final Map<String, Long> actionGenerations = new HashMap<>();
+  private long generation;
+  private boolean started;
+
+  private NearCache(String address, int maxSize) {
+    this.address = address;
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  private synchronized void start(Vertx vertx) {
+    if (started) {
+      return;
+    }
+    started = true;
+    // the consumer must not be bound to the context of a deployment, it would be unregistered on undeploy
+    ContextInternal context = ((VertxInternal) vertx).createEventLoopContext();
+    context.runOnContext(v -> vertx.eventBus().<JsonObject>consumer(NearCaches.invalidationAddress(address), msg -> {
+      JsonObject body = msg.body();
+      invalidate(body != null ? body.getString(NearCaches.ACTION) : null);
+    }));
+  }
+
+  /**
+   * @return the entry of {@code key}, {@code null} when it is missing or too stale to be returned
+   */
+  synchronized Entry get(String key, long now) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.staleUntil - now <= 0) {
+      entries.remove(key);
+      entry = null;
+    }
+    return entry;
+  }
+
+  /**
+   * @return the current generation of {@code action}, to give to {@link #put}
+   */
+  synchronized long generation(String action) {
+    // both generations only grow, their sum changes whenever one of them is bumped
+    return generation + actionGenerations.getOrDefault(action, 0L);
+  }
+
+  /**
+   * Cache a reply, unless the results of {@code action} were invalidated since {@code generation}.
+   */
+  synchronized void put(String action, String key, Message<?> reply, CachePolicy policy, long generation) {
+    if (generation != generation(action)) {
+      return;
+    }
+    long now = System.nanoTime();
+    long freshUntil = now + MILLISECONDS.toNanos(policy.getTtl());
+    long staleUntil = freshUntil + MILLISECONDS.toNanos(policy.getStaleWhileRevalidate());
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().addAll(reply.headers());
+    entries.put(key, new Entry(headers, copy(reply.body()), freshUntil, staleUntil));
+  }
+
+  /**
+   * Remove the results of {@code action}, or all the results when {@code action} is {@code null}.
+   */
+  synchronized void invalidate(String action) {
+    if (action == null) {
+      generation++;
+      entries.clear();
+    } else {
+      actionGenerations.merge(action, 1L, Long::sum);
+      String prefix = action + '\n';
+      entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private static Object copy(Object body) {
+    // the cached result must not be modified by the callers it is returned to
+    if (body instanceof JsonObject) {
+      return ((JsonObject) body).copy();
+    } else if (body instanceof JsonArray) {
+      return ((JsonArray) body).copy();
+    } else if (body instanceof Buffer) {
+      return ((Buffer) body).copy();
+    }
+    return body;
+  }
+
+  static final class Entry {
+
+    private final MultiMap headers;
+    private final Object body;
+    private final long freshUntil;
+    private final long staleUntil;
+    private boolean refreshing;
+
+    private Entry(MultiMap headers, Object body, long freshUntil, long staleUntil) {
+      this.headers = headers;
+      this.body = body;
+      this.freshUntil = freshUntil;
+      this.staleUntil = staleUntil;
+    }
+
+    boolean isFresh(long now) {
+      return freshUntil - now > 0;
+    }
+
+    /**
+     * @return {@code true} when the caller must refresh the entry, a single caller refreshes it at a time
+     */
+    synchronized boolean startRefresh() {
+      if (refreshing) {
+        return false;
+      }
+      refreshing = true;
+      return true;
+    }
+
+    /**
+     * Called when the refresh completes, whether its result replaced the entry, failed or was discarded by an
+     * invalidation, so the entry can be refreshed again while it is still returned.
+     */
+    synchronized void endRefresh() {
+      refreshing = false;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Message<T> reply(String address) {
+      return new LocalMessage<>(address, headers, (T) copy(body), null);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.serviceproxy.CachePolicy;
+import io.vertx.serviceproxy.NearCacheOptions;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+import java.util.Map;
+
+/**
+ * A transport replying the calls of the cacheable actions from a {@link NearCache}, see {@link NearCacheOptions}.
+ * <p>
+ * A stale result is returned while a single call refreshes it. Failures are not cached.
+ */
+public class NearCacheProxyTransport implements ProxyTransport {
+
+  private final ProxyTransport transport;
+  private final NearCache cache;
+  private final Map<String, CachePolicy> policies;
+  private final ServiceProxyMetrics metrics;
+
+  public NearCacheProxyTransport(ProxyTransport transport, NearCache cache, Map<String, CachePolicy> policies,
+                                 ServiceProxyMetrics metrics) {
+    this.transport = transport;
+    this.cache = cache;
+    this.policies = policies;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    String action = options.getHeaders().get("action");
+    CachePolicy policy = action != null ? policies.get(action) : null;
+    if (policy == null) {
+      return transport.request(address, body, options);
+    }
+    String key = NearCache.key(action, options.getHeaders().get("auth-token"), body);
+    long now = System.nanoTime();
+    NearCache.Entry entry = cache.get(key, now);
+    if (metrics != null) {
+      metrics.nearCacheAccess(address, action, entry != null);
+    }
+    if (entry == null) {
+      return fetch(address, body, options, action, key, policy);
+    }
+    if (!entry.isFresh(now) && entry.startRefresh()) {
+      this.<T>fetch(address, body, options, action, key, policy).onComplete(ar -> entry.endRefresh());
+    }
+    return Future.succeededFuture(entry.reply(address));
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    transport.send(address, body, options);
+  }
+
+  private <T> Future<Message<T>> fetch(String address, Object body, DeliveryOptions options, String action, String key,
+                                       CachePolicy policy) {
+    long generation = cache.generation(action);
+    return transport.<T>request(address, body, options).andThen(ar -> {
+      if (ar.succeeded()) {
+        cache.put(action, key, ar.result(), policy, generation);
+      }
+    });
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A message giving its replies to an observer before replying them, failures are given as {@link ReplyException}.
+ */
+public class ObservedMessage<T> implements Message<T> {
+
+  protected final Message<T> delegate;
+  private final BiConsumer<Object, DeliveryOptions> observer;
+
+  public ObservedMessage(Message<T> delegate, BiConsumer<Object, DeliveryOptions> observer) {
+    this.delegate = delegate;
+    this.observer = observer;
+  }
+
+  @Override
+  public String address() {
+    return delegate.address();
+  }
+
+  @Override
+  public MultiMap headers() {
+    return delegate.headers();
+  }
+
+  @Override
+  public T body() {
+    return delegate.body();
+  }
+
+  @Override
+  public String replyAddress() {
+    return delegate.replyAddress();
+  }
+
+  @Override
+  public boolean isSend() {
+    return delegate.isSend();
+  }
+
+  @Override
+  public void reply(Object message) {
+    reply(message, new DeliveryOptions());
+  }
+
+  @Override
+  public void reply(Object message, DeliveryOptions options) {
+    observer.accept(message, options);
+    delegate.reply(message, options);
+  }
+
+  @Override
+  public <R> Future<Message<R>> replyAndRequest(Object message) {
+    return replyAndRequest(message, new DeliveryOptions());
+  }
+
+  @Override
+  public <R> Future<Message<R>> replyAndRequest(Object message, DeliveryOptions options) {
+    observer.accept(message, options);
+    return delegate.replyAndRequest(message, options);
+  }
+
+  @Override
+  public void fail(int failureCode, String message) {
+    observer.accept(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, failureCode, message), null);
+    delegate.fail(failureCode, message);
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.CompressionOptions;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate the JSON payloads above a size threshold, the compressed payloads are sent as a {@link Buffer} with a
+ * {@link #COMPRESSED} header telling the type of the payload.
+ * <p>
+ * The deflaters and the inflaters are reused by the threads, their native state is costly to create.
+ */
+public class PayloadCompressor {
+
+  /**
+   * The header of a compressed payload, its value is {@link #OBJECT} or {@link #ARRAY}.
+   */
+  public static final String COMPRESSED = "compressed";
+
+  /**
+   * The header of a call which caller accepts compressed replies.
+   */
+  public static final String ACCEPT_COMPRESSED = "accept-compressed";
+
+  public static final String OBJECT = "object";
+  public static final String ARRAY = "array";
+
+  private final int threshold;
+  private final int maxDecompressedSize;
+  private final byte[] dictionary;
+  private final ServiceProxyMetrics metrics;
+  private final ThreadLocal<Deflater> deflaters;
+  private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+  private final ThreadLocal<byte[]> chunks = ThreadLocal.withInitial(() -> new byte[4096]);
+
+  public PayloadCompressor(CompressionOptions options, ServiceProxyMetrics metrics) {
+    int level = options.getLevel();
+    this.threshold = options.getThreshold();
+    this.maxDecompressedSize = options.getMaxDecompressedSize();
+    this.dictionary = options.getDictionary() != null ? options.getDictionary().getBytes() : null;
+    this.metrics = metrics;
+    this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+  }
+
+  /**
+   * Compress a payload when it is a JSON object or array larger than the threshold.
+   *
+   * @param address the service address
+   * @param action the action
+   * @param payload the payload
+   * @param options the delivery options of the payload, the {@link #COMPRESSED} header is added to it and its codec
+   *                name is cleared since the compressed payload is a {@link Buffer}
+   * @return the compressed payload or {@code payload} itself
+   */
+  public Object compress(String address, String action, Object payload, DeliveryOptions options) {
+    String type;
+    Buffer encoded;
+    if (payload instanceof JsonObject) {
+      type = OBJECT;
+      encoded = ((JsonObject) payload).toBuffer();
+    } else if (payload instanceof JsonArray) {
+      type = ARRAY;
+      encoded = ((JsonArray) payload).toBuffer();
+    } else {
+      return payload;
+    }
+    if (encoded.length() < threshold) {
+      return payload;
+    }
+    long start = System.nanoTime();
+    Deflater deflater = deflaters.get();
+    deflater.reset();
+    if (dictionary != null) {
+      deflater.setDictionary(dictionary);
+    }
+    deflater.setInput(encoded.getBytes());
+    deflater.finish();
+    byte[] chunk = chunks.get();
+    Buffer compressed = Buffer.buffer(encoded.length() / 4 + 64);
+    while (!deflater.finished()) {
+      int length = deflater.deflate(chunk);
+      compressed.appendBytes(chunk, 0, length);
+    }
+    if (metrics != null) {
+      metrics.payloadCompressed(address, action, encoded.length(), compressed.length(), System.nanoTime() - start);
+    }
+    options.addHeader(COMPRESSED, type);
+    options.setCodecName(null);
+    return compressed;
+  }
+
+  /**
+   * Decompress a payload when its headers tell it is compressed.
+   *
+   * @param address the service address
+   * @param action the action
+   * @param headers the headers of the payload
+   * @param payload the payload
+   * @return the decompressed payload or {@code payload} itself
+   * @throws DataFormatException when the payload cannot be decompressed or exceeds the maximum decompressed size
+   */
+  public Object decompress(String address, String action, MultiMap headers, Object payload) throws DataFormatException {
+    String type = headers.get(COMPRESSED);
+    if (type == null || !(payload instanceof Buffer)) {
+      return payload;
+    }
+    long start = System.nanoTime();
+    byte[] input = ((Buffer) payload).getBytes();
+    Inflater inflater = inflaters.get();
+    inflater.reset();
+    inflater.setInput(input);
+    byte[] chunk = chunks.get();
+    Buffer decompressed = Buffer.buffer((int) Math.min(input.length * 4L, maxDecompressedSize));
+    while (!inflater.finished()) {
+      int length = inflater.inflate(chunk);
+      if (length == 0) {
+        if (inflater.needsDictionary()) {
+          if (dictionary == null) {
+            throw new DataFormatException("The payload is compressed with a dictionary");
+          }
+          inflater.setDictionary(dictionary);
+        } else if (inflater.needsInput()) {
+          throw new DataFormatException("Truncated compressed payload");
+        }
+      }
+      if (decompressed.length() + length > maxDecompressedSize) {
+        throw new DataFormatException("The decompressed payload exceeds " + maxDecompressedSize + " bytes");
+      }
+      decompressed.appendBytes(chunk, 0, length);
+    }
+    if (metrics != null) {
+      metrics.payloadDecompressed(address, action, input.length, decompressed.length(), System.nanoTime() - start);
+    }
+    return ARRAY.equals(type) ? new JsonArray(decompressed) : new JsonObject(decompressed);
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.function.Function;
+
+/**
+ * The proxy side of a {@link StreamPublisher}: pull the items of a stream result in chunks.
+ * <p>
+ * At most {@code chunkSize} items are buffered, the next chunk is pulled when the buffer is half drained, so a paused
+ * stream stops pulling and the publisher stops reading its source.
+ */
+public class ProxyReadStream<T> implements ReadStream<T> {
+
+  public static final int DEFAULT_CHUNK_SIZE = 256;
+
+  private static final Object NULL = new Object();
+
+  private final Vertx vertx;
+  private final Context context;
+  private final String address;
+  private final DeliveryOptions options;
+  private final Function<Object, T> decoder;
+  private final int chunkSize;
+  private final ArrayDeque<Object> queue = new ArrayDeque<>();
+  private Handler<T> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+  private long demand = Long.MAX_VALUE;
+  private boolean pulling;
+  private boolean ended;
+  private boolean failed;
+  private boolean done;
+  private boolean emitting;
+
+  public ProxyReadStream(Vertx vertx, String address, long timeout, Function<Object, T> decoder, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("chunkSize must be > 0");
+    }
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.address = address;
+    this.options = new DeliveryOptions().setSendTimeout(timeout);
+    this.decoder = decoder;
+    this.chunkSize = chunkSize;
+    // Prefetch the first chunk while the caller sets up its handlers
+    context.runOnContext(v -> pull());
+  }
+
+  @Override
+  public ReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+    exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> handler(Handler<T> handler) {
+    this.handler = handler;
+    if (handler != null) {
+      context.runOnContext(v -> drain());
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> pause() {
+    demand = 0L;
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> resume() {
+    return fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public ReadStream<T> fetch(long amount) {
+    if (amount < 0L) {
+      throw new IllegalArgumentException("Invalid fetch amount " + amount);
+    }
+    demand += amount;
+    if (demand < 0L) {
+      demand = Long.MAX_VALUE;
+    }
+    drain();
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    if (endHandler != null) {
+      context.runOnContext(v -> drain());
+    }
+    return this;
+  }
+
+  private void drain() {
+    if (emitting) {
+      return;
+    }
+    emitting = true;
+    try {
+      Handler<T> h;
+      while (demand > 0L && (h = handler) != null && !queue.isEmpty()) {
+        Object item = queue.poll();
+        if (demand != Long.MAX_VALUE) {
+          demand--;
+        }
+        h.handle(decoder.apply(item == NULL ? null : item));
+      }
+      if (queue.isEmpty() && ended && !done) {
+        Handler<Void> h2 = endHandler;
+        if (h2 != null) {
+          done = true;
+          h2.handle(null);
+        }
+      }
+    } finally {
+      emitting = false;
+    }
+    pull();
+  }
+
+  private void pull() {
+    if (pulling || ended || failed || queue.size() > chunkSize / 2) {
+      return;
+    }
+    pulling = true;
+    JsonObject body = new JsonObject().put("demand", chunkSize - queue.size());
+    vertx.eventBus().<JsonObject>request(address, body, options).onComplete(ar -> {
+      pulling = false;
+      if (ar.succeeded()) {
+        handleChunk(ar.result());
+      } else {
+        failed = true;
+        Handler<Throwable> h = exceptionHandler;
+        if (h != null) {
+          h.handle(ar.cause());
+        }
+      }
+    });
+  }
+
+  private void handleChunk(Message<JsonObject> msg) {
+    JsonObject body = msg.body();
+    JsonArray items = body.getJsonArray("items");
+    for (int i = 0; i < items.size(); i++) {
+      Object item = items.getValue(i);
+      queue.add(item == null ? NULL : item);
+    }
+    ended = body.getBoolean("end", false);
+    drain();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.serviceproxy.DirectDispatcher;
+import io.vertx.serviceproxy.ProxyHandler;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.ServiceProxyFactory;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * The factory of an interface whose generated code has no factory, e.g. generated by an older version of the
+ * generator: the generated proxy and handler are created by reflection.
+ * <p>
+ * Proxies without a transport constructor send their calls on the event bus, the direct dispatch is not available.
+ */
+class ReflectiveServiceProxyFactory<T> implements ServiceProxyFactory<T> {
+
+  private final Class<T> iface;
+  // resolved on first use, since a binder does not need the proxy class and a proxy does not need the handler class
+  private volatile ProxyConstructors proxyConstructors;
+  private volatile Constructor<?> handlerConstructor;
+
+  ReflectiveServiceProxyFactory(Class<T> iface) {
+    this.iface = iface;
+  }
+
+  @Override
+  public Class<T> serviceInterface() {
+    return iface;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T createProxy(Vertx vertx, String address, DeliveryOptions options, ProxyTransport transport) {
+    ProxyConstructors constructors = proxyConstructors;
+    if (constructors == null) {
+      constructors = new ProxyConstructors(loadClass(iface.getName() + "VertxEBProxy"));
+      proxyConstructors = constructors;
+    }
+    if (constructors.withTransport != null) {
+      return (T) createInstance(constructors.withTransport, vertx, address, options, transport);
+    }
+    if (options == null) {
+      return (T) createInstance(constructors.get(constructors.withAddress), vertx, address);
+    }
+    return (T) createInstance(constructors.get(constructors.withOptions), vertx, address, options);
+  }
+
+  @Override
+  public T createDirectProxy(DirectDispatcher dispatcher, T fallback) {
+    return fallback;
+  }
+
+  @Override
+  public ProxyHandler createHandler(Vertx vertx, T service, boolean topLevel, long timeoutSeconds, boolean includeDebugInfo) {
+    Constructor<?> constructor = handlerConstructor;
+    if (constructor == null) {
+      Class<?> handlerClass = loadClass(iface.getName() + "VertxProxyHandler");
+      constructor = getConstructor(handlerClass, Vertx.class, iface, boolean.class, long.class, boolean.class);
+      handlerConstructor = constructor;
+    }
+    return (ProxyHandler) createInstance(constructor, vertx, service, topLevel, timeoutSeconds, includeDebugInfo);
+  }
+
+  private Class<?> loadClass(String name) {
+    try {
+      return iface.getClassLoader().loadClass(name);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("Cannot find proxyClass: " + name, e);
+    }
+  }
+
+  private static Constructor<?> findConstructor(Class<?> clazz, Class<?>... types) {
+    try {
+      return clazz.getDeclaredConstructor(types);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private static Constructor<?> getConstructor(Class<?> clazz, Class<?>... types) {
+    Constructor<?> constructor = findConstructor(clazz, types);
+    if (constructor == null) {
+      throw new IllegalStateException("Cannot find constructor on: " + clazz.getName());
+    }
+    return constructor;
+  }
+
+  private static class ProxyConstructors {
+
+    private final Class<?> proxyClass;
+    private final Constructor<?> withTransport;
+    private final Constructor<?> withAddress;
+    private final Constructor<?> withOptions;
+
+    ProxyConstructors(Class<?> proxyClass) {
+      this.proxyClass = proxyClass;
+      this.withTransport = findConstructor(proxyClass, Vertx.class, String.class, DeliveryOptions.class, ProxyTransport.class);
+      this.withAddress = findConstructor(proxyClass, Vertx.class, String.class);
+      this.withOptions = findConstructor(proxyClass, Vertx.class, String.class, DeliveryOptions.class);
+    }
+
+    Constructor<?> get(Constructor<?> constructor) {
+      if (constructor == null) {
+        throw new IllegalStateException("Cannot find constructor on: " + proxyClass.getName());
+      }
+      return constructor;
+    }
+  }
+
+  private static Object createInstance(Constructor<?> constructor, Object... args) {
+    try {
+      return constructor.newInstance(args);
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to call constructor on", e);
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ResultCacheOptions;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Reply the calls of the cached actions from a {@link WeightedCache}, see {@link ResultCacheOptions}.
+ * <p>
+ * The calls with the same arguments as a call in flight wait for its reply. A reply carrying headers creates a
+ * resource, such as a stream or a proxy, for its caller only, it is not cached and the waiting calls are dispatched.
+ */
+public class ResultCacheStage {
+
+  private final Set<String> actions;
+  private final WeightedCache<String, Reply> cache;
+  private final Map<String, Call> inFlight = new HashMap<>();
+  private final long ttlNanos;
+  private final String address;
+  private final ServiceProxyMetrics metrics;
+
+  public ResultCacheStage(ResultCacheOptions options, String address, ServiceProxyMetrics metrics) {
+    this.actions = Set.copyOf(options.getActions());
+    this.cache = new WeightedCache<>(options.getMaxSize(), options.getMaxWeight(), options.getTtl(),
+      options.getEvictionPolicy());
+    this.ttlNanos = MILLISECONDS.toNanos(options.getTtl());
+    this.address = address;
+    this.metrics = metrics;
+  }
+
+  public Handler<Message<JsonObject>> handler(Handler<Message<JsonObject>> next) {
+    return msg -> {
+      String action = msg.headers().get("action");
+      if (action == null || !actions.contains(action) || msg.replyAddress() == null) {
+        next.handle(msg);
+        return;
+      }
+      JsonObject body = msg.body();
+      String key = action + '\n' + (body != null ? body.encode() : "");
+      Reply cached = cache.get(key);
+      if (cached == null) {
+        Call call = null;
+        synchronized (inFlight) {
+          long now = System.nanoTime();
+          Call pending = inFlight.get(key);
+          // a call that outlived the time to live may never be replied, the next calls do not wait for it
+          if (pending != null && now - pending.start < ttlNanos) {
+            pending.waiting.add(msg);
+          } else {
+            call = new Call(now);
+            inFlight.put(key, call);
+          }
+        }
+        if (metrics != null) {
+          metrics.resultCacheAccess(address, action, call == null);
+        }
+        if (call != null) {
+          execute(msg, key, call, next);
+        }
+      } else {
+        if (metrics != null) {
+          metrics.resultCacheAccess(address, action, true);
+        }
+        cached.replyTo(msg);
+      }
+    };
+  }
+
+  /**
+   * @return the number of cached results
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * @return the estimated heap size of the cached results in bytes
+   */
+  public long weight() {
+    return cache.weight();
+  }
+
+  private void execute(Message<JsonObject> msg, String key, Call call, Handler<Message<JsonObject>> next) {
+    try {
+      next.handle(new ObservedMessage<>(msg, (body, options) -> {
+        List<Message<JsonObject>> waiting = call.complete(inFlight, key);
+        boolean failed = body instanceof ReplyException;
+        if (!failed && options != null && options.getHeaders() != null && !options.getHeaders().isEmpty()) {
+          waiting.forEach(next::handle);
+          return;
+        }
+        Reply reply = new Reply(body, options);
+        if (!failed) {
+          cache.put(key, reply, JsonWeigher.weigh(key) + JsonWeigher.weigh(body));
+        }
+        waiting.forEach(reply::replyTo);
+      }));
+    } catch (Throwable t) {
+      Reply reply = new Reply(new ServiceException(500, t.getMessage()), null);
+      call.complete(inFlight, key).forEach(reply::replyTo);
+      throw t;
+    }
+  }
+
+  private static class Call {
+
+    private final long start;
+    private List<Message<JsonObject>> waiting = new ArrayList<>();
+
+    Call(long start) {
+      this.start = start;
+    }
+
+    /**
+     * @return the calls that waited for this call, once
+     */
+    List<Message<JsonObject>> complete(Map<String, Call> inFlight, String key) {
+      synchronized (inFlight) {
+        inFlight.remove(key, this);
+        List<Message<JsonObject>> result = waiting;
+        waiting = new ArrayList<>();
+        return result;
+      }
+    }
+  }
+
+  private static class Reply {
+
+    private final Object body;
+    private final DeliveryOptions options;
+
+    Reply(Object body, DeliveryOptions options) {
+      // the first caller is replied with the buffer itself, the cache must not share it
+      this.body = body instanceof Buffer ? ((Buffer) body).copy() : body;
+      this.options = options != null ? new DeliveryOptions(options) : null;
+    }
+
+    void replyTo(Message<JsonObject> msg) {
+      // buffers may be replied without copy, the callers must not share the cached one
+      Object value = body instanceof Buffer ? ((Buffer) body).copy() : body;
+      if (options != null) {
+        msg.reply(value, new DeliveryOptions(options));
+      } else {
+        msg.reply(value);
+      }
+    }
+  }
+}
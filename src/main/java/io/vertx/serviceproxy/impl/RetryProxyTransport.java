@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.RetryOptions;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A transport retrying the requests of the retried actions that time out or find no handler, see {@link RetryOptions}.
+ * <p>
+ * Requests without reply are never retried.
+ */
+public class RetryProxyTransport implements ProxyTransport {
+
+  private final Vertx vertx;
+  private final ProxyTransport transport;
+  private final Set<String> actions;
+  private final int maxRetries;
+  private final long initialBackoff;
+  private final long maxBackoff;
+  private final double budgetRatio;
+  private final int maxBudget;
+  private final ServiceProxyMetrics metrics;
+  private double budget;
+
+  public RetryProxyTransport(Vertx vertx, ProxyTransport transport, RetryOptions options, ServiceProxyMetrics metrics) {
+    this.vertx = vertx;
+    this.transport = transport;
+    this.actions = Set.copyOf(options.getActions());
+    this.maxRetries = options.getMaxRetries();
+    this.initialBackoff = options.getInitialBackoff();
+    this.maxBackoff = options.getMaxBackoff();
+    this.budgetRatio = options.getBudgetRatio();
+    this.maxBudget = options.getMaxBudget();
+    this.metrics = metrics;
+    this.budget = maxBudget;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    String action = options.getHeaders().get("action");
+    if (action == null || !actions.contains(action)) {
+      return transport.request(address, body, options);
+    }
+    deposit();
+    Promise<Message<T>> promise = Promise.promise();
+    attempt(address, action, body, options, 0, promise);
+    return promise.future();
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    transport.send(address, body, options);
+  }
+
+  private <T> void attempt(String address, String action, Object body, DeliveryOptions options, int retry, Promise<Message<T>> promise) {
+    transport.<T>request(address, body, retry == 0 ? options : new DeliveryOptions(options)).onComplete(ar -> {
+      if (ar.succeeded()) {
+        promise.complete(ar.result());
+      } else if (retry < maxRetries && isRetryable(ar.cause()) && withdraw()) {
+        if (metrics != null) {
+          metrics.requestRetried(address, action, retry + 1);
+        }
+        vertx.setTimer(backoff(retry), id -> attempt(address, action, body, options, retry + 1, promise));
+      } else {
+        promise.fail(ar.cause());
+      }
+    });
+  }
+
+  private static boolean isRetryable(Throwable cause) {
+    if (cause instanceof ReplyException) {
+      ReplyFailure type = ((ReplyException) cause).failureType();
+      return type == ReplyFailure.TIMEOUT || type == ReplyFailure.NO_HANDLERS;
+    }
+    return false;
+  }
+
+  /**
+   * @return the backoff of a retry, drawn at random below the exponential backoff
+   */
+  private long backoff(int retry) {
+    long ceiling = Math.min(maxBackoff, initialBackoff << Math.min(retry, 30));
+    return 1 + ThreadLocalRandom.current().nextLong(ceiling);
+  }
+
+  private synchronized void deposit() {
+    budget = Math.min(maxBudget, budget + budgetRatio);
+  }
+
+  private synchronized boolean withdraw() {
+    if (budget >= 1D) {
+      budget -= 1D;
+      return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.RoutingOptions;
+import io.vertx.serviceproxy.RoutingPolicy;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A transport sending the requests to the best instance of the service, see {@link RoutingOptions}.
+ * <p>
+ * A request is sent to the service address when no instance is available. An instance found without handler is
+ * forgotten and the request is sent to the service address instead. Requests without reply are always sent to the
+ * service address.
+ */
+public class RoutingProxyTransport implements ProxyTransport {
+
+  private final ProxyTransport transport;
+  private final ServiceInstances instances;
+  private final RoutingPolicy policy;
+  private final int ejectionFailures;
+  private final long ejectionDuration;
+  private final ServiceProxyMetrics metrics;
+
+  public RoutingProxyTransport(ProxyTransport transport, ServiceInstances instances, RoutingOptions options, ServiceProxyMetrics metrics) {
+    this.transport = transport;
+    this.instances = instances;
+    this.policy = options.getPolicy();
+    this.ejectionFailures = options.getEjectionFailures();
+    this.ejectionDuration = MILLISECONDS.toNanos(options.getEjectionDuration());
+    this.metrics = metrics;
+  }
+
+  @Override
+  public <T> Future<Message<T>> request(String address, Object body, DeliveryOptions options) {
+    ServiceInstances.Instance instance = instances.select(policy);
+    if (instance == null) {
+      return transport.request(address, body, options);
+    }
+    instance.begin();
+    long start = System.nanoTime();
+    return transport.<T>request(instance.address(), body, options).transform(ar -> {
+      boolean failure = ar.failed() && CircuitBreakerProxyTransport.isFailure(ar.cause());
+      if (instance.end(System.nanoTime() - start, failure, ejectionFailures, ejectionDuration) && metrics != null) {
+        metrics.instanceEjected(address, instance.address());
+      }
+      if (ar.failed() && ar.cause() instanceof ReplyException
+        && ((ReplyException) ar.cause()).failureType() == ReplyFailure.NO_HANDLERS) {
+        // the instance is gone before telling it
+        instances.remove(instance.address());
+        return transport.request(address, body, new DeliveryOptions(options));
+      }
+      return ar.succeeded() ? Future.succeededFuture(ar.result()) : Future.failedFuture(ar.cause());
+    });
+  }
+
+  @Override
+  public void send(String address, Object body, DeliveryOptions options) {
+    transport.send(address, body, options);
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.serviceproxy.RoutingPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The instances of a service known by a Vert.x instance, learnt from the heartbeats the instances publish on the
+ * {@link #instancesAddress(String) instances address} of the service.
+ * <p>
+ * The directory of an address is shared by the proxies of the Vert.x instance, so the calls in flight of an instance
+ * account for all the proxies. An instance is forgotten when it leaves or misses three heartbeats.
+ */
+public class ServiceInstances implements Shareable {
+
+  private static final String MAP_NAME = "__vertx.serviceproxy.instances";
+  private static final double EWMA_WEIGHT = 0.3D;
+
+  /**
+   * @return the address on which the instances of the service at {@code address} publish their heartbeats
+   */
+  public static String instancesAddress(String address) {
+    return address + ".instances";
+  }
+
+  /**
+   * @return the directory of the instances of the service at {@code address}
+   */
+  public static ServiceInstances get(Vertx vertx, String address) {
+    LocalMap<String, ServiceInstances> map = vertx.sharedData().getLocalMap(MAP_NAME);
+    ServiceInstances instances = map.computeIfAbsent(address, k -> new ServiceInstances(address));
+    instances.start(vertx);
+    return instances;
+  }
+
+  private final String address;
+  private volatile Instance[] instances = new Instance[0];
+  private boolean started;
+
+  private ServiceInstances(String address) {
+    this.address = address;
+  }
+
+  private synchronized void start(Vertx vertx) {
+    if (started) {
+      return;
+    }
+    started = true;
+    // the consumer must not be bound to the context of a deployment, it would be unregistered on undeploy
+    ContextInternal context = ((VertxInternal) vertx).createEventLoopContext();
+    context.runOnContext(v -> {
+      String instancesAddress = instancesAddress(address);
+      vertx.eventBus().<JsonObject>consumer(instancesAddress, this::handle).completion().onSuccess(done -> {
+        // ask the instances to advertise themselves instead of waiting for their next heartbeat
+        vertx.eventBus().publish(instancesAddress, new JsonObject().put(InstanceAdvertiser.DISCOVER, true));
+      });
+    });
+  }
+
+  private void handle(Message<JsonObject> msg) {
+    JsonObject body = msg.body();
+    String instance = body.getString(InstanceAdvertiser.INSTANCE);
+    if (instance == null) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (body.getBoolean(InstanceAdvertiser.LEAVING, false)) {
+      remove(instance);
+    } else {
+      heartbeat(instance, MILLISECONDS.toNanos(body.getLong(InstanceAdvertiser.INTERVAL, 1000L)), now);
+    }
+  }
+
+  private synchronized void heartbeat(String instanceAddress, long interval, long now) {
+    List<Instance> alive = new ArrayList<>(instances.length + 1);
+    Instance found = null;
+    boolean changed = false;
+    for (Instance instance : instances) {
+      if (instance.address.equals(instanceAddress)) {
+        found = instance;
+      } else if (instance.isAlive(now)) {
+        alive.add(instance);
+      } else {
+        changed = true;
+      }
+    }
+    if (found == null) {
+      found = new Instance(instanceAddress);
+      changed = true;
+    }
+    found.lifetime = 3 * interval;
+    found.lastSeen = now;
+    if (changed) {
+      alive.add(found);
+      instances = alive.toArray(new Instance[0]);
+    }
+  }
+
+  /**
+   * Forget an instance, when it leaves or is found to be gone.
+   *
+   * @param instanceAddress the address of the instance
+   */
+  public synchronized void remove(String instanceAddress) {
+    List<Instance> remaining = new ArrayList<>(instances.length);
+    for (Instance instance : instances) {
+      if (!instance.address.equals(instanceAddress)) {
+        remaining.add(instance);
+      }
+    }
+    if (remaining.size() != instances.length) {
+      instances = remaining.toArray(new Instance[0]);
+    }
+  }
+
+  /**
+   * @return the number of known instances
+   */
+  public int size() {
+    return instances.length;
+  }
+
+  /**
+   * Select the instance to call.
+   *
+   * @param policy the routing policy
+   * @return the instance or {@code null} when no instance is available
+   */
+  public Instance select(RoutingPolicy policy) {
+    Instance[] snapshot = instances;
+    int length = snapshot.length;
+    if (length == 0) {
+      return null;
+    }
+    long now = System.nanoTime();
+    // start at random so the ties are not always broken in favor of the same instance
+    int start = length == 1 ? 0 : ThreadLocalRandom.current().nextInt(length);
+    Instance best = null;
+    double bestScore = Double.MAX_VALUE;
+    for (int i = 0; i < length; i++) {
+      Instance instance = snapshot[(start + i) % length];
+      if (!instance.isAlive(now) || instance.isEjected(now)) {
+        continue;
+      }
+      double score = policy == RoutingPolicy.EWMA_LATENCY
+        ? instance.ewma * (instance.outstanding.get() + 1)
+        : instance.outstanding.get();
+      if (score < bestScore) {
+        best = instance;
+        bestScore = score;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * An instance of the service.
+   */
+  public static class Instance {
+
+    private final String address;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile long lastSeen;
+    private volatile long lifetime;
+    private volatile double ewma;
+    private volatile long ejectedUntil;
+    private int failures;
+
+    private Instance(String address) {
+      this.address = address;
+    }
+
+    /**
+     * @return the address of the instance
+     */
+    public String address() {
+      return address;
+    }
+
+    /**
+     * @return the number of calls in flight
+     */
+    public int outstanding() {
+      return outstanding.get();
+    }
+
+    /**
+     * Mark a call started.
+     */
+    public void begin() {
+      outstanding.incrementAndGet();
+    }
+
+    /**
+     * Mark a call ended.
+     *
+     * @param latency the latency of the call in nanoseconds
+     * @param failure whether the call failed
+     * @param ejectionFailures the number of consecutive failures ejecting the instance
+     * @param ejectionDuration the ejection duration in nanoseconds
+     * @return whether the instance got ejected by this call
+     */
+    public boolean end(long latency, boolean failure, int ejectionFailures, long ejectionDuration) {
+      outstanding.decrementAndGet();
+      synchronized (this) {
+        ewma = ewma == 0D ? latency : EWMA_WEIGHT * latency + (1 - EWMA_WEIGHT) * ewma;
+        if (!failure) {
+          failures = 0;
+          return false;
+        }
+        if (++failures >= ejectionFailures) {
+          failures = 0;
+          ejectedUntil = System.nanoTime() + ejectionDuration;
+          return true;
+        }
+        return false;
+      }
+    }
+
+    boolean isAlive(long now) {
+      return now - lastSeen <= lifetime;
+    }
+
+    boolean isEjected(long now) {
+      return ejectedUntil != 0L && now - ejectedUntil < 0;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.serviceproxy.ServiceProxyFactory;
+
+import java.util.ServiceLoader;
+
+/**
+ * The factories of the service interfaces, looked up once per interface.
+ * <p>
+ * The factory of an interface is the provider of {@link ServiceProxyFactory} declared by the class loader of the
+ * interface, or the generated factory loaded by name when no provider is declared, e.g. when the interface is in a
+ * named module that does not provide it. Interfaces generated without a factory fall back to creating the generated
+ * proxy and handler by reflection.
+ */
+public class ServiceProxyFactories {
+
+  private static final ClassValue<ServiceProxyFactory<?>> FACTORIES = new ClassValue<>() {
+    @Override
+    protected ServiceProxyFactory<?> computeValue(Class<?> iface) {
+      return lookup(iface);
+    }
+  };
+
+  /**
+   * @param iface the service interface
+   * @return the factory of the interface
+   * @throws IllegalStateException when the interface has no factory
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> ServiceProxyFactory<T> get(Class<T> iface) {
+    return (ServiceProxyFactory<T>) FACTORIES.get(iface);
+  }
+
+  private static <T> ServiceProxyFactory<?> lookup(Class<T> iface) {
+    String name = iface.getName() + "VertxProxyFactory";
+    ServiceProxyFactory<?> factory = ServiceLoader.load(ServiceProxyFactory.class, iface.getClassLoader())
+      .stream()
+      .filter(provider -> provider.type().getName().equals(name))
+      .map(ServiceLoader.Provider::get)
+      .filter(f -> f.serviceInterface() == iface)
+      .findFirst()
+      .orElse(null);
+    if (factory != null) {
+      return factory;
+    }
+    Class<?> factoryClass;
+    try {
+      factoryClass = iface.getClassLoader().loadClass(name);
+    } catch (ClassNotFoundException e) {
+      return new ReflectiveServiceProxyFactory<>(iface);
+    }
+    try {
+      return (ServiceProxyFactory<?>) factoryClass.getDeclaredConstructor().newInstance();
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to create proxy factory: " + name, e);
+    }
+  }
+}
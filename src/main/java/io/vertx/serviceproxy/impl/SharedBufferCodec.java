@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * The codec of the {@link Buffer} results of services: like the default buffer codec on the wire, but the buffer is
+ * handed to the caller as it is within a Vert.x instance instead of being copied.
+ */
+public class SharedBufferCodec implements MessageCodec<Buffer, Buffer> {
+
+  public static final String NAME = "serviceproxy.buffer";
+
+  @Override
+  public void encodeToWire(Buffer buffer, Buffer body) {
+    buffer.appendInt(body.length());
+    buffer.appendBuffer(body);
+  }
+
+  @Override
+  public Buffer decodeFromWire(int pos, Buffer buffer) {
+    int length = buffer.getInt(pos);
+    pos += 4;
+    return buffer.getBuffer(pos, pos + length);
+  }
+
+  @Override
+  public Buffer transform(Buffer body) {
+    return body;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
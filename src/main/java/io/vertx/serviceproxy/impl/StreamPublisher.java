@@ -0,0 +1,211 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.serviceproxy.HelperUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Publish the items of a {@link ReadStream} service result at a private event bus address.
+ * <p>
+ * The proxy pulls the items with {@code {"demand": n}} requests and gets replies {@code {"items": [...], "end": bool}}
+ * carrying at most {@code n} items. The source stream is read in fetch mode and never asked for more items than
+ * the proxy demanded, so the memory used on both ends is bounded by the chunk size. A reply is sent as soon as the
+ * demand is met or, when the source is slower, with the items read so far so the first results arrive early.
+ * <p>
+ * The publisher closes when the stream ends, fails or when the proxy stops pulling for the idle timeout.
+ */
+public class StreamPublisher<T> implements Handler<Message<JsonObject>> {
+
+  public static final String ADDRESS_HEADER = "streamaddr";
+
+  private final Vertx vertx;
+  private final ReadStream<T> source;
+  private final Function<T, Object> encoder;
+  private final boolean includeDebugInfo;
+  private final long idleTimeout;
+  private final List<Object> items = new ArrayList<>();
+  private MessageConsumer<JsonObject> consumer;
+  private Message<JsonObject> pending;
+  private int demand;
+  private long outstanding;
+  private boolean ended;
+  private Throwable failure;
+  private boolean flushScheduled;
+  private long timerID = -1;
+  private boolean closed;
+
+  /**
+   * Publish a stream.
+   *
+   * @param vertx the vertx instance
+   * @param source the stream to publish
+   * @param encoder the encoder of the items to their JSON representation
+   * @param includeDebugInfo whether the failure of the stream carries debug info
+   * @param idleTimeout the time in ms after which the publisher closes when the proxy stops pulling, {@code -1} to disable
+   * @return a future completed with the address of the publisher once it is registered
+   */
+  public static <T> Future<String> publish(Vertx vertx, ReadStream<T> source, Function<T, Object> encoder, boolean includeDebugInfo, long idleTimeout) {
+    return new StreamPublisher<>(vertx, source, encoder, includeDebugInfo, idleTimeout).start();
+  }
+
+  private StreamPublisher(Vertx vertx, ReadStream<T> source, Function<T, Object> encoder, boolean includeDebugInfo, long idleTimeout) {
+    this.vertx = vertx;
+    this.source = source;
+    this.encoder = encoder;
+    this.includeDebugInfo = includeDebugInfo;
+    this.idleTimeout = idleTimeout;
+  }
+
+  private synchronized Future<String> start() {
+    String address = UUID.randomUUID().toString();
+    source.pause();
+    source.handler(this::handleItem);
+    source.endHandler(v -> handleEnd());
+    source.exceptionHandler(this::handleFailure);
+    consumer = vertx.eventBus().consumer(address, this);
+    scheduleIdleTimeout();
+    return consumer.completion().map(address);
+  }
+
+  @Override
+  public synchronized void handle(Message<JsonObject> msg) {
+    if (closed) {
+      msg.fail(404, "Stream closed");
+      return;
+    }
+    if (pending != null) {
+      msg.fail(409, "Stream already pulled");
+      return;
+    }
+    cancelIdleTimeout();
+    pending = msg;
+    demand = Math.max(1, msg.body().getInteger("demand", 1));
+    long missing = demand - items.size() - outstanding;
+    if (missing > 0 && !ended && failure == null) {
+      outstanding += missing;
+      source.fetch(missing);
+    }
+    check();
+  }
+
+  private synchronized void handleItem(T item) {
+    if (closed) {
+      return;
+    }
+    if (outstanding > 0) {
+      outstanding--;
+    }
+    items.add(encoder.apply(item));
+    check();
+  }
+
+  private synchronized void handleEnd() {
+    ended = true;
+    check();
+  }
+
+  private synchronized void handleFailure(Throwable cause) {
+    if (failure == null) {
+      failure = cause;
+    }
+    check();
+  }
+
+  private void check() {
+    if (pending == null) {
+      return;
+    }
+    if (items.size() >= demand || ended || failure != null) {
+      flush();
+    } else if (!items.isEmpty() && !flushScheduled) {
+      // Reply with what the source emitted in this tick rather than waiting for the whole demand
+      flushScheduled = true;
+      vertx.runOnContext(v -> {
+        synchronized (StreamPublisher.this) {
+          flushScheduled = false;
+          if (pending != null && !items.isEmpty()) {
+            flush();
+          }
+        }
+      });
+    }
+  }
+
+  private void flush() {
+    Message<JsonObject> msg = pending;
+    pending = null;
+    if (failure != null) {
+      HelperUtils.manageFailure(msg, failure, includeDebugInfo);
+      close();
+      return;
+    }
+    List<Object> chunk = items.subList(0, Math.min(demand, items.size()));
+    JsonArray array = new JsonArray(new ArrayList<>(chunk));
+    chunk.clear();
+    boolean end = ended && items.isEmpty();
+    msg.reply(new JsonObject().put("items", array).put("end", end));
+    if (end) {
+      close();
+    } else {
+      scheduleIdleTimeout();
+    }
+  }
+
+  private void scheduleIdleTimeout() {
+    if (idleTimeout > 0) {
+      timerID = vertx.setTimer(idleTimeout, this::handleIdleTimeout);
+    }
+  }
+
+  private synchronized void handleIdleTimeout(long id) {
+    if (id == timerID) {
+      timerID = -1;
+      close();
+    }
+  }
+
+  private void cancelIdleTimeout() {
+    if (timerID != -1) {
+      vertx.cancelTimer(timerID);
+      timerID = -1;
+    }
+  }
+
+  private void close() {
+    if (!closed) {
+      closed = true;
+      cancelIdleTimeout();
+      consumer.unregister();
+      if (!ended && failure == null) {
+        source.pause();
+      }
+      items.clear();
+    }
+  }
+}
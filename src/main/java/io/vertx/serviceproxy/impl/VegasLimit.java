@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.serviceproxy.AdaptiveLimitOptions;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+
+/**
+ * A concurrency limit tuned from the latency of the calls, after TCP Vegas.
+ * <p>
+ * The number of calls queuing behind the service is estimated from the ratio between the lowest latency observed and
+ * the latency of a call: {@code queue = limit * (1 - minLatency / latency)}. The limit grows while the estimated
+ * queue is small and shrinks when it is large or when a call fails. The lowest latency is forgotten every
+ * {@value #RESET_SAMPLES} calls so the limit follows a backend which capacity changes.
+ */
+public class VegasLimit {
+
+  static final int RESET_SAMPLES = 1000;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final String address;
+  private final ServiceProxyMetrics metrics;
+  private volatile int limit;
+  private long minLatency = Long.MAX_VALUE;
+  private int samples;
+
+  public VegasLimit(AdaptiveLimitOptions options, String address, ServiceProxyMetrics metrics) {
+    this.minLimit = Math.min(options.getMinLimit(), options.getMaxLimit());
+    this.maxLimit = options.getMaxLimit();
+    this.limit = Math.max(minLimit, Math.min(maxLimit, options.getInitialLimit()));
+    this.address = address;
+    this.metrics = metrics;
+    if (metrics != null) {
+      metrics.concurrencyLimitChanged(address, limit);
+    }
+  }
+
+  /**
+   * @return the current limit
+   */
+  public int limit() {
+    return limit;
+  }
+
+  /**
+   * Update the limit with the outcome of a call.
+   *
+   * @param latency  the latency of the call in nanoseconds
+   * @param inFlight the number of calls in flight when the call started
+   * @param failed   whether the call failed because of the load
+   */
+  public void sample(long latency, int inFlight, boolean failed) {
+    int updated;
+    synchronized (this) {
+      latency = Math.max(1L, latency);
+      if (++samples % RESET_SAMPLES == 0) {
+        minLatency = latency;
+      } else {
+        minLatency = Math.min(minLatency, latency);
+      }
+      int current = limit;
+      int step = Math.max(1, (int) Math.log10(current));
+      if (failed) {
+        updated = current - step;
+      } else if (inFlight * 2 < current) {
+        // the service does not use the limit, the latency tells nothing about a higher limit
+        return;
+      } else {
+        double queue = current * (1D - (double) minLatency / latency);
+        if (queue <= step) {
+          updated = current + 6 * step;
+        } else if (queue < 3 * step) {
+          updated = current + step;
+        } else if (queue > 6 * step) {
+          updated = current - step;
+        } else {
+          return;
+        }
+      }
+      updated = Math.max(minLimit, Math.min(maxLimit, updated));
+      if (updated == current) {
+        return;
+      }
+      limit = updated;
+    }
+    if (metrics != null) {
+      metrics.concurrencyLimitChanged(address, updated);
+    }
+  }
+}
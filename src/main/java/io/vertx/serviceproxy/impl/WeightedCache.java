@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.impl;
+
+import io.vertx.serviceproxy.EvictionPolicy;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.TreeMap;
+
+/**
+ * A cache bounded both in number and in weight of its entries, evicting first its least recently or least frequently
+ * used entries, entries also expire after a time to live.
+ * <p>
+ * The least frequently used entry is found in logarithmic time from the entries grouped by use count. The cache counts
+ * its hits and misses.
+ */
+public class WeightedCache<K, V> {
+
+  private final int maxSize;
+  private final long maxWeight;
+  private final long ttlNanos;
+  private final boolean lfu;
+  private final LinkedHashMap<K, Entry<K, V>> entries;
+  private final TreeMap<Long, LinkedHashSet<K>> frequencies = new TreeMap<>();
+  private long weight;
+  private long hits;
+  private long misses;
+
+  /**
+   * @param maxSize   the maximum number of entries
+   * @param maxWeight the maximum total weight of the entries
+   * @param ttl       the time to live of the entries in milliseconds
+   * @param policy    the eviction policy
+   */
+  public WeightedCache(int maxSize, long maxWeight, long ttl, EvictionPolicy policy) {
+    this.maxSize = maxSize;
+    this.maxWeight = maxWeight;
+    this.ttlNanos = ttl * 1_000_000L;
+    this.lfu = policy == EvictionPolicy.LFU;
+    // in access order, the first entry is the least recently used one
+    this.entries = new LinkedHashMap<>(16, 0.75f, !lfu);
+  }
+
+  /**
+   * @return the value of {@code key} or {@code null} when the value is missing or has expired
+   */
+  public synchronized V get(K key) {
+    Entry<K, V> entry = entries.get(key);
+    if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+      remove(key);
+      entry = null;
+    }
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    if (lfu) {
+      unlinkFrequency(entry);
+      entry.frequency++;
+      linkFrequency(entry);
+    }
+    return entry.value;
+  }
+
+  /**
+   * Put a value, evicting entries until it fits.
+   *
+   * @return {@code false} when the value is heavier than the cache and was not put
+   */
+  public synchronized boolean put(K key, V value, long weight) {
+    if (weight > maxWeight) {
+      return false;
+    }
+    remove(key);
+    while (entries.size() >= maxSize || this.weight + weight > maxWeight) {
+      evict();
+    }
+    Entry<K, V> entry = new Entry<>(key, value, weight, System.nanoTime() + ttlNanos);
+    entries.put(key, entry);
+    this.weight += weight;
+    if (lfu) {
+      linkFrequency(entry);
+    }
+    return true;
+  }
+
+  public synchronized void remove(K key) {
+    Entry<K, V> entry = entries.remove(key);
+    if (entry != null) {
+      unlink(entry);
+    }
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    frequencies.clear();
+    weight = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return the total weight of the entries
+   */
+  public synchronized long weight() {
+    return weight;
+  }
+
+  public synchronized long hits() {
+    return hits;
+  }
+
+  public synchronized long misses() {
+    return misses;
+  }
+
+  private void evict() {
+    K victim;
+    if (lfu) {
+      victim = frequencies.firstEntry().getValue().iterator().next();
+    } else {
+      victim = entries.keySet().iterator().next();
+    }
+    remove(victim);
+  }
+
+  private void unlink(Entry<K, V> entry) {
+    weight -= entry.weight;
+    if (lfu) {
+      unlinkFrequency(entry);
+    }
+  }
+
+  private void linkFrequency(Entry<K, V> entry) {
+    frequencies.computeIfAbsent(entry.frequency, f -> new LinkedHashSet<>()).add(entry.key);
+  }
+
+  private void unlinkFrequency(Entry<K, V> entry) {
+    LinkedHashSet<K> keys = frequencies.get(entry.frequency);
+    keys.remove(entry.key);
+    if (keys.isEmpty()) {
+      frequencies.remove(entry.frequency);
+    }
+  }
+
+  private static final class Entry<K, V> {
+
+    final K key;
+    final V value;
+    final long weight;
+    final long expiresAt;
+    long frequency = 1;
+
+    Entry(K key, V value, long weight, long expiresAt) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -9,9 +9,12 @@ module io.vertx.serviceproxy {
   requires java.compiler;
 
   exports io.vertx.serviceproxy;
+  exports io.vertx.serviceproxy.annotations;
   exports io.vertx.serviceproxy.generator;
   exports io.vertx.serviceproxy.generator.model;
   exports io.vertx.serviceproxy.impl to io.vertx.serviceproxy.tests;
   exports io.vertx.serviceproxy.impl.utils to io.vertx.serviceproxy.tests;
 
+  uses io.vertx.serviceproxy.ServiceProxyFactory;
+
 }
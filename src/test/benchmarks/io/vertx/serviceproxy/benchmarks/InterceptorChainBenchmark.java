@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.benchmarks;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceInterceptor;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.tests.testmodel.OKService;
+import io.vertx.serviceproxy.tests.testmodel.OKServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local round trips through a service registered with a chain of pass-through interceptors, half of them being
+ * bound to the invoked action and the other half to every action.
+ */
+@State(Scope.Benchmark)
+public class InterceptorChainBenchmark extends BenchmarkBase {
+
+  private static final String ADDRESS = "benchmarks.interceptors";
+
+  @Param({"0", "1", "4", "16"})
+  public int interceptors;
+
+  private Vertx vertx;
+  private MessageConsumer<JsonObject> consumer;
+  private OKService proxy;
+
+  @Setup
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    ServiceInterceptor interceptor = (vertx, context, msg) -> Future.succeededFuture(msg);
+    ServiceBinder binder = new ServiceBinder(vertx).setAddress(ADDRESS);
+    for (int i = 0; i < interceptors; i++) {
+      if (i % 2 == 0) {
+        binder.addInterceptor(interceptor);
+      } else {
+        binder.addInterceptor("ok", interceptor);
+      }
+    }
+    consumer = binder.register(OKService.class, new OKServiceImpl());
+    consumer.completion().await(20, TimeUnit.SECONDS);
+    proxy = new ServiceProxyBuilder(vertx).setAddress(ADDRESS).build(OKService.class);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    consumer.unregister().await(20, TimeUnit.SECONDS);
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public String roundTrip() throws Exception {
+    return proxy.ok().await(20, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.benchmarks;
+
+import io.vertx.core.Vertx;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.tests.testmodel.BinaryCodecService;
+import io.vertx.serviceproxy.tests.testmodel.OKService;
+import io.vertx.serviceproxy.tests.testmodel.OKServiceVertxEBProxy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of proxies, as done for the connections returned by a service, run with {@code -prof gc} to observe the
+ * allocations per proxy.
+ */
+@State(Scope.Benchmark)
+public class ProxyCreationBenchmark extends BenchmarkBase {
+
+  private static final String ADDRESS = "benchmarks.creation";
+
+  private Vertx vertx;
+
+  @Setup
+  public void setup() {
+    vertx = Vertx.vertx();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public OKService generatedConstructor() {
+    return new OKServiceVertxEBProxy(vertx, ADDRESS);
+  }
+
+  @Benchmark
+  public OKService builder() {
+    return new ServiceProxyBuilder(vertx).setAddress(ADDRESS).build(OKService.class);
+  }
+
+  @Benchmark
+  public BinaryCodecService builderWithBinaryCodec() {
+    return new ServiceProxyBuilder(vertx).setAddress(ADDRESS).build(BinaryCodecService.class);
+  }
+}
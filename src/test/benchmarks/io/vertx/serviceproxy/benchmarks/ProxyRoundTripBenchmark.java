@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.benchmarks;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.tests.testmodel.BinaryCodecService;
+import io.vertx.serviceproxy.tests.testmodel.OKService;
+import io.vertx.serviceproxy.tests.testmodel.OKServiceImpl;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips through a generated {@code VertxEBProxy} / {@code VertxProxyHandler} pair, either within a single
+ * Vert.x instance or between two nodes of a {@link FakeClusterManager} cluster.
+ */
+@State(Scope.Benchmark)
+public class ProxyRoundTripBenchmark extends BenchmarkBase {
+
+  private static final String OK_ADDRESS = "benchmarks.ok";
+  private static final String ECHO_ADDRESS = "benchmarks.echo";
+
+  @Param({"local", "clustered"})
+  public String mode;
+
+  private Vertx serverNode;
+  private Vertx clientNode;
+  private MessageConsumer<JsonObject> okConsumer;
+  private MessageConsumer<JsonObject> echoConsumer;
+  private OKService okProxy;
+  private BinaryCodecService echoProxy;
+  private JsonObject obj;
+  private List<String> list;
+
+  @Setup
+  public void setup() throws Exception {
+    if ("clustered".equals(mode)) {
+      serverNode = clusteredNode();
+      clientNode = clusteredNode();
+    } else {
+      serverNode = Vertx.vertx();
+      clientNode = serverNode;
+    }
+    BinaryCodecService echo = (str, i, l, d, b, obj, list) -> Future.succeededFuture(obj);
+    okConsumer = new ServiceBinder(serverNode).setAddress(OK_ADDRESS).register(OKService.class, new OKServiceImpl());
+    echoConsumer = new ServiceBinder(serverNode).setAddress(ECHO_ADDRESS).register(BinaryCodecService.class, echo);
+    okConsumer.completion().await(20, TimeUnit.SECONDS);
+    echoConsumer.completion().await(20, TimeUnit.SECONDS);
+    okProxy = new ServiceProxyBuilder(clientNode).setAddress(OK_ADDRESS).build(OKService.class);
+    echoProxy = new ServiceProxyBuilder(clientNode).setAddress(ECHO_ADDRESS).build(BinaryCodecService.class);
+    obj = new JsonObject().put("name", "vert.x").put("version", 5).put("tags", Arrays.asList("a", "b", "c"));
+    list = Arrays.asList("one", "two", "three");
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    okConsumer.unregister().await(20, TimeUnit.SECONDS);
+    echoConsumer.unregister().await(20, TimeUnit.SECONDS);
+    if (clientNode != serverNode) {
+      clientNode.close().await(20, TimeUnit.SECONDS);
+    }
+    serverNode.close().await(20, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public String noArguments() throws Exception {
+    return okProxy.ok().await(20, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public JsonObject arguments() throws Exception {
+    return echoProxy.echo("str", 1, 2L, 3.0, true, obj, list).await(20, TimeUnit.SECONDS);
+  }
+
+  private static Vertx clusteredNode() throws Exception {
+    VertxOptions options = new VertxOptions();
+    options.getEventBusOptions().setHost("127.0.0.1");
+    return Vertx.builder()
+      .with(options)
+      .withClusterManager(new FakeClusterManager())
+      .buildClustered()
+      .await(20, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.benchmarks;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ProxyUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversion of large decoded payloads by {@link ProxyUtils#convertList(List)}, {@link ProxyUtils#convertMap(Map)} and
+ * {@link ProxyUtils#convertNumberList}.
+ */
+@State(Scope.Thread)
+public class ProxyUtilsBenchmark extends BenchmarkBase {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  private List<Object> numbers;
+  private List<Object> objects;
+  private Map<String, Object> objectMap;
+
+  @Setup
+  public void setup() {
+    numbers = new ArrayList<>(size);
+    objects = new ArrayList<>(size);
+    objectMap = new HashMap<>(size * 2);
+    for (int i = 0; i < size; i++) {
+      Map<String, Object> obj = new JsonObject().put("id", i).put("name", "item-" + i).getMap();
+      numbers.add(i);
+      objects.add(obj);
+      objectMap.put("key-" + i, obj);
+    }
+  }
+
+  @Benchmark
+  public List<Integer> convertNumberList() {
+    return ProxyUtils.convertList(numbers);
+  }
+
+  @Benchmark
+  public List<Integer> convertIntegerList() {
+    return ProxyUtils.convertNumberList(numbers, Integer.class, Number::intValue);
+  }
+
+  @Benchmark
+  public List<Long> convertLongList() {
+    return ProxyUtils.convertNumberList(numbers, Long.class, Number::longValue);
+  }
+
+  @Benchmark
+  public List<JsonObject> convertObjectList() {
+    return ProxyUtils.convertList(objects);
+  }
+
+  @Benchmark
+  public Map<String, JsonObject> convertObjectMap() {
+    return ProxyUtils.convertMap(objectMap);
+  }
+
+  @Benchmark
+  public List<JsonObject> convertObjectArray() {
+    return ProxyUtils.convertList(new JsonArray(objects).getList());
+  }
+}
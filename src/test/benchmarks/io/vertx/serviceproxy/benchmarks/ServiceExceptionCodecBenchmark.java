@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.benchmarks;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.HelperUtils;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceExceptionMessageCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Wire encoding and decoding of a {@link ServiceException} with and without debug info.
+ */
+@State(Scope.Thread)
+public class ServiceExceptionCodecBenchmark extends BenchmarkBase {
+
+  @Param({"false", "true"})
+  public boolean debugInfo;
+
+  private ServiceExceptionMessageCodec codec;
+  private ServiceException exception;
+  private Buffer encoded;
+
+  @Setup
+  public void setup() {
+    codec = new ServiceExceptionMessageCodec();
+    JsonObject info = debugInfo ? HelperUtils.generateDebugInfo(new IllegalStateException("boom")) : new JsonObject();
+    exception = new ServiceException(500, "Something went wrong", info);
+    encoded = Buffer.buffer();
+    codec.encodeToWire(encoded, exception);
+  }
+
+  @Benchmark
+  public Buffer encode() {
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, exception);
+    return buffer;
+  }
+
+  @Benchmark
+  public ServiceException decode() {
+    return codec.decodeFromWire(0, encoded);
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ProxyTransport;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.impl.BatchingProxyTransport;
+import io.vertx.serviceproxy.tests.testmodel.TestConnection;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProxyBatchingTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "batched.service";
+
+  private MessageConsumer<JsonObject> consumer;
+  private AtomicInteger requests;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    consumer = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).register(TestService.class, TestService.create(vertx));
+    requests = new AtomicInteger();
+    vertx.eventBus().addOutboundInterceptor(ctx -> {
+      if (SERVICE_ADDRESS.equals(ctx.message().address())) {
+        requests.incrementAndGet();
+      }
+      ctx.next();
+    });
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  @Test
+  public void testSameTickBatch() {
+    TestService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setBatchWindow(0)
+      .build(TestService.class);
+    vertx.runOnContext(v -> {
+      Future<String> str = proxy.stringHandler();
+      Future<Byte> b = proxy.byteHandler();
+      Future<Short> s = proxy.shortHandler();
+      Future<Long> l = proxy.longHandler();
+      Future<Float> f = proxy.floatHandler();
+      Future<Double> d = proxy.doubleHandler();
+      Future<Character> c = proxy.charHandler();
+      Future<JsonObject> json = proxy.jsonObjectHandler();
+      Future<String> nullStr = proxy.stringNullHandler();
+      Future.join(Arrays.asList(str, b, s, l, f, d, c, json, nullStr)).onComplete(onSuccess(res -> {
+        assertEquals(1, requests.get());
+        assertEquals("foobar", str.result());
+        assertEquals(Byte.valueOf((byte) 123), b.result());
+        assertEquals(Short.valueOf((short) 1234), s.result());
+        assertEquals(Long.valueOf(123456L), l.result());
+        assertEquals(Float.valueOf(12.34f), f.result());
+        assertEquals(Double.valueOf(12.3456d), d.result());
+        assertEquals(Character.valueOf('X'), c.result());
+        assertEquals(new JsonObject().put("blah", "wibble"), json.result());
+        assertNull(nullStr.result());
+        testComplete();
+      }));
+    });
+    await();
+  }
+
+  @Test
+  public void testBatchFailures() {
+    TestService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setBatchWindow(0)
+      .build(TestService.class);
+    vertx.runOnContext(v -> {
+      Future<JsonObject> failed = proxy.failingCall("Fail");
+      Future<JsonObject> succeeded = proxy.failingCall("Succeed");
+      Future<JsonObject> failing = proxy.failingMethod();
+      Future.join(failed, succeeded, failing).onComplete(res -> {
+        assertEquals(1, requests.get());
+        ServiceException cause = (ServiceException) failed.cause();
+        assertEquals(25, cause.failureCode());
+        assertEquals("Call has failed", cause.getMessage());
+        assertEquals(new JsonObject().put("test", "val"), cause.getDebugInfo());
+        assertTrue(succeeded.succeeded());
+        assertEquals("wibble", failing.cause().getMessage());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testMaxBatchSize() {
+    TestService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setBatchWindow(10_000)
+      .setMaxBatchSize(2)
+      .build(TestService.class);
+    Future.join(proxy.stringHandler(), proxy.intHandler()).onComplete(onSuccess(res -> {
+      assertEquals(1, requests.get());
+      assertEquals("foobar", res.resultAt(0));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testProxyResult() {
+    TestService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setBatchWindow(0)
+      .build(TestService.class);
+    vertx.runOnContext(v -> {
+      Future<TestConnection> conn = proxy.createConnection("foo");
+      Future<String> str = proxy.stringHandler();
+      Future.join(conn, str).compose(res -> {
+        assertEquals(1, requests.get());
+        return conn.result().startTransaction();
+      }).onComplete(onSuccess(res -> {
+        assertEquals("foo", res);
+        testComplete();
+      }));
+    });
+    await();
+  }
+
+  @Test
+  public void testCallTimeoutWithinBatch() {
+    BatchingProxyTransport transport = new BatchingProxyTransport(vertx, ProxyTransport.eventBus(vertx), 0, 16);
+    vertx.runOnContext(v -> {
+      long start = System.currentTimeMillis();
+      Future<Message<Object>> slow = transport.request(SERVICE_ADDRESS, new JsonObject(),
+        new DeliveryOptions().addHeader("action", "longDeliverySuccess").setSendTimeout(30_000));
+      Future<Message<Object>> timedOut = transport.request(SERVICE_ADDRESS, new JsonObject(),
+        new DeliveryOptions().addHeader("action", "longDeliverySuccess").setSendTimeout(200));
+      timedOut.onComplete(onFailure(err -> {
+        // the call fails after its own timeout, not the timeout of the batch
+        assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) err).failureType());
+        assertTrue(System.currentTimeMillis() - start < 5_000);
+        assertFalse(slow.isComplete());
+        assertEquals(1, requests.get());
+        testComplete();
+      }));
+    });
+    await();
+  }
+}
@@ -17,14 +17,18 @@
 package io.vertx.serviceproxy.tests;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.KeyStoreOptions;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.authorization.AuthorizationProvider;
 import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.auth.jwt.JWTAuthOptions;
 import io.vertx.ext.auth.jwt.authorization.JWTAuthorization;
+import io.vertx.serviceproxy.AuthCacheOptions;
 import io.vertx.serviceproxy.AuthenticationInterceptor;
 import io.vertx.serviceproxy.AuthorizationInterceptor;
 import io.vertx.serviceproxy.ServiceBinder;
@@ -36,6 +40,9 @@ import org.junit.Test;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SecureServiceBinderTest extends VertxTestBase {
 
@@ -49,6 +56,7 @@ public class SecureServiceBinderTest extends VertxTestBase {
   private OKService proxy, localProxy;
   private final long exp = LocalDateTime.now().plusDays(1).toEpochSecond(ZoneOffset.UTC);
   private String jwtValidToken;
+  private JWTAuth authProvider;
 
   private JWTAuthOptions getJWTConfig() {
     return new JWTAuthOptions()
@@ -62,7 +70,7 @@ public class SecureServiceBinderTest extends VertxTestBase {
   public void setUp() throws Exception {
     super.setUp();
 
-    JWTAuth authProvider = JWTAuth.create(vertx, getJWTConfig());
+    authProvider = JWTAuth.create(vertx, getJWTConfig());
     jwtValidToken = authProvider.generateToken(new JsonObject(JWT_CLAIMS).put("exp", exp));
 
     OKService service = new OKServiceImpl();
@@ -164,6 +172,117 @@ public class SecureServiceBinderTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testCachedAuthentication() {
+    AuthenticationInterceptor authn = AuthenticationInterceptor.create(authProvider, new AuthCacheOptions().setMaxSize(16));
+    MessageConsumer<JsonObject> cachedConsumer = new ServiceBinder(vertx)
+      .setAddress("someaddress.cached")
+      .addInterceptor(authn)
+      .register(OKService.class, new OKServiceImpl());
+    OKService cachedProxy = new ServiceProxyBuilder(vertx)
+      .setAddress("someaddress.cached")
+      .setToken(jwtValidToken)
+      .build(OKService.class);
+    cachedProxy.ok()
+      .compose(res -> cachedProxy.ok())
+      .onComplete(onSuccess(res -> {
+        assertEquals(1, authn.cacheMissCount());
+        assertEquals(1, authn.cacheHitCount());
+        cachedConsumer.unregister();
+        testComplete();
+      }));
+    await();
+  }
+
+  @Test
+  public void testCachedAuthenticationCopiesUser() {
+    List<User> users = new CopyOnWriteArrayList<>();
+    MessageConsumer<JsonObject> cachedConsumer = new ServiceBinder(vertx)
+      .setAddress("someaddress.cached")
+      .addInterceptor(AuthenticationInterceptor.create(authProvider, new AuthCacheOptions()))
+      .addInterceptor((v, context, msg) -> {
+        users.add((User) context.get("user"));
+        return Future.succeededFuture(msg);
+      })
+      .register(OKService.class, new OKServiceImpl());
+    OKService cachedProxy = new ServiceProxyBuilder(vertx)
+      .setAddress("someaddress.cached")
+      .setToken(jwtValidToken)
+      .build(OKService.class);
+    cachedProxy.ok()
+      .compose(res -> cachedProxy.ok())
+      .compose(res -> cachedProxy.ok())
+      .onComplete(onSuccess(res -> {
+        assertEquals(3, users.size());
+        // the calls served from the cache must not share a user the other interceptors could modify
+        assertNotSame(users.get(1), users.get(2));
+        assertEquals(users.get(0).principal(), users.get(1).principal());
+        assertEquals(users.get(1).principal(), users.get(2).principal());
+        cachedConsumer.unregister();
+        testComplete();
+      }));
+    await();
+  }
+
+  @Test
+  public void testCachedAuthenticationWithoutToken() {
+    AuthenticationInterceptor authn = AuthenticationInterceptor.create(authProvider, new AuthCacheOptions());
+    MessageConsumer<JsonObject> cachedConsumer = new ServiceBinder(vertx)
+      .setAddress("someaddress.cached")
+      .addInterceptor(authn)
+      .register(OKService.class, new OKServiceImpl());
+    OKService cachedProxy = new ServiceProxyBuilder(vertx)
+      .setAddress("someaddress.cached")
+      .build(OKService.class);
+    cachedProxy.ok().onComplete(res -> {
+      cachedConsumer.unregister();
+      checkResult(res);
+    });
+    await();
+  }
+
+  @Test
+  public void testCachedAuthorization() {
+    AtomicInteger lookups = new AtomicInteger();
+    AuthorizationProvider permissions = JWTAuthorization.create("permissions");
+    AuthorizationInterceptor authz = AuthorizationInterceptor.create(new AuthorizationProvider() {
+        @Override
+        public String getId() {
+          return permissions.getId();
+        }
+        @Override
+        public Future<Void> getAuthorizations(User user) {
+          lookups.incrementAndGet();
+          return permissions.getAuthorizations(user);
+        }
+      }, new AuthCacheOptions())
+      .addAuthorization(PermissionBasedAuthorization.create("write"));
+    MessageConsumer<JsonObject> cachedConsumer = new ServiceBinder(vertx)
+      .setAddress("someaddress.cached")
+      .addInterceptor(AuthenticationInterceptor.create(authProvider))
+      .addInterceptor(authz)
+      .register(OKService.class, new OKServiceImpl());
+    OKService cachedProxy = new ServiceProxyBuilder(vertx)
+      .setAddress("someaddress.cached")
+      .setToken(jwtValidToken)
+      .build(OKService.class);
+    cachedProxy.ok()
+      .compose(res -> cachedProxy.ok())
+      .compose(res -> {
+        assertEquals(1, lookups.get());
+        // requiring a new authority forgets the previous decisions
+        authz.addAuthorization(PermissionBasedAuthorization.create("delete"));
+        return cachedProxy.ok();
+      })
+      .onComplete(onFailure(err -> {
+        assertEquals(2, lookups.get());
+        assertEquals(403, ((ReplyException) err).failureCode());
+        cachedConsumer.unregister();
+        testComplete();
+      }));
+    await();
+  }
+
   private void checkResult(AsyncResult<String> res) {
     assertTrue(res.failed());
     ReplyException t = (ReplyException) res.cause();
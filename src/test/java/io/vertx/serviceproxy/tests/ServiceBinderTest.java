@@ -16,15 +16,28 @@
 
 package io.vertx.serviceproxy.tests;
 
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ProxyHandler;
 import io.vertx.serviceproxy.ServiceBinder;
 import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.impl.LocalMessage;
 import io.vertx.serviceproxy.tests.testmodel.OKService;
 import io.vertx.serviceproxy.tests.testmodel.OKServiceImpl;
+import io.vertx.serviceproxy.tests.testmodel.OKServiceVertxProxyHandler;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.serviceproxy.tests.testmodel.TestServiceVertxProxyHandler;
 import io.vertx.test.core.VertxTestBase;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ServiceBinderTest extends VertxTestBase {
 
   private final static String SERVICE_ADDRESS = "someaddress";
@@ -73,4 +86,107 @@ public class ServiceBinderTest extends VertxTestBase {
     });
     await();
   }
+
+  @Test
+  public void testActionOrdinals() throws Exception {
+    OKServiceVertxProxyHandler handler = new OKServiceVertxProxyHandler(vertx, new OKServiceImpl());
+    assertEquals(Arrays.asList("ok"), Arrays.asList(handler.actions()));
+    assertEquals(0, handler.actionOrdinal("ok"));
+    assertEquals(-1, handler.actionOrdinal("ko"));
+    assertEquals(-1, handler.actionOrdinal(null));
+    assertEquals(0, handler.actionOrdinal(call("ok", "0")));
+    // an ordinal designating another action or malformed is ignored, the call is dispatched by name
+    assertEquals(0, handler.actionOrdinal(call("ok", "3")));
+    assertEquals(0, handler.actionOrdinal(call("ok", "-1")));
+    assertEquals(0, handler.actionOrdinal(call("ok", null)));
+    assertEquals(-1, handler.actionOrdinal(call("ko", "0")));
+    String[] actions = new TestServiceVertxProxyHandler(vertx, TestService.create(vertx)).actions();
+    String[] sorted = actions.clone();
+    Arrays.sort(sorted);
+    assertTrue(actions.length > 1);
+    assertEquals(Arrays.asList(sorted), Arrays.asList(actions));
+  }
+
+  private static Message<JsonObject> call(String action, String ordinal) {
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("action", action);
+    if (ordinal != null) {
+      headers.add(ProxyHandler.ORDINAL_HEADER, ordinal);
+    }
+    return new LocalMessage<>(SERVICE_ADDRESS, headers, new JsonObject(), null);
+  }
+
+  @Test
+  public void testDispatchWithoutOrdinal() {
+    // clients generated before the ordinals only send the action
+    vertx.eventBus().<JsonObject>request(SERVICE_ADDRESS, new JsonObject(), new DeliveryOptions().addHeader("action", "ok"))
+      .onComplete(onSuccess(reply -> {
+        assertEquals("ok", reply.body());
+        testComplete();
+      }));
+    await();
+  }
+
+  @Test
+  public void testActionInterceptor() {
+    AtomicInteger okCount = new AtomicInteger();
+    AtomicInteger koCount = new AtomicInteger();
+    MessageConsumer<JsonObject> intercepted = new ServiceBinder(vertx)
+      .setAddress("someaddress.intercepted")
+      .addInterceptor("ok", (v, context, msg) -> {
+        okCount.incrementAndGet();
+        return Future.succeededFuture(msg);
+      })
+      .addInterceptor("ko", (v, context, msg) -> {
+        koCount.incrementAndGet();
+        return Future.succeededFuture(msg);
+      })
+      .register(OKService.class, new OKServiceImpl());
+    OKService interceptedProxy = new ServiceProxyBuilder(vertx).setAddress("someaddress.intercepted").build(OKService.class);
+    interceptedProxy.ok().onComplete(onSuccess(res -> {
+      assertEquals(1, okCount.get());
+      assertEquals(0, koCount.get());
+      intercepted.unregister();
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testInterceptorContextPerMessage() {
+    MessageConsumer<JsonObject> intercepted = new ServiceBinder(vertx)
+      .setAddress("someaddress.context")
+      .addInterceptor((v, context, msg) -> {
+        assertNull(context.put("seen", true));
+        // complete asynchronously so the calls interleave
+        return v.timer(10).map(msg);
+      })
+      .addInterceptor((v, context, msg) -> {
+        assertEquals(Boolean.TRUE, context.get("seen"));
+        return Future.succeededFuture(msg);
+      })
+      .register(OKService.class, new OKServiceImpl());
+    OKService interceptedProxy = new ServiceProxyBuilder(vertx).setAddress("someaddress.context").build(OKService.class);
+    Future.all(interceptedProxy.ok(), interceptedProxy.ok(), interceptedProxy.ok()).onComplete(onSuccess(res -> {
+      intercepted.unregister();
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testInterceptorFailure() {
+    MessageConsumer<JsonObject> intercepted = new ServiceBinder(vertx)
+      .setAddress("someaddress.failure")
+      .addInterceptor((v, context, msg) -> Future.failedFuture(new IllegalStateException("boom")))
+      .register(OKService.class, new OKServiceImpl());
+    OKService interceptedProxy = new ServiceProxyBuilder(vertx).setAddress("someaddress.failure").build(OKService.class);
+    interceptedProxy.ok().onComplete(onFailure(err -> {
+      assertTrue(err instanceof ReplyException);
+      assertEquals(500, ((ReplyException) err).failureCode());
+      assertEquals("boom", err.getMessage());
+      intercepted.unregister();
+      testComplete();
+    }));
+    await();
+  }
 }
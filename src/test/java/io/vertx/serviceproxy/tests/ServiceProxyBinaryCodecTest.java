@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceProxyBinaryCodec;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.tests.testmodel.BinaryCodecService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class ServiceProxyBinaryCodecTest extends VertxTestBase {
+
+  @Test
+  public void testRoundTrip() {
+    ServiceProxyBinaryCodec codec = new ServiceProxyBinaryCodec("test", "str", "i");
+    JsonObject json = new JsonObject()
+      .put("str", "hello é")
+      .put("i", -12345)
+      .put("l", Long.MAX_VALUE)
+      .put("d", 3.5d)
+      .put("b", true)
+      .putNull("n")
+      .put("buff", Buffer.buffer("bytes"))
+      .put("obj", new JsonObject().put("str", "nested").put("unknown", 1))
+      .put("arr", new JsonArray().add(1).add("two").add(new JsonArray().add(3L)));
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, json);
+    JsonObject decoded = codec.decodeFromWire(0, buffer);
+    assertEquals(json, decoded);
+    assertEquals(Long.MAX_VALUE, (long) decoded.getLong("l"));
+    assertEquals(Buffer.buffer("bytes"), decoded.getBuffer("buff"));
+  }
+
+  @Test
+  public void testDictionaryIsSmallerThanNames() {
+    JsonObject json = new JsonObject().put("collection", "c").put("document", new JsonObject());
+    Buffer withDictionary = Buffer.buffer();
+    new ServiceProxyBinaryCodec("test", "collection", "document").encodeToWire(withDictionary, json);
+    Buffer withoutDictionary = Buffer.buffer();
+    new ServiceProxyBinaryCodec("test").encodeToWire(withoutDictionary, json);
+    assertTrue(withDictionary.length() < withoutDictionary.length());
+    assertTrue(withDictionary.length() < json.toBuffer().length());
+  }
+
+  @Test
+  public void testPackedArrays() {
+    ServiceProxyBinaryCodec codec = new ServiceProxyBinaryCodec("test");
+    JsonArray ints = new JsonArray();
+    JsonArray longs = new JsonArray();
+    JsonArray doubles = new JsonArray();
+    for (int i = 0; i < 1000; i++) {
+      ints.add(i - 500);
+      longs.add(Long.MAX_VALUE - i);
+      doubles.add(i / 3d);
+    }
+    JsonObject json = new JsonObject()
+      .put("ints", ints)
+      .put("longs", longs)
+      .put("doubles", doubles)
+      .put("mixed", new JsonArray().add(1).add(2L).add(3));
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, json);
+    JsonObject decoded = codec.decodeFromWire(0, buffer);
+    assertEquals(json, decoded);
+    assertEquals(Long.class, decoded.getJsonArray("longs").getValue(0).getClass());
+    assertEquals(Long.class, decoded.getJsonArray("mixed").getValue(1).getClass());
+    assertTrue(buffer.length() < json.toBuffer().length());
+  }
+
+  @Test
+  public void testProxy() {
+    BinaryCodecService service = (str, i, l, d, b, obj, list) -> Future.succeededFuture(new JsonObject()
+      .put("str", str)
+      .put("i", i)
+      .put("l", l)
+      .put("d", d)
+      .put("b", b)
+      .put("obj", obj)
+      .put("list", new JsonArray(list)));
+    MessageConsumer<JsonObject> consumer = new ServiceBinder(vertx)
+      .setAddress("binary.service")
+      .register(BinaryCodecService.class, service);
+    BinaryCodecService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress("binary.service")
+      .build(BinaryCodecService.class);
+    proxy.echo("foo", 1, 2L, 3.0, true, new JsonObject().put("bar", "baz"), Arrays.asList("a", "b")).onComplete(onSuccess(res -> {
+      assertEquals("foo", res.getString("str"));
+      assertEquals(1, (int) res.getInteger("i"));
+      assertEquals(2L, (long) res.getLong("l"));
+      assertEquals(3.0, res.getDouble("d"), 0.0);
+      assertTrue(res.getBoolean("b"));
+      assertEquals(new JsonObject().put("bar", "baz"), res.getJsonObject("obj"));
+      assertEquals(new JsonArray().add("a").add("b"), res.getJsonArray("list"));
+      consumer.unregister();
+      testComplete();
+    }));
+    await();
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.impl.BufferEnvelopeCodec;
+import io.vertx.serviceproxy.impl.SharedBufferCodec;
+import io.vertx.serviceproxy.tests.testmodel.BufferService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+public class ServiceProxyBufferTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "buffer.service";
+
+  private MessageConsumer<JsonObject> consumer;
+  private BufferService proxy;
+  private Buffer received;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    BufferService service = new BufferService() {
+      @Override
+      public Future<Buffer> echo(Buffer data) {
+        received = data;
+        return Future.succeededFuture(data);
+      }
+      @Override
+      public Future<Integer> length(String name, Buffer data) {
+        return Future.succeededFuture(name.length() + data.length());
+      }
+      @Override
+      public Future<Buffer> nothing() {
+        return Future.succeededFuture();
+      }
+    };
+    consumer = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).register(BufferService.class, service);
+    proxy = new ServiceProxyBuilder(vertx).setAddress(SERVICE_ADDRESS).build(BufferService.class);
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  @Test
+  public void testLocalBuffersAreNotCopied() {
+    Buffer data = Buffer.buffer("some bytes");
+    proxy.echo(data).onComplete(onSuccess(res -> {
+      assertSame(data, received);
+      assertSame(data, res);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testBufferWithOtherArguments() {
+    proxy.length("foo", Buffer.buffer(new byte[1024])).onComplete(onSuccess(res -> {
+      assertEquals(1027, (int) res);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testNullBuffer() {
+    proxy.nothing().onComplete(onSuccess(res -> {
+      assertNull(res);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testEnvelopeWireFormat() {
+    BufferEnvelopeCodec codec = new BufferEnvelopeCodec();
+    byte[] bytes = new byte[256];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    JsonObject envelope = new JsonObject().put("name", "foo").put("data", Buffer.buffer(bytes));
+    Buffer wire = Buffer.buffer();
+    codec.encodeToWire(wire, envelope);
+    assertTrue(wire.length() < envelope.toBuffer().length());
+    JsonObject decoded = codec.decodeFromWire(0, wire);
+    assertEquals("foo", decoded.getString("name"));
+    assertEquals(Buffer.buffer(bytes), decoded.getBuffer("data"));
+  }
+
+  @Test
+  public void testResultWireFormat() {
+    SharedBufferCodec codec = new SharedBufferCodec();
+    Buffer wire = Buffer.buffer("prefix");
+    codec.encodeToWire(wire, Buffer.buffer("result"));
+    assertEquals(Buffer.buffer("result"), codec.decodeFromWire(6, wire));
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.AdaptiveLimitOptions;
+import io.vertx.serviceproxy.BulkheadOptions;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.serviceproxy.tests.testmodel.impl.TestServiceImpl;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ServiceProxyBulkheadTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "bulkhead.service";
+
+  private final Queue<Promise<String>> pending = new ConcurrentLinkedQueue<>();
+  private MessageConsumer<JsonObject> consumer;
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  private class PendingService extends TestServiceImpl {
+
+    PendingService(Vertx vertx) throws Exception {
+      super(vertx);
+    }
+
+    @Override
+    public Future<String> stringHandler() {
+      Promise<String> promise = Promise.promise();
+      pending.add(promise);
+      return promise.future();
+    }
+  }
+
+  private TestService bindAndProxy(BulkheadOptions bulkhead) throws Exception {
+    return bindAndProxy(new ServiceBinder(vertx).setBulkhead(bulkhead));
+  }
+
+  private TestService bindAndProxy(ServiceBinder binder) throws Exception {
+    consumer = binder
+      .setAddress(SERVICE_ADDRESS)
+      .register(TestService.class, new PendingService(vertx));
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .build(TestService.class);
+  }
+
+  private static void assertRejected(Throwable err) {
+    assertEquals(BulkheadOptions.REJECTED, ((ServiceException) err).failureCode());
+  }
+
+  @Test
+  public void testRejected() throws Exception {
+    TestService proxy = bindAndProxy(new BulkheadOptions().setMaxConcurrentCalls(2));
+    Future<String> first = proxy.stringHandler();
+    Future<String> second = proxy.stringHandler();
+    assertWaitUntil(() -> pending.size() == 2);
+    proxy.stringHandler().onComplete(onFailure(err -> {
+      assertRejected(err);
+      pending.forEach(promise -> promise.complete("done"));
+      Future.all(first, second).onComplete(onSuccess(v -> testComplete()));
+    }));
+    await();
+  }
+
+  @Test
+  public void testQueued() throws Exception {
+    TestService proxy = bindAndProxy(new BulkheadOptions().setMaxConcurrentCalls(1).setMaxQueueSize(1));
+    Future<String> first = proxy.stringHandler();
+    assertWaitUntil(() -> pending.size() == 1);
+    Future<String> second = proxy.stringHandler();
+    proxy.stringHandler().onComplete(onFailure(err -> {
+      assertRejected(err);
+      assertEquals(1, pending.size());
+      pending.poll().complete("first");
+      first.onComplete(onSuccess(str -> {
+        // the waiting call is dispatched once the first call is replied
+        vertx.setPeriodic(10, id -> {
+          Promise<String> promise = pending.poll();
+          if (promise != null) {
+            vertx.cancelTimer(id);
+            promise.complete("second");
+          }
+        });
+      }));
+      second.onComplete(onSuccess(str -> {
+        assertEquals("second", str);
+        testComplete();
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testActionLimit() throws Exception {
+    TestService proxy = bindAndProxy(new BulkheadOptions().setActionMaxConcurrentCalls("stringHandler", 1));
+    proxy.stringHandler();
+    assertWaitUntil(() -> pending.size() == 1);
+    proxy.stringHandler().onComplete(onFailure(err -> {
+      assertRejected(err);
+      proxy.jsonObjectHandler().onComplete(onSuccess(json -> {
+        assertEquals("wibble", json.getString("blah"));
+        pending.poll().complete("done");
+        testComplete();
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testAdaptiveLimit() throws Exception {
+    List<Integer> limits = new CopyOnWriteArrayList<>();
+    TestService proxy = bindAndProxy(new ServiceBinder(vertx)
+      .setAdaptiveLimit(new AdaptiveLimitOptions().setInitialLimit(1).setMaxLimit(1))
+      .setMetrics(new ServiceProxyMetrics() {
+        @Override
+        public void concurrencyLimitChanged(String address, int limit) {
+          limits.add(limit);
+        }
+      }));
+    Future<String> first = proxy.stringHandler();
+    assertWaitUntil(() -> pending.size() == 1);
+    proxy.stringHandler().onComplete(onFailure(err -> {
+      assertRejected(err);
+      assertEquals(List.of(1), limits);
+      pending.poll().complete("done");
+      first.onComplete(onSuccess(str -> testComplete()));
+    }));
+    await();
+  }
+
+  @Test
+  public void testPermitReleasedAtDeadline() throws Exception {
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setBulkhead(new BulkheadOptions().setMaxConcurrentCalls(1))
+      .register(TestService.class, new PendingService(vertx));
+    TestService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setOptions(new DeliveryOptions().setSendTimeout(200))
+      .setDeadlinePropagation(true)
+      .build(TestService.class);
+    proxy.stringHandler().onComplete(onFailure(err -> {
+      assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) err).failureType());
+      // the service never replied, yet the caller gave up so the permit is released
+      vertx.setTimer(50, id -> {
+        proxy.stringHandler().onComplete(onSuccess(str -> {
+          assertEquals("second", str);
+          testComplete();
+        }));
+        vertx.setPeriodic(10, pid -> {
+          if (pending.size() == 2) {
+            vertx.cancelTimer(pid);
+            pending.forEach(promise -> promise.complete("second"));
+          }
+        });
+      });
+    }));
+    await();
+  }
+}
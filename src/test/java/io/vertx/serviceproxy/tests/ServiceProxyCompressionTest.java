@@ -0,0 +1,234 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.CompressionOptions;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.tests.testmodel.BinaryCodecService;
+import io.vertx.serviceproxy.tests.testmodel.BufferService;
+import io.vertx.serviceproxy.tests.testmodel.SomeEnum;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ServiceProxyCompressionTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "compressed.service";
+
+  private final List<Object> sent = new CopyOnWriteArrayList<>();
+  private final List<String> events = new CopyOnWriteArrayList<>();
+  private MessageConsumer<JsonObject> consumer;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    vertx.eventBus().addOutboundInterceptor(ctx -> {
+      if (SERVICE_ADDRESS.equals(ctx.message().address())) {
+        sent.add(ctx.message().body());
+      }
+      ctx.next();
+    });
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    if (consumer != null) {
+      consumer.unregister();
+    }
+    super.tearDown();
+  }
+
+  private ServiceProxyMetrics metrics(String side) {
+    return new ServiceProxyMetrics() {
+      @Override
+      public void payloadCompressed(String address, String action, int size, int compressedSize, long durationNanos) {
+        assertTrue(compressedSize < size);
+        events.add(side + " compressed " + action);
+      }
+      @Override
+      public void payloadDecompressed(String address, String action, int compressedSize, int size, long durationNanos) {
+        events.add(side + " decompressed " + action);
+      }
+    };
+  }
+
+  private TestService bindAndProxy(CompressionOptions serviceCompression, CompressionOptions proxyCompression) {
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setMetrics(metrics("service"))
+      .setCompression(serviceCompression)
+      .register(TestService.class, TestService.create(vertx));
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setMetrics(metrics("proxy"))
+      .setCompression(proxyCompression)
+      .build(TestService.class);
+  }
+
+  private static JsonObject largeObject() {
+    return new JsonObject().put("foo", "bar").put("padding", "abcdefgh".repeat(512));
+  }
+
+  @Test
+  public void testCompressedCall() {
+    CompressionOptions compression = new CompressionOptions();
+    TestService proxy = bindAndProxy(compression, compression);
+    proxy.invokeWithMessage(largeObject(), "blah", 1234, 'X', SomeEnum.BAR).onComplete(onSuccess(res -> {
+      assertEquals("goats", res);
+      assertEquals(1, sent.size());
+      assertTrue(sent.get(0) instanceof Buffer);
+      assertEquals(List.of("proxy compressed invokeWithMessage", "service decompressed invokeWithMessage"), events);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testSmallCallIsNotCompressed() {
+    CompressionOptions compression = new CompressionOptions();
+    TestService proxy = bindAndProxy(compression, compression);
+    proxy.jsonObjectHandler().onComplete(onSuccess(res -> {
+      assertEquals("wibble", res.getString("blah"));
+      assertTrue(sent.get(0) instanceof JsonObject);
+      assertEquals(List.of(), events);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testCompressedReply() {
+    CompressionOptions compression = new CompressionOptions().setThreshold(0);
+    TestService proxy = bindAndProxy(compression, compression);
+    proxy.jsonObjectHandler().onComplete(onSuccess(res -> {
+      assertEquals("wibble", res.getString("blah"));
+      assertEquals(List.of(
+        "proxy compressed jsonObjectHandler", "service decompressed jsonObjectHandler",
+        "service compressed jsonObjectHandler", "proxy decompressed jsonObjectHandler"), events);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testReplyNotCompressedForPlainCaller() {
+    TestService proxy = bindAndProxy(new CompressionOptions().setThreshold(0), null);
+    proxy.jsonObjectHandler().onComplete(onSuccess(res -> {
+      assertEquals("wibble", res.getString("blah"));
+      assertEquals(List.of(), events);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testDictionary() {
+    CompressionOptions compression = new CompressionOptions().setDictionary(Buffer.buffer("{\"foo\":\"bar\",\"padding\":\"abcdefgh"));
+    TestService proxy = bindAndProxy(compression, compression);
+    proxy.invokeWithMessage(largeObject(), "blah", 1234, 'X', SomeEnum.BAR).onComplete(onSuccess(res -> {
+      assertEquals("goats", res);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testMissingDictionary() {
+    TestService proxy = bindAndProxy(new CompressionOptions(), new CompressionOptions().setDictionary(Buffer.buffer("abcdefgh")));
+    proxy.invokeWithMessage(largeObject(), "blah", 1234, 'X', SomeEnum.BAR).onComplete(onFailure(err -> {
+      assertEquals(400, ((ServiceException) err).failureCode());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testMaxDecompressedSize() {
+    TestService proxy = bindAndProxy(new CompressionOptions().setMaxDecompressedSize(1024), new CompressionOptions());
+    proxy.invokeWithMessage(largeObject(), "blah", 1234, 'X', SomeEnum.BAR).onComplete(onFailure(err -> {
+      assertEquals(400, ((ServiceException) err).failureCode());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testCompressedBinaryCodecCall() {
+    CompressionOptions compression = new CompressionOptions().setThreshold(0);
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setCompression(compression)
+      .register(BinaryCodecService.class, (str, i, l, d, b, obj, list) -> Future.succeededFuture(new JsonObject()
+        .put("str", str)
+        .put("l", l)
+        .put("obj", obj)));
+    BinaryCodecService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setCompression(compression)
+      .build(BinaryCodecService.class);
+    proxy.echo("foo", 1, Long.MAX_VALUE, 3.0, true, largeObject(), List.of("a")).onComplete(onSuccess(res -> {
+      assertTrue(sent.get(0) instanceof Buffer);
+      assertEquals("foo", res.getString("str"));
+      assertEquals(Long.MAX_VALUE, (long) res.getLong("l"));
+      assertEquals(largeObject(), res.getJsonObject("obj"));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testCompressedBufferCall() {
+    Buffer data = Buffer.buffer("abcdefgh".repeat(512));
+    CompressionOptions compression = new CompressionOptions();
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setCompression(compression)
+      .register(BufferService.class, new BufferService() {
+        @Override
+        public Future<Buffer> echo(Buffer data) {
+          return Future.succeededFuture(data);
+        }
+        @Override
+        public Future<Integer> length(String name, Buffer data) {
+          return Future.succeededFuture(name.length() + data.length());
+        }
+        @Override
+        public Future<Buffer> nothing() {
+          return Future.succeededFuture();
+        }
+      });
+    BufferService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setCompression(compression)
+      .build(BufferService.class);
+    proxy.echo(data).onComplete(onSuccess(res -> {
+      assertTrue(sent.get(0) instanceof Buffer);
+      assertEquals(data, res);
+      testComplete();
+    }));
+    await();
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceDeadline;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.serviceproxy.tests.testmodel.impl.TestServiceImpl;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceProxyDeadlineTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "deadline.service";
+  private final static String NESTED_SERVICE_ADDRESS = "deadline.nested.service";
+
+  private final List<MessageConsumer<JsonObject>> consumers = new ArrayList<>();
+  private final AtomicInteger invocations = new AtomicInteger();
+
+  @Override
+  public void tearDown() throws Exception {
+    consumers.forEach(MessageConsumer::unregister);
+    super.tearDown();
+  }
+
+  private class DeadlineService extends TestServiceImpl {
+
+    private final TestService next;
+
+    DeadlineService(Vertx vertx, TestService next) throws Exception {
+      super(vertx);
+      this.next = next;
+    }
+
+    @Override
+    public Future<String> stringHandler() {
+      invocations.incrementAndGet();
+      if (next != null) {
+        return next.stringHandler();
+      }
+      return Future.succeededFuture(String.valueOf(ServiceDeadline.remaining()));
+    }
+  }
+
+  private void bind(String address, TestService next) throws Exception {
+    consumers.add(new ServiceBinder(vertx)
+      .setAddress(address)
+      .register(TestService.class, new DeadlineService(vertx, next)));
+  }
+
+  private TestService proxy(String address, long timeout, boolean deadlinePropagation) {
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(address)
+      .setOptions(new DeliveryOptions().setSendTimeout(timeout))
+      .setDeadlinePropagation(deadlinePropagation)
+      .build(TestService.class);
+  }
+
+  @Test
+  public void testRemainingBudget() throws Exception {
+    bind(SERVICE_ADDRESS, null);
+    proxy(SERVICE_ADDRESS, 5000, true).stringHandler().onComplete(onSuccess(remaining -> {
+      long budget = Long.parseLong(remaining);
+      assertTrue(budget > 0);
+      assertTrue(budget <= 5000);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testNoDeadline() throws Exception {
+    bind(SERVICE_ADDRESS, null);
+    proxy(SERVICE_ADDRESS, 5000, false).stringHandler().onComplete(onSuccess(remaining -> {
+      assertEquals("-1", remaining);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testExpiredCallDropped() throws Exception {
+    bind(SERVICE_ADDRESS, null);
+    DeliveryOptions options = new DeliveryOptions()
+      .addHeader("action", "stringHandler")
+      .addHeader(ServiceDeadline.HEADER, Long.toString(System.currentTimeMillis() - 1));
+    vertx.eventBus().request(SERVICE_ADDRESS, new JsonObject(), options).onComplete(onFailure(err -> {
+      assertEquals(ServiceDeadline.DEADLINE_EXCEEDED, ((ServiceException) err).failureCode());
+      assertEquals(0, invocations.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testNestedCallInheritsDeadline() throws Exception {
+    bind(NESTED_SERVICE_ADDRESS, null);
+    bind(SERVICE_ADDRESS, proxy(NESTED_SERVICE_ADDRESS, 30000, true));
+    proxy(SERVICE_ADDRESS, 2000, true).stringHandler().onComplete(onSuccess(remaining -> {
+      long budget = Long.parseLong(remaining);
+      assertTrue(budget > 0);
+      assertTrue(budget <= 2000);
+      assertEquals(2, invocations.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testNestedCallWithoutPropagation() throws Exception {
+    bind(NESTED_SERVICE_ADDRESS, null);
+    bind(SERVICE_ADDRESS, proxy(NESTED_SERVICE_ADDRESS, 30000, false));
+    proxy(SERVICE_ADDRESS, 2000, true).stringHandler().onComplete(onSuccess(remaining -> {
+      assertEquals("-1", remaining);
+      testComplete();
+    }));
+    await();
+  }
+}
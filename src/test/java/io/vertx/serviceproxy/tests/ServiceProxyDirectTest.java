@@ -0,0 +1,198 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.tests.testmodel.TestConnection;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.serviceproxy.tests.testmodel.impl.TestConnectionImpl;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceProxyDirectTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "direct.service";
+
+  private MessageConsumer<JsonObject> consumer;
+  private AtomicInteger requests;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    requests = new AtomicInteger();
+    vertx.eventBus().addOutboundInterceptor(ctx -> {
+      if (SERVICE_ADDRESS.equals(ctx.message().address())) {
+        requests.incrementAndGet();
+      }
+      ctx.next();
+    });
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  private TestService directProxy(DeliveryOptions options) {
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setOptions(options)
+      .setDirectDispatch(true)
+      .build(TestService.class);
+  }
+
+  @Test
+  public void testDirectDispatch() throws Exception {
+    consumer = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).register(TestService.class, TestService.create(vertx));
+    TestService proxy = directProxy(null);
+    proxy.stringHandler().compose(str -> {
+      assertEquals("foobar", str);
+      return proxy.failingCall("Fail");
+    }).onComplete(onFailure(err -> {
+      ServiceException cause = (ServiceException) err;
+      assertEquals(25, cause.failureCode());
+      assertEquals("Call has failed", cause.getMessage());
+      assertEquals(0, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testFailureMapping() throws Exception {
+    consumer = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).register(TestService.class, TestService.create(vertx));
+    directProxy(null).failingMethod().onComplete(onFailure(err -> {
+      ServiceException cause = (ServiceException) err;
+      assertEquals(-1, cause.failureCode());
+      assertEquals("wibble", cause.getMessage());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    consumer = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).register(TestService.class, TestService.create(vertx));
+    directProxy(new DeliveryOptions().setSendTimeout(200)).longDeliverySuccess().onComplete(onFailure(err -> {
+      assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) err).failureType());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testInterceptedServiceUsesEventBus() throws Exception {
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .addInterceptor((v, context, msg) -> Future.succeededFuture(msg))
+      .register(TestService.class, TestService.create(vertx));
+    directProxy(null).stringHandler().onComplete(onSuccess(str -> {
+      assertEquals("foobar", str);
+      assertEquals(1, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testFallbackOnUnregister() throws Exception {
+    TestService service = TestService.create(vertx);
+    MessageConsumer<JsonObject> local = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).register(TestService.class, service);
+    TestService proxy = directProxy(null);
+    local.unregister().compose(v -> {
+      consumer = new ServiceBinder(vertx)
+        .setAddress(SERVICE_ADDRESS)
+        .addInterceptor((vx, context, msg) -> Future.succeededFuture(msg))
+        .register(TestService.class, service);
+      return proxy.stringHandler();
+    }).onComplete(onSuccess(str -> {
+      assertEquals("foobar", str);
+      assertEquals(1, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testCloseUnregistersService() throws Exception {
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .register(TestConnection.class, new TestConnectionImpl(vertx, "foo"));
+    TestConnection proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setDirectDispatch(true)
+      .build(TestConnection.class);
+    vertx.eventBus().consumer("closeCalled", msg -> {
+      // the close call goes through the handler of the service, which unregisters it
+      assertEquals(1, requests.get());
+      testComplete();
+    });
+    proxy.close();
+    await();
+    assertWaitUntil(() -> !consumer.isRegistered());
+  }
+
+  @Test
+  public void testRoundRobin() throws Exception {
+    AtomicInteger calls1 = new AtomicInteger();
+    AtomicInteger calls2 = new AtomicInteger();
+    MessageConsumer<JsonObject> other = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .register(TestService.class, counting(TestService.create(vertx), calls1));
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .register(TestService.class, counting(TestService.create(vertx), calls2));
+    TestService proxy = directProxy(null);
+    Future.all(proxy.stringHandler(), proxy.stringHandler(), proxy.stringHandler(), proxy.stringHandler())
+      .compose(v -> other.unregister())
+      .onComplete(onSuccess(v -> {
+        assertEquals(2, calls1.get());
+        assertEquals(2, calls2.get());
+        assertEquals(0, requests.get());
+        testComplete();
+      }));
+    await();
+  }
+
+  @Test
+  public void testServiceResultUsesEventBus() throws Exception {
+    consumer = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).register(TestService.class, TestService.create(vertx));
+    directProxy(null).createConnection("foo").onComplete(onSuccess(conn -> {
+      assertEquals(1, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  private static TestService counting(TestService service, AtomicInteger calls) {
+    return (TestService) Proxy.newProxyInstance(TestService.class.getClassLoader(), new Class<?>[]{ TestService.class }, (p, method, args) -> {
+      calls.incrementAndGet();
+      return method.invoke(service, args);
+    });
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.HedgingOptions;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+public class ServiceProxyHedgingTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "hedged.service";
+
+  private final AtomicInteger requests = new AtomicInteger();
+  private final List<String> events = new CopyOnWriteArrayList<>();
+  private MessageConsumer<JsonObject> consumer;
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  private TestService proxy(HedgingOptions hedging, BiConsumer<Integer, Message<JsonObject>> service) {
+    consumer = vertx.eventBus().consumer(SERVICE_ADDRESS, msg -> service.accept(requests.incrementAndGet(), msg));
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setHedging(hedging)
+      .setMetrics(new ServiceProxyMetrics() {
+        @Override
+        public void requestHedged(String address, String action) {
+          events.add("hedged " + action);
+        }
+        @Override
+        public void hedgeWon(String address, String action) {
+          events.add("won " + action);
+        }
+      })
+      .build(TestService.class);
+  }
+
+  private void slowFirstReply(int request, Message<JsonObject> msg) {
+    if (request == 1) {
+      vertx.setTimer(500, id -> msg.reply("slow"));
+    } else {
+      msg.reply("fast");
+    }
+  }
+
+  @Test
+  public void testHedgeWins() {
+    TestService proxy = proxy(new HedgingOptions().addAction("stringHandler").setDelay(50), this::slowFirstReply);
+    proxy.stringHandler().onComplete(onSuccess(str -> {
+      assertEquals("fast", str);
+      assertEquals(2, requests.get());
+      assertEquals(List.of("hedged stringHandler", "won stringHandler"), events);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testFastReplyIsNotHedged() {
+    TestService proxy = proxy(new HedgingOptions().addAction("stringHandler").setDelay(50), (request, msg) -> msg.reply("fast"));
+    proxy.stringHandler().onComplete(onSuccess(str -> {
+      assertEquals("fast", str);
+      vertx.setTimer(200, id -> {
+        assertEquals(1, requests.get());
+        assertEquals(List.of(), events);
+        testComplete();
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testOnlyHedgedActions() {
+    TestService proxy = proxy(new HedgingOptions().addAction("jsonObjectHandler").setDelay(50), this::slowFirstReply);
+    proxy.stringHandler().onComplete(onSuccess(str -> {
+      assertEquals("slow", str);
+      assertEquals(1, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testFailureWhenBothFail() {
+    TestService proxy = proxy(new HedgingOptions().addAction("stringHandler").setDelay(50), (request, msg) -> {
+      vertx.setTimer(200, id -> msg.fail(request, "failure " + request));
+    });
+    proxy.stringHandler().onComplete(onFailure(err -> {
+      assertEquals(2, requests.get());
+      assertEquals(2, ((ReplyException) err).failureCode());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testPercentileDelay() {
+    TestService proxy = proxy(new HedgingOptions().addAction("stringHandler").setDelay(5_000).setPercentile(0.9), (request, msg) -> {
+      if (request <= 32) {
+        msg.reply("fast");
+      } else if (request == 33) {
+        vertx.setTimer(1000, id -> msg.reply("slow"));
+      } else {
+        msg.reply("hedge");
+      }
+    });
+    // observe enough latencies to hedge after the percentile instead of the delay
+    AtomicInteger calls = new AtomicInteger();
+    Runnable[] next = new Runnable[1];
+    next[0] = () -> proxy.stringHandler().onComplete(onSuccess(str -> {
+      if (calls.incrementAndGet() < 32) {
+        next[0].run();
+      } else {
+        proxy.stringHandler().onComplete(onSuccess(res -> {
+          assertEquals("hedge", res);
+          testComplete();
+        }));
+      }
+    }));
+    next[0].run();
+    await();
+  }
+}
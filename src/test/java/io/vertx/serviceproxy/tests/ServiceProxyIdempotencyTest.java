@@ -0,0 +1,185 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.IdempotencyOptions;
+import io.vertx.serviceproxy.RetryOptions;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.serviceproxy.tests.testmodel.impl.TestServiceImpl;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceProxyIdempotencyTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "idempotency.service";
+
+  private final Queue<Promise<String>> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger invocations = new AtomicInteger();
+  private final AtomicInteger duplicates = new AtomicInteger();
+  private MessageConsumer<JsonObject> consumer;
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  private class CountingService extends TestServiceImpl {
+
+    CountingService(Vertx vertx) throws Exception {
+      super(vertx);
+    }
+
+    @Override
+    public Future<String> stringHandler() {
+      invocations.incrementAndGet();
+      Promise<String> promise = Promise.promise();
+      pending.add(promise);
+      return promise.future();
+    }
+
+    @Override
+    public Future<JsonObject> failingMethod() {
+      invocations.incrementAndGet();
+      return Future.failedFuture(new ServiceException(500, "failed"));
+    }
+  }
+
+  private void bind() throws Exception {
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setIdempotency(new IdempotencyOptions())
+      .setMetrics(new ServiceProxyMetrics() {
+        @Override
+        public void callDeduplicated(String address, String action) {
+          assertEquals(SERVICE_ADDRESS, address);
+          duplicates.incrementAndGet();
+        }
+      })
+      .register(TestService.class, new CountingService(vertx));
+  }
+
+  private Future<Message<Object>> request(String action, String key) {
+    DeliveryOptions options = new DeliveryOptions()
+      .addHeader("action", action)
+      .addHeader(IdempotencyOptions.HEADER, key);
+    return vertx.eventBus().request(SERVICE_ADDRESS, new JsonObject(), options);
+  }
+
+  @Test
+  public void testDuplicateJoinsCallInFlight() throws Exception {
+    bind();
+    Future<Message<Object>> first = request("stringHandler", "key");
+    Future<Message<Object>> second = request("stringHandler", "key");
+    assertWaitUntil(() -> duplicates.get() == 1);
+    assertEquals(1, pending.size());
+    pending.poll().complete("once");
+    Future.all(first, second).onComplete(onSuccess(v -> {
+      assertEquals("once", first.result().body());
+      assertEquals("once", second.result().body());
+      assertEquals(1, invocations.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testDuplicateGetsCachedReply() throws Exception {
+    bind();
+    Future<Message<Object>> first = request("stringHandler", "key");
+    assertWaitUntil(() -> pending.size() == 1);
+    pending.poll().complete("once");
+    first.compose(reply -> request("stringHandler", "key")).onComplete(onSuccess(reply -> {
+      assertEquals("once", reply.body());
+      assertEquals(1, invocations.get());
+      assertEquals(1, duplicates.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testDistinctKeys() throws Exception {
+    bind();
+    request("stringHandler", "key1");
+    request("stringHandler", "key2");
+    assertWaitUntil(() -> pending.size() == 2);
+    assertEquals(0, duplicates.get());
+    pending.forEach(promise -> promise.complete("done"));
+  }
+
+  @Test
+  public void testFailureNotCached() throws Exception {
+    bind();
+    request("failingMethod", "key").onComplete(onFailure(err -> {
+      assertEquals(500, ((ServiceException) err).failureCode());
+      request("failingMethod", "key").onComplete(onFailure(err2 -> {
+        assertEquals(2, invocations.get());
+        assertEquals(0, duplicates.get());
+        testComplete();
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testProxyCallsAreExecuted() throws Exception {
+    bind();
+    TestService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setIdempotencyKeys(true)
+      .build(TestService.class);
+    proxy.stringHandler();
+    proxy.stringHandler();
+    assertWaitUntil(() -> pending.size() == 2);
+    assertEquals(0, duplicates.get());
+    pending.forEach(promise -> promise.complete("done"));
+  }
+
+  @Test
+  public void testRetryJoinsCallInFlight() throws Exception {
+    bind();
+    TestService proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setOptions(new DeliveryOptions().setSendTimeout(200))
+      .setRetry(new RetryOptions().addAction("stringHandler").setInitialBackoff(10))
+      .setIdempotencyKeys(true)
+      .build(TestService.class);
+    proxy.stringHandler().onComplete(onSuccess(str -> {
+      assertEquals("retried", str);
+      assertEquals(1, invocations.get());
+      testComplete();
+    }));
+    assertWaitUntil(() -> duplicates.get() == 1);
+    pending.poll().complete("retried");
+    await();
+  }
+}
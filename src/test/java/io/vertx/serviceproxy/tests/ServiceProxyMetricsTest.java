@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ServiceProxyMetricsTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "metered.service";
+
+  private final List<String> events = new CopyOnWriteArrayList<>();
+  private MessageConsumer<JsonObject> consumer;
+  private TestService proxy;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    ServiceProxyMetrics metrics = new ServiceProxyMetrics() {
+      @Override
+      public Object requestBegin(String address, String action, Object body) {
+        events.add("requestBegin " + address + " " + action);
+        return action;
+      }
+      @Override
+      public void requestEnd(Object requestMetric, String address, String action, Object reply, Throwable failure) {
+        events.add("requestEnd " + requestMetric + " " + reply + " " + (failure == null ? null : ((ReplyException) failure).failureCode()));
+      }
+      @Override
+      public Object callBegin(String address, String action, Object body) {
+        events.add("callBegin " + address + " " + action);
+        return action;
+      }
+      @Override
+      public void callDispatched(Object callMetric, String address, String action) {
+        events.add("callDispatched " + callMetric);
+      }
+      @Override
+      public void callEnd(Object callMetric, String address, String action, Object reply, Throwable failure) {
+        events.add("callEnd " + callMetric + " " + reply + " " + (failure == null ? null : ((ReplyException) failure).failureCode()));
+      }
+    };
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setMetrics(metrics)
+      .register(TestService.class, TestService.create(vertx));
+    proxy = new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setMetrics(metrics)
+      .build(TestService.class);
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  @Test
+  public void testSuccess() {
+    proxy.stringHandler().onComplete(onSuccess(res -> {
+      assertEquals("foobar", res);
+      assertEquals(5, events.size());
+      assertEquals("requestBegin metered.service stringHandler", events.get(0));
+      assertEquals("callBegin metered.service stringHandler", events.get(1));
+      assertEquals("callDispatched stringHandler", events.get(2));
+      assertEquals("callEnd stringHandler foobar null", events.get(3));
+      assertEquals("requestEnd stringHandler foobar null", events.get(4));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testFailure() {
+    proxy.failingCall("Fail").onComplete(onFailure(err -> {
+      assertEquals("callEnd failingCall null 25", events.get(3));
+      assertEquals("requestEnd failingCall null 25", events.get(4));
+      testComplete();
+    }));
+    await();
+  }
+}
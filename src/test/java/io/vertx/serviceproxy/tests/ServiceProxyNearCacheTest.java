@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.NearCacheOptions;
+import io.vertx.serviceproxy.NearCaches;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.tests.testmodel.CacheableService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceProxyNearCacheTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "near-cache.service";
+
+  private final AtomicInteger invocations = new AtomicInteger();
+  private final AtomicInteger hits = new AtomicInteger();
+  private MessageConsumer<JsonObject> consumer;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .register(CacheableService.class, new CacheableService() {
+        @Override
+        public Future<JsonObject> lookup(String key) {
+          return Future.succeededFuture(new JsonObject().put("key", key).put("call", invocations.incrementAndGet()));
+        }
+
+        @Override
+        public Future<String> version() {
+          return Future.succeededFuture("v" + invocations.incrementAndGet());
+        }
+
+        @Override
+        public Future<Void> update(String key) {
+          invocations.incrementAndGet();
+          return Future.succeededFuture();
+        }
+      });
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  private CacheableService proxy(NearCacheOptions nearCache) {
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setNearCache(nearCache)
+      .setMetrics(new ServiceProxyMetrics() {
+        @Override
+        public void nearCacheAccess(String address, String action, boolean hit) {
+          if (hit) {
+            hits.incrementAndGet();
+          }
+        }
+      })
+      .build(CacheableService.class);
+  }
+
+  @Test
+  public void testCachedResult() {
+    CacheableService proxy = proxy(new NearCacheOptions());
+    proxy.lookup("a").compose(first -> {
+      assertEquals(1, (int) first.getInteger("call"));
+      // the cached result is not modified by the callers
+      first.put("call", 10);
+      return proxy.lookup("a");
+    }).compose(second -> {
+      assertEquals(1, (int) second.getInteger("call"));
+      return proxy.lookup("b");
+    }).onComplete(onSuccess(other -> {
+      assertEquals("b", other.getString("key"));
+      assertEquals(2, invocations.get());
+      assertEquals(1, hits.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testUncachedAction() {
+    CacheableService proxy = proxy(new NearCacheOptions());
+    proxy.update("a").compose(v -> proxy.update("a")).onComplete(onSuccess(v -> {
+      assertEquals(2, invocations.get());
+      assertEquals(0, hits.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testDisabled() {
+    CacheableService proxy = proxy(null);
+    proxy.lookup("a").compose(v -> proxy.lookup("a")).onComplete(onSuccess(v -> {
+      assertEquals(2, invocations.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testInvalidation() {
+    CacheableService proxy = proxy(new NearCacheOptions());
+    proxy.lookup("a").onComplete(onSuccess(first -> {
+      NearCaches.invalidate(vertx, SERVICE_ADDRESS, "lookup");
+      vertx.setPeriodic(20, id -> proxy.lookup("a").onComplete(onSuccess(result -> {
+        if (result.getInteger("call") == 2) {
+          vertx.cancelTimer(id);
+          testComplete();
+        }
+      })));
+    }));
+    await();
+  }
+
+  @Test
+  public void testStaleWhileRevalidate() {
+    CacheableService proxy = proxy(new NearCacheOptions());
+    proxy.version().onComplete(onSuccess(first -> {
+      assertEquals("v1", first);
+      vertx.setTimer(200, id -> proxy.version().onComplete(onSuccess(stale -> {
+        assertEquals("v1", stale);
+        vertx.setPeriodic(20, id2 -> proxy.version().onComplete(onSuccess(refreshed -> {
+          if (refreshed.equals("v2")) {
+            vertx.cancelTimer(id2);
+            assertEquals(2, invocations.get());
+            testComplete();
+          }
+        })));
+      })));
+    }));
+    await();
+  }
+}
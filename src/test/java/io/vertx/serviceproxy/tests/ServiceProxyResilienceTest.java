@@ -0,0 +1,233 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.CircuitBreakerOptions;
+import io.vertx.serviceproxy.RetryOptions;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+public class ServiceProxyResilienceTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "resilient.service";
+
+  private final AtomicInteger requests = new AtomicInteger();
+  private final List<String> events = new CopyOnWriteArrayList<>();
+  private MessageConsumer<JsonObject> consumer;
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  private ServiceProxyBuilder builder(BiConsumer<Integer, Message<JsonObject>> service) {
+    consumer = vertx.eventBus().consumer(SERVICE_ADDRESS, msg -> service.accept(requests.incrementAndGet(), msg));
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setMetrics(new ServiceProxyMetrics() {
+        @Override
+        public void requestRetried(String address, String action, int retry) {
+          events.add("retried " + action + " " + retry);
+        }
+        @Override
+        public void circuitOpened(String address, String action) {
+          events.add("opened " + action);
+        }
+        @Override
+        public void circuitClosed(String address, String action) {
+          events.add("closed " + action);
+        }
+      });
+  }
+
+  private static Future<Void> calls(TestService proxy, int count) {
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0; i < count; i++) {
+      fut = fut.transform(ar -> proxy.stringHandler().<Void>mapEmpty().otherwiseEmpty());
+    }
+    return fut;
+  }
+
+  private static CircuitBreakerOptions circuitBreaker() {
+    return new CircuitBreakerOptions().setWindowSize(4).setMinimumCalls(4);
+  }
+
+  @Test
+  public void testCircuitOpens() {
+    TestService proxy = builder((request, msg) -> msg.fail(500, "degraded"))
+      .setCircuitBreaker(circuitBreaker())
+      .build(TestService.class);
+    calls(proxy, 4).compose(v -> proxy.stringHandler()).onComplete(onFailure(err -> {
+      assertEquals(CircuitBreakerOptions.CIRCUIT_OPEN, ((ServiceException) err).failureCode());
+      assertEquals(4, requests.get());
+      assertEquals(List.of("opened stringHandler"), events);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testCircuitPerAction() {
+    TestService proxy = builder((request, msg) -> {
+      if ("stringHandler".equals(msg.headers().get("action"))) {
+        msg.fail(500, "degraded");
+      } else {
+        msg.reply(new JsonObject());
+      }
+    })
+      .setCircuitBreaker(circuitBreaker())
+      .build(TestService.class);
+    calls(proxy, 4).compose(v -> proxy.jsonObjectHandler()).onComplete(onSuccess(json -> {
+      assertEquals(5, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testServiceFailuresDoNotOpenCircuit() {
+    TestService proxy = builder((request, msg) -> msg.fail(25, "business"))
+      .setCircuitBreaker(circuitBreaker())
+      .build(TestService.class);
+    calls(proxy, 4).compose(v -> proxy.stringHandler()).onComplete(onFailure(err -> {
+      assertEquals(25, ((ReplyException) err).failureCode());
+      assertEquals(5, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testSlowCallsOpenCircuit() {
+    TestService proxy = builder((request, msg) -> vertx.setTimer(60, id -> msg.reply("slow")))
+      .setCircuitBreaker(circuitBreaker().setSlowCallDuration(50).setSlowCallRateThreshold(0.5))
+      .build(TestService.class);
+    calls(proxy, 4).compose(v -> proxy.stringHandler()).onComplete(onFailure(err -> {
+      assertEquals(CircuitBreakerOptions.CIRCUIT_OPEN, ((ServiceException) err).failureCode());
+      assertEquals(4, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testHalfOpenCircuitCloses() {
+    TestService proxy = builder((request, msg) -> {
+      if (request <= 4) {
+        msg.fail(500, "degraded");
+      } else {
+        msg.reply("recovered");
+      }
+    })
+      .setCircuitBreaker(circuitBreaker().setOpenDuration(100).setHalfOpenCalls(1))
+      .build(TestService.class);
+    calls(proxy, 4).onComplete(onSuccess(v -> {
+      vertx.setTimer(150, id -> {
+        proxy.stringHandler().compose(str -> {
+          assertEquals("recovered", str);
+          return proxy.stringHandler();
+        }).onComplete(onSuccess(str -> {
+          assertEquals(6, requests.get());
+          assertEquals(List.of("opened stringHandler", "closed stringHandler"), events);
+          testComplete();
+        }));
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testHalfOpenCircuitReopens() {
+    TestService proxy = builder((request, msg) -> msg.fail(500, "degraded"))
+      .setCircuitBreaker(circuitBreaker().setOpenDuration(100).setHalfOpenCalls(1))
+      .build(TestService.class);
+    calls(proxy, 4).onComplete(onSuccess(v -> {
+      vertx.setTimer(150, id -> {
+        proxy.stringHandler().recover(err -> proxy.stringHandler()).onComplete(onFailure(err -> {
+          assertEquals(CircuitBreakerOptions.CIRCUIT_OPEN, ((ServiceException) err).failureCode());
+          assertEquals(5, requests.get());
+          assertEquals(List.of("opened stringHandler", "opened stringHandler"), events);
+          testComplete();
+        }));
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetry() {
+    TestService proxy = builder((request, msg) -> {
+      if (request > 1) {
+        msg.reply("retried");
+      }
+    })
+      .setOptions(new DeliveryOptions().setSendTimeout(100))
+      .setRetry(new RetryOptions().addAction("stringHandler").setInitialBackoff(10))
+      .build(TestService.class);
+    proxy.stringHandler().onComplete(onSuccess(str -> {
+      assertEquals("retried", str);
+      assertEquals(2, requests.get());
+      assertEquals(List.of("retried stringHandler 1"), events);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testRetryBudget() {
+    TestService proxy = builder((request, msg) -> {})
+      .setOptions(new DeliveryOptions().setSendTimeout(50))
+      .setRetry(new RetryOptions().addAction("stringHandler").setMaxRetries(3).setInitialBackoff(10).setMaxBudget(1))
+      .build(TestService.class);
+    proxy.stringHandler().onComplete(onFailure(err -> {
+      assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) err).failureType());
+      assertEquals(2, requests.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testServiceFailuresAreNotRetried() {
+    TestService proxy = builder((request, msg) -> msg.fail(500, "degraded"))
+      .setRetry(new RetryOptions().addAction("stringHandler").setInitialBackoff(10))
+      .build(TestService.class);
+    proxy.stringHandler().onComplete(onFailure(err -> {
+      assertEquals(500, ((ReplyException) err).failureCode());
+      assertEquals(1, requests.get());
+      assertEquals(List.of(), events);
+      testComplete();
+    }));
+    await();
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.EvictionPolicy;
+import io.vertx.serviceproxy.ResultCacheOptions;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.tests.testmodel.CacheableService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceProxyResultCacheTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "result-cache.service";
+
+  private final AtomicInteger invocations = new AtomicInteger();
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+  private final Queue<Promise<JsonObject>> pending = new ConcurrentLinkedQueue<>();
+  private MessageConsumer<JsonObject> consumer;
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  private CacheableService bindAndProxy(ResultCacheOptions resultCache) {
+    consumer = new ServiceBinder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setResultCache(resultCache)
+      .setMetrics(new ServiceProxyMetrics() {
+        @Override
+        public void resultCacheAccess(String address, String action, boolean hit) {
+          assertEquals(SERVICE_ADDRESS, address);
+          (hit ? hits : misses).incrementAndGet();
+        }
+      })
+      .register(CacheableService.class, new CacheableService() {
+        @Override
+        public Future<JsonObject> lookup(String key) {
+          int call = invocations.incrementAndGet();
+          if (key.equals("fail")) {
+            return Future.failedFuture(new ServiceException(500, "failed"));
+          }
+          if (key.equals("slow")) {
+            Promise<JsonObject> promise = Promise.promise();
+            pending.add(promise);
+            return promise.future();
+          }
+          return Future.succeededFuture(new JsonObject().put("key", key).put("call", call));
+        }
+
+        @Override
+        public Future<String> version() {
+          return Future.succeededFuture("v" + invocations.incrementAndGet());
+        }
+
+        @Override
+        public Future<Void> update(String key) {
+          invocations.incrementAndGet();
+          return Future.succeededFuture();
+        }
+      });
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .build(CacheableService.class);
+  }
+
+  @Test
+  public void testCachedReply() {
+    CacheableService proxy = bindAndProxy(new ResultCacheOptions().addAction("lookup"));
+    proxy.lookup("a").compose(first -> {
+      assertEquals(1, (int) first.getInteger("call"));
+      return proxy.lookup("a");
+    }).compose(second -> {
+      assertEquals(1, (int) second.getInteger("call"));
+      return proxy.lookup("b");
+    }).onComplete(onSuccess(other -> {
+      assertEquals(2, (int) other.getInteger("call"));
+      assertEquals(2, invocations.get());
+      assertEquals(1, hits.get());
+      assertEquals(2, misses.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testCallsShareExecutionInFlight() {
+    CacheableService proxy = bindAndProxy(new ResultCacheOptions().addAction("lookup"));
+    Future<JsonObject> first = proxy.lookup("slow");
+    Future<JsonObject> second = proxy.lookup("slow");
+    assertWaitUntil(() -> hits.get() == 1);
+    assertEquals(1, pending.size());
+    pending.poll().complete(new JsonObject().put("shared", true));
+    Future.all(first, second).onComplete(onSuccess(v -> {
+      assertTrue(first.result().getBoolean("shared"));
+      assertTrue(second.result().getBoolean("shared"));
+      assertEquals(1, invocations.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testFailureNotCached() {
+    CacheableService proxy = bindAndProxy(new ResultCacheOptions().addAction("lookup"));
+    proxy.lookup("fail").recover(err -> proxy.lookup("fail")).onComplete(onFailure(err -> {
+      assertEquals(500, ((ServiceException) err).failureCode());
+      assertEquals(2, invocations.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testUncachedAction() {
+    CacheableService proxy = bindAndProxy(new ResultCacheOptions().addAction("lookup"));
+    proxy.update("a").compose(v -> proxy.update("a")).onComplete(onSuccess(v -> {
+      assertEquals(2, invocations.get());
+      assertEquals(0, hits.get() + misses.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testExpiration() {
+    CacheableService proxy = bindAndProxy(new ResultCacheOptions()
+      .addAction("version")
+      .setTtl(50)
+      .setEvictionPolicy(EvictionPolicy.LFU));
+    proxy.version().onComplete(onSuccess(first -> {
+      assertEquals("v1", first);
+      vertx.setTimer(100, id -> proxy.version().onComplete(onSuccess(second -> {
+        assertEquals("v2", second);
+        testComplete();
+      })));
+    }));
+    await();
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.RoutingOptions;
+import io.vertx.serviceproxy.RoutingPolicy;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.impl.ServiceInstances;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ServiceProxyRoutingTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "routed.service";
+  private final static String INSTANCE_A = SERVICE_ADDRESS + ".a";
+  private final static String INSTANCE_B = SERVICE_ADDRESS + ".b";
+
+  private final List<String> sent = new CopyOnWriteArrayList<>();
+  private final List<String> events = new CopyOnWriteArrayList<>();
+  private final List<MessageConsumer<?>> consumers = new ArrayList<>();
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    vertx.eventBus().addOutboundInterceptor(ctx -> {
+      String address = ctx.message().address();
+      if (address.startsWith(SERVICE_ADDRESS) && !address.equals(ServiceInstances.instancesAddress(SERVICE_ADDRESS))) {
+        sent.add(address);
+      }
+      ctx.next();
+    });
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    consumers.forEach(MessageConsumer::unregister);
+    super.tearDown();
+  }
+
+  private void instance(String address, Handler<Message<JsonObject>> handler) {
+    consumers.add(vertx.eventBus().consumer(address, handler));
+  }
+
+  private TestService proxy(RoutingOptions routing) {
+    return new ServiceProxyBuilder(vertx)
+      .setAddress(SERVICE_ADDRESS)
+      .setRouting(routing)
+      .setMetrics(new ServiceProxyMetrics() {
+        @Override
+        public void instanceEjected(String address, String instance) {
+          events.add("ejected " + instance);
+        }
+      })
+      .build(TestService.class);
+  }
+
+  /**
+   * Publish the heartbeats of instances until the directory of the proxies knows them all.
+   */
+  private void advertise(String... instances) {
+    ServiceInstances directory = ServiceInstances.get(vertx, SERVICE_ADDRESS);
+    long timerID = vertx.setPeriodic(20, id -> {
+      for (String instance : instances) {
+        vertx.eventBus().publish(ServiceInstances.instancesAddress(SERVICE_ADDRESS), new JsonObject()
+          .put("instance", instance)
+          .put("interval", 10_000));
+      }
+    });
+    assertWaitUntil(() -> directory.size() == instances.length);
+    vertx.cancelTimer(timerID);
+  }
+
+  private static long count(List<String> list, String value) {
+    return list.stream().filter(value::equals).count();
+  }
+
+  private static Future<Void> calls(TestService proxy, int count) {
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0; i < count; i++) {
+      fut = fut.transform(ar -> proxy.stringHandler().<Void>mapEmpty().otherwiseEmpty());
+    }
+    return fut;
+  }
+
+  @Test
+  public void testLeastOutstanding() {
+    instance(INSTANCE_A, msg -> vertx.setTimer(500, id -> msg.reply("slow")));
+    instance(INSTANCE_B, msg -> msg.reply("fast"));
+    TestService proxy = proxy(new RoutingOptions());
+    advertise(INSTANCE_A, INSTANCE_B);
+    vertx.runOnContext(v -> {
+      // two calls in flight on each instance, the slow instance keeps them longer
+      for (int i = 0; i < 4; i++) {
+        proxy.stringHandler();
+      }
+      calls(proxy, 10).onComplete(onSuccess(done -> {
+        assertEquals(2, count(sent, INSTANCE_A));
+        assertEquals(12, count(sent, INSTANCE_B));
+        assertEquals(0, count(sent, SERVICE_ADDRESS));
+        testComplete();
+      }));
+    });
+    await();
+  }
+
+  @Test
+  public void testEwmaLatency() {
+    instance(INSTANCE_A, msg -> vertx.setTimer(50, id -> msg.reply("slow")));
+    instance(INSTANCE_B, msg -> msg.reply("fast"));
+    TestService proxy = proxy(new RoutingOptions().setPolicy(RoutingPolicy.EWMA_LATENCY));
+    advertise(INSTANCE_A, INSTANCE_B);
+    calls(proxy, 20).onComplete(onSuccess(done -> {
+      assertTrue(count(sent, INSTANCE_A) <= 1);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testEjection() {
+    instance(INSTANCE_A, msg -> msg.fail(500, "degraded"));
+    instance(INSTANCE_B, msg -> msg.reply("fast"));
+    TestService proxy = proxy(new RoutingOptions().setEjectionFailures(2));
+    advertise(INSTANCE_A, INSTANCE_B);
+    calls(proxy, 20).onComplete(onSuccess(done -> {
+      assertEquals(2, count(sent, INSTANCE_A));
+      assertEquals(List.of("ejected " + INSTANCE_A), events);
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testGoneInstance() {
+    consumers.add(vertx.eventBus().consumer(SERVICE_ADDRESS, msg -> msg.reply("service")));
+    TestService proxy = proxy(new RoutingOptions());
+    advertise(INSTANCE_A);
+    proxy.stringHandler().onComplete(onSuccess(str -> {
+      assertEquals("service", str);
+      assertEquals(0, ServiceInstances.get(vertx, SERVICE_ADDRESS).size());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testAdvertisedInstances() {
+    ServiceBinder binder = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).setInstanceHeartbeat(100);
+    MessageConsumer<JsonObject> first = binder.register(TestService.class, TestService.create(vertx));
+    consumers.add(binder.register(TestService.class, TestService.create(vertx)));
+    TestService proxy = proxy(new RoutingOptions());
+    ServiceInstances directory = ServiceInstances.get(vertx, SERVICE_ADDRESS);
+    assertWaitUntil(() -> directory.size() == 2);
+    proxy.stringHandler().onComplete(onSuccess(str -> {
+      assertEquals("foobar", str);
+      assertEquals(1, sent.size());
+      assertTrue(sent.get(0).startsWith(SERVICE_ADDRESS + "."));
+      first.unregister();
+      // the instance leaves at its next heartbeat
+      vertx.setPeriodic(50, id -> {
+        if (directory.size() == 1) {
+          vertx.cancelTimer(id);
+          testComplete();
+        }
+      });
+    }));
+    await();
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.serviceproxy.tests;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+import io.vertx.serviceproxy.impl.ProxyReadStream;
+import io.vertx.serviceproxy.tests.testmodel.StreamService;
+import io.vertx.serviceproxy.tests.testmodel.TestDataObject;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class ServiceProxyStreamTest extends VertxTestBase {
+
+  private final static String SERVICE_ADDRESS = "stream.service";
+
+  private MessageConsumer<JsonObject> consumer;
+  private StreamService proxy;
+  private RangeStream<?> source;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    StreamService service = new StreamService() {
+      @Override
+      public Future<ReadStream<Long>> range(long count) {
+        RangeStream<Long> stream = new RangeStream<>(count, -1, Function.identity());
+        source = stream;
+        return Future.succeededFuture(stream);
+      }
+      @Override
+      public Future<ReadStream<TestDataObject>> dataObjects(int count) {
+        return Future.succeededFuture(new RangeStream<>(count, -1, i -> new TestDataObject().setNumber(i.intValue()).setString("" + i)));
+      }
+      @Override
+      public Future<ReadStream<String>> failing(int failAt) {
+        return Future.succeededFuture(new RangeStream<>(failAt + 1, failAt, i -> "" + i));
+      }
+    };
+    consumer = new ServiceBinder(vertx).setAddress(SERVICE_ADDRESS).register(StreamService.class, service);
+    proxy = new ServiceProxyBuilder(vertx).setAddress(SERVICE_ADDRESS).build(StreamService.class);
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    consumer.unregister();
+    super.tearDown();
+  }
+
+  @Test
+  public void testStream() {
+    List<Long> received = new ArrayList<>();
+    proxy.range(1000).onComplete(onSuccess(stream -> {
+      stream.handler(received::add);
+      stream.endHandler(v -> {
+        assertEquals(1000, received.size());
+        for (int i = 0; i < received.size(); i++) {
+          assertEquals(i, (long) received.get(i));
+        }
+        testComplete();
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testBackPressure() {
+    List<Long> received = new ArrayList<>();
+    proxy.range(1000).onComplete(onSuccess(stream -> {
+      stream.handler(item -> {
+        received.add(item);
+        if (received.size() == 1) {
+          stream.pause();
+          vertx.setTimer(100, id -> {
+            // The source is not read further than what the paused proxy buffered
+            assertEquals(ProxyReadStream.DEFAULT_CHUNK_SIZE, source.emitted);
+            stream.resume();
+          });
+        }
+      });
+      stream.endHandler(v -> {
+        assertEquals(1000, received.size());
+        testComplete();
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testDataObjectStream() {
+    List<TestDataObject> received = new ArrayList<>();
+    proxy.dataObjects(3).onComplete(onSuccess(stream -> {
+      stream.handler(received::add);
+      stream.endHandler(v -> {
+        assertEquals(3, received.size());
+        assertEquals(new TestDataObject().setNumber(2).setString("2"), received.get(2));
+        testComplete();
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testStreamFailure() {
+    proxy.failing(10).onComplete(onSuccess(stream -> {
+      stream.handler(item -> {});
+      stream.endHandler(v -> fail("Should not end"));
+      stream.exceptionHandler(err -> {
+        assertTrue(err instanceof ServiceException);
+        assertEquals("failed at 10", err.getMessage());
+        testComplete();
+      });
+    }));
+    await();
+  }
+
+  /**
+   * A stream emitting the values {@code [0, count)} on demand, failing at {@code failAt}.
+   */
+  private static class RangeStream<T> implements ReadStream<T> {
+
+    private final long count;
+    private final long failAt;
+    private final Function<Long, T> mapper;
+    private Handler<T> handler;
+    private Handler<Void> endHandler;
+    private Handler<Throwable> exceptionHandler;
+    private long demand = Long.MAX_VALUE;
+    private long emitted;
+    private boolean emitting;
+
+    RangeStream(long count, long failAt, Function<Long, T> mapper) {
+      this.count = count;
+      this.failAt = failAt;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public ReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+      exceptionHandler = handler;
+      return this;
+    }
+
+    @Override
+    public ReadStream<T> handler(Handler<T> handler) {
+      this.handler = handler;
+      return this;
+    }
+
+    @Override
+    public ReadStream<T> pause() {
+      demand = 0L;
+      return this;
+    }
+
+    @Override
+    public ReadStream<T> resume() {
+      return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public ReadStream<T> fetch(long amount) {
+      demand += amount;
+      if (demand < 0L) {
+        demand = Long.MAX_VALUE;
+      }
+      emit();
+      return this;
+    }
+
+    @Override
+    public ReadStream<T> endHandler(Handler<Void> endHandler) {
+      this.endHandler = endHandler;
+      return this;
+    }
+
+    private void emit() {
+      if (emitting) {
+        return;
+      }
+      emitting = true;
+      while (demand > 0L && emitted < count && handler != null) {
+        if (emitted == failAt) {
+          emitted = count;
+          exceptionHandler.handle(new Exception("failed at " + failAt));
+          return;
+        }
+        if (demand != Long.MAX_VALUE) {
+          demand--;
+        }
+        handler.handle(mapper.apply(emitted++));
+      }
+      emitting = false;
+      if (emitted == count && endHandler != null) {
+        Handler<Void> h = endHandler;
+        endHandler = null;
+        h.handle(null);
+      }
+    }
+  }
+}
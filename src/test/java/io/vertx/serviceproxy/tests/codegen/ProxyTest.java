@@ -124,6 +124,16 @@ public class ProxyTest {
     }
   }
 
+  @Test
+  public void testInvalidReturn4() throws Exception {
+    try {
+      generateProxyModel(InvalidReturn4.class);
+      fail("Should throw exception");
+    } catch (GenException e) {
+      // OK
+    }
+  }
+
   @Test
   public void testValid() throws Exception {
     ProxyModel model = generateProxyModel(ValidProxy.class);
@@ -193,4 +203,39 @@ public class ProxyTest {
   public void testValidFuture() throws Exception {
     ProxyModel model = generateProxyModel(FuturizedProxy.class);
   }
+
+  @Test
+  public void testValidCacheable() throws Exception {
+    ProxyModel model = generateProxyModel(ValidCacheable.class);
+    for (MethodInfo mi: model.getMethods()) {
+      ProxyMethodInfo pmi = (ProxyMethodInfo)mi;
+      if (pmi.getName().equals("lookup")) {
+        assertTrue(pmi.isCacheable());
+        assertEquals(1000, pmi.getCacheTtl());
+        assertEquals(500, pmi.getCacheStaleWhileRevalidate());
+      } else {
+        assertFalse(pmi.isCacheable());
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidCacheable1() throws Exception {
+    try {
+      generateProxyModel(InvalidCacheable1.class);
+      fail("Should throw exception");
+    } catch (GenException e) {
+      // OK
+    }
+  }
+
+  @Test
+  public void testInvalidCacheable2() throws Exception {
+    try {
+      generateProxyModel(InvalidCacheable2.class);
+      fail("Should throw exception");
+    } catch (GenException e) {
+      // OK
+    }
+  }
 }
@@ -0,0 +1,12 @@
+package io.vertx.serviceproxy.tests.codegen.proxytestapi;
+
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.core.Future;
+import io.vertx.serviceproxy.annotations.ProxyCacheable;
+
+@ProxyGen
+public interface InvalidCacheable1 {
+
+  @ProxyCacheable(ttl = 1000)
+  Future<Void> update(String key);
+}
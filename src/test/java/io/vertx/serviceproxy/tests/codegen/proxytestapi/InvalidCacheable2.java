@@ -0,0 +1,12 @@
+package io.vertx.serviceproxy.tests.codegen.proxytestapi;
+
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.core.Future;
+import io.vertx.serviceproxy.annotations.ProxyCacheable;
+
+@ProxyGen
+public interface InvalidCacheable2 {
+
+  @ProxyCacheable(ttl = 0)
+  Future<String> lookup(String key);
+}
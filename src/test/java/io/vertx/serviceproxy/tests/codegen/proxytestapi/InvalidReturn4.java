@@ -0,0 +1,13 @@
+package io.vertx.serviceproxy.tests.codegen.proxytestapi;
+
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.List;
+
+@ProxyGen
+public interface InvalidReturn4 {
+
+  Future<ReadStream<List<String>>> someMethod();
+}
@@ -0,0 +1,15 @@
+package io.vertx.serviceproxy.tests.codegen.proxytestapi;
+
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.annotations.ProxyCacheable;
+
+@ProxyGen
+public interface ValidCacheable {
+
+  @ProxyCacheable(ttl = 1000, staleWhileRevalidate = 500)
+  Future<JsonObject> lookup(String key);
+
+  Future<Void> update(String key, JsonObject value);
+}
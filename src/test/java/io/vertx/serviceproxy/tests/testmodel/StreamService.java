@@ -0,0 +1,32 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.serviceproxy.tests.testmodel;
+
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
+
+@ProxyGen
+public interface StreamService {
+
+  Future<ReadStream<Long>> range(long count);
+
+  Future<ReadStream<TestDataObject>> dataObjects(int count);
+
+  Future<ReadStream<String>> failing(int failAt);
+
+}
@@ -0,0 +1,71 @@
+package io.vertx.serviceproxy.tests.utils;
+
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceException;
+import io.vertx.serviceproxy.ServiceExceptionMessageCodec;
+import io.vertx.serviceproxy.ServiceProxyBinaryCodec;
+import io.vertx.serviceproxy.impl.CodecRegistry;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CodecRegistryTest extends VertxTestBase {
+
+  @Test
+  public void testSharedPerVertx() {
+    assertSame(CodecRegistry.get(vertx), CodecRegistry.get(vertx));
+  }
+
+  @Test
+  public void testRegisterOnce() {
+    AtomicInteger created = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      ServiceExceptionMessageCodec.register(vertx);
+      ServiceProxyBinaryCodec.register(vertx, "test.binary", () -> {
+        created.incrementAndGet();
+        return new ServiceProxyBinaryCodec("test.binary", "foo");
+      });
+    }
+    assertEquals(1, created.get());
+    vertx.eventBus().consumer("test.address", msg -> msg.reply(new ServiceException(12, "boom")));
+    vertx.eventBus().request("test.address", new JsonObject()).onComplete(onFailure(err -> {
+      assertTrue(err instanceof ServiceException);
+      assertEquals(12, ((ServiceException) err).failureCode());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testKeepApplicationCodec() {
+    AtomicInteger appTransforms = new AtomicInteger();
+    AtomicInteger proxyTransforms = new AtomicInteger();
+    vertx.eventBus().registerCodec(new ServiceProxyBinaryCodec("app.binary") {
+      @Override
+      public JsonObject transform(JsonObject body) {
+        appTransforms.incrementAndGet();
+        return super.transform(body);
+      }
+    });
+    ServiceProxyBinaryCodec.register(vertx, "app.binary", () -> new ServiceProxyBinaryCodec("app.binary") {
+      @Override
+      public JsonObject transform(JsonObject body) {
+        proxyTransforms.incrementAndGet();
+        return super.transform(body);
+      }
+    });
+    ServiceExceptionMessageCodec.register(vertx);
+    vertx.eventBus().<JsonObject>consumer("test.address", msg -> msg.reply(msg.body()));
+    vertx.eventBus().<JsonObject>request("test.address", new JsonObject().put("foo", "bar"),
+      new DeliveryOptions().setCodecName("app.binary")).onComplete(onSuccess(reply -> {
+      assertEquals("bar", reply.body().getString("foo"));
+      // the codec registered by the application is the one delivering the message
+      assertEquals(1, appTransforms.get());
+      assertEquals(0, proxyTransforms.get());
+      testComplete();
+    }));
+    await();
+  }
+}
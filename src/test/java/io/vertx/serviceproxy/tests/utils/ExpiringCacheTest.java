@@ -0,0 +1,58 @@
+package io.vertx.serviceproxy.tests.utils;
+
+import io.vertx.serviceproxy.impl.ExpiringCache;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExpiringCacheTest {
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, 60_000);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    assertEquals(Integer.valueOf(1), cache.get("a"));
+    cache.put("c", 3);
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertEquals(Integer.valueOf(1), cache.get("a"));
+    assertEquals(Integer.valueOf(3), cache.get("c"));
+    assertEquals(3, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  public void testExpiration() throws Exception {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, 10);
+    cache.put("a", 1);
+    Thread.sleep(20);
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testRemoveIf() {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(4, 60_000);
+    cache.put("a1", 1);
+    cache.put("a2", 2);
+    cache.put("b1", 3);
+    cache.removeIf(key -> key.startsWith("a"));
+    assertEquals(1, cache.size());
+    assertEquals(Integer.valueOf(3), cache.get("b1"));
+  }
+
+  @Test
+  public void testPutIfAbsent() throws Exception {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, 10);
+    assertNull(cache.putIfAbsent("a", 1));
+    assertEquals(Integer.valueOf(1), cache.putIfAbsent("a", 2));
+    Thread.sleep(20);
+    assertNull(cache.putIfAbsent("a", 3));
+    assertEquals(0L, cache.hits());
+    assertEquals(0L, cache.misses());
+    assertEquals(Integer.valueOf(3), cache.get("a"));
+    assertEquals(1L, cache.hits());
+  }
+}
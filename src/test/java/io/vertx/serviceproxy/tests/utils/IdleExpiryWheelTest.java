@@ -0,0 +1,51 @@
+package io.vertx.serviceproxy.tests.utils;
+
+import io.vertx.serviceproxy.impl.IdleExpiryWheel;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class IdleExpiryWheelTest extends VertxTestBase {
+
+  @Test
+  public void testSharedPerVertx() {
+    assertSame(IdleExpiryWheel.get(vertx), IdleExpiryWheel.get(vertx));
+  }
+
+  @Test
+  public void testExpiration() {
+    IdleExpiryWheel wheel = IdleExpiryWheel.get(vertx);
+    long start = System.nanoTime();
+    wheel.register(1000, v -> {
+      assertTrue(System.nanoTime() - start >= MILLISECONDS.toNanos(1000));
+      assertEquals(0, wheel.size());
+      testComplete();
+    });
+    assertEquals(1, wheel.size());
+    await();
+  }
+
+  @Test
+  public void testAccessedEntryDoesNotExpire() {
+    IdleExpiryWheel wheel = IdleExpiryWheel.get(vertx);
+    IdleExpiryWheel.Entry accessed = wheel.register(1000, v -> fail("Accessed entry expired"));
+    long timerID = vertx.setPeriodic(100, id -> accessed.touch());
+    wheel.register(1000, v -> {
+      vertx.cancelTimer(timerID);
+      accessed.cancel();
+      assertEquals(0, wheel.size());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testCancel() {
+    IdleExpiryWheel wheel = IdleExpiryWheel.get(vertx);
+    wheel.register(500, v -> fail("Cancelled entry expired")).cancel();
+    assertEquals(0, wheel.size());
+    wheel.register(1500, v -> testComplete());
+    await();
+  }
+}
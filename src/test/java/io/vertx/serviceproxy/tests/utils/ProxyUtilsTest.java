@@ -0,0 +1,39 @@
+package io.vertx.serviceproxy.tests.utils;
+
+import io.vertx.serviceproxy.ProxyUtils;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ProxyUtilsTest {
+
+  @Test
+  public void testNumberListOfTheType() {
+    List<Object> list = Arrays.asList(1L, null, 3L);
+    assertSame(list, ProxyUtils.convertNumberList(list, Long.class, Number::longValue));
+  }
+
+  @Test
+  public void testNumberListConversion() {
+    Long kept = 1000L;
+    List<Long> converted = ProxyUtils.convertNumberList(Arrays.asList(kept, 2, null), Long.class, Number::longValue);
+    assertEquals(Arrays.asList(1000L, 2L, null), converted);
+    assertSame(kept, converted.get(0));
+  }
+
+  @Test
+  public void testNumberMapConversion() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("a", 1.5d);
+    assertSame(map, ProxyUtils.convertNumberMap(map, Double.class, Number::doubleValue));
+    map.put("b", 2);
+    Map<String, Double> converted = ProxyUtils.convertNumberMap(map, Double.class, Number::doubleValue);
+    assertEquals(1.5d, converted.get("a"), 0d);
+    assertEquals(2d, converted.get("b"), 0d);
+  }
+}
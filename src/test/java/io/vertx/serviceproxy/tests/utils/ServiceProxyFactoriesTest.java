@@ -0,0 +1,33 @@
+package io.vertx.serviceproxy.tests.utils;
+
+import io.vertx.serviceproxy.ServiceProxyFactory;
+import io.vertx.serviceproxy.impl.ServiceProxyFactories;
+import io.vertx.serviceproxy.tests.testmodel.TestService;
+import io.vertx.serviceproxy.tests.testmodel.TestServiceVertxProxyFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ServiceProxyFactoriesTest {
+
+  interface NotAService {
+  }
+
+  @Test
+  public void testLookup() {
+    ServiceProxyFactory<TestService> factory = ServiceProxyFactories.get(TestService.class);
+    assertTrue(factory instanceof TestServiceVertxProxyFactory);
+    assertSame(TestService.class, factory.serviceInterface());
+    assertSame(factory, ServiceProxyFactories.get(TestService.class));
+  }
+
+  @Test
+  public void testMissingFactory() {
+    try {
+      ServiceProxyFactories.get(NotAService.class);
+      fail("Should throw exception");
+    } catch (IllegalStateException e) {
+      // OK
+    }
+  }
+}
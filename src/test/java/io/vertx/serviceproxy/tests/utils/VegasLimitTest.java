@@ -0,0 +1,82 @@
+package io.vertx.serviceproxy.tests.utils;
+
+import io.vertx.serviceproxy.AdaptiveLimitOptions;
+import io.vertx.serviceproxy.ServiceProxyMetrics;
+import io.vertx.serviceproxy.impl.VegasLimit;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VegasLimitTest {
+
+  private static final long FAST = MILLISECONDS.toNanos(10);
+  private static final long SLOW = MILLISECONDS.toNanos(100);
+
+  private final List<Integer> reported = new ArrayList<>();
+
+  private VegasLimit limit(AdaptiveLimitOptions options) {
+    return new VegasLimit(options, "the-address", new ServiceProxyMetrics() {
+      @Override
+      public void concurrencyLimitChanged(String address, int limit) {
+        assertEquals("the-address", address);
+        reported.add(limit);
+      }
+    });
+  }
+
+  @Test
+  public void testGrowsWhileLatencyIsStable() {
+    VegasLimit limit = limit(new AdaptiveLimitOptions().setInitialLimit(10));
+    for (int i = 0; i < 10; i++) {
+      limit.sample(FAST, limit.limit(), false);
+    }
+    assertTrue(limit.limit() > 10);
+    assertEquals(10, (int) reported.get(0));
+    assertEquals(limit.limit(), (int) reported.get(reported.size() - 1));
+  }
+
+  @Test
+  public void testDoesNotGrowWhenUnused() {
+    VegasLimit limit = limit(new AdaptiveLimitOptions().setInitialLimit(10));
+    for (int i = 0; i < 10; i++) {
+      limit.sample(FAST, 1, false);
+    }
+    assertEquals(10, limit.limit());
+  }
+
+  @Test
+  public void testShrinksWhenLatencyGrows() {
+    VegasLimit limit = limit(new AdaptiveLimitOptions().setInitialLimit(100));
+    limit.sample(FAST, 100, false);
+    int grown = limit.limit();
+    for (int i = 0; i < 10; i++) {
+      limit.sample(SLOW, limit.limit(), false);
+    }
+    assertTrue(limit.limit() < grown);
+  }
+
+  @Test
+  public void testShrinksOnFailure() {
+    VegasLimit limit = limit(new AdaptiveLimitOptions().setInitialLimit(10));
+    limit.sample(FAST, 1, true);
+    assertEquals(9, limit.limit());
+  }
+
+  @Test
+  public void testBounds() {
+    VegasLimit limit = limit(new AdaptiveLimitOptions().setInitialLimit(5).setMinLimit(4).setMaxLimit(6));
+    for (int i = 0; i < 10; i++) {
+      limit.sample(FAST, limit.limit(), false);
+    }
+    assertEquals(6, limit.limit());
+    for (int i = 0; i < 10; i++) {
+      limit.sample(FAST, 1, true);
+    }
+    assertEquals(4, limit.limit());
+  }
+}
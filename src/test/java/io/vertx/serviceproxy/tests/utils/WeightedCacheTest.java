@@ -0,0 +1,85 @@
+package io.vertx.serviceproxy.tests.utils;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.EvictionPolicy;
+import io.vertx.serviceproxy.impl.JsonWeigher;
+import io.vertx.serviceproxy.impl.WeightedCache;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WeightedCacheTest {
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    WeightedCache<String, Integer> cache = new WeightedCache<>(2, 1000, 60_000, EvictionPolicy.LRU);
+    cache.put("a", 1, 1);
+    cache.put("b", 2, 1);
+    assertEquals(Integer.valueOf(1), cache.get("a"));
+    cache.put("c", 3, 1);
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertEquals(Integer.valueOf(1), cache.get("a"));
+    assertEquals(Integer.valueOf(3), cache.get("c"));
+    assertEquals(3, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  public void testLeastFrequentlyUsedEviction() {
+    WeightedCache<String, Integer> cache = new WeightedCache<>(2, 1000, 60_000, EvictionPolicy.LFU);
+    cache.put("a", 1, 1);
+    cache.put("b", 2, 1);
+    cache.get("a");
+    cache.get("a");
+    cache.get("b");
+    // b is more recently used but less frequently than a
+    cache.put("c", 3, 1);
+    assertNull(cache.get("b"));
+    assertEquals(Integer.valueOf(1), cache.get("a"));
+    // c is the least frequently used now
+    cache.put("d", 4, 1);
+    assertNull(cache.get("c"));
+    assertEquals(Integer.valueOf(4), cache.get("d"));
+  }
+
+  @Test
+  public void testWeightEviction() {
+    WeightedCache<String, Integer> cache = new WeightedCache<>(10, 100, 60_000, EvictionPolicy.LRU);
+    cache.put("a", 1, 40);
+    cache.put("b", 2, 40);
+    assertEquals(80, cache.weight());
+    cache.put("c", 3, 40);
+    assertEquals(2, cache.size());
+    assertEquals(80, cache.weight());
+    assertNull(cache.get("a"));
+    assertFalse(cache.put("d", 4, 101));
+    assertEquals(2, cache.size());
+    assertTrue(cache.put("b", 5, 10));
+    assertEquals(50, cache.weight());
+    assertEquals(Integer.valueOf(5), cache.get("b"));
+  }
+
+  @Test
+  public void testExpiration() throws Exception {
+    WeightedCache<String, Integer> cache = new WeightedCache<>(2, 1000, 10, EvictionPolicy.LFU);
+    cache.put("a", 1, 1);
+    Thread.sleep(20);
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.weight());
+  }
+
+  @Test
+  public void testJsonWeight() {
+    JsonObject small = new JsonObject().put("name", "a");
+    JsonObject large = new JsonObject().put("name", "a").put("tags", new JsonArray().add("x").add("y").add(3));
+    assertTrue(JsonWeigher.weigh(small) > 0);
+    assertTrue(JsonWeigher.weigh(large) > JsonWeigher.weigh(small));
+    assertTrue(JsonWeigher.weigh("a longer string") > JsonWeigher.weigh("short"));
+  }
+}